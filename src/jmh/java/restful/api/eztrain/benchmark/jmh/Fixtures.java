@@ -0,0 +1,168 @@
+package restful.api.eztrain.benchmark.jmh;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import restful.api.eztrain.entity.CoachEntity;
+import restful.api.eztrain.entity.CoachTypeEntity;
+import restful.api.eztrain.entity.RoleEntity;
+import restful.api.eztrain.entity.RouteEntity;
+import restful.api.eztrain.entity.RoutePriceEntity;
+import restful.api.eztrain.entity.ScheduleEntity;
+import restful.api.eztrain.entity.SeatEntity;
+import restful.api.eztrain.entity.StationEntity;
+import restful.api.eztrain.entity.TicketEntity;
+import restful.api.eztrain.entity.TrainEntity;
+import restful.api.eztrain.entity.UserEntity;
+
+// Entity graphs sized like a real intercity train: 12 coaches of 80 seats
+class Fixtures {
+
+    static final int COACHES = 12;
+
+    static final int ROWS = 20;
+
+    static final String COLUMNS = "ABCD";
+
+    static StationEntity station(long id, String code, String name, String city, String province) {
+        StationEntity station = new StationEntity();
+        station.setId(id);
+        station.setCode(code);
+        station.setName(name);
+        station.setCity(city);
+        station.setProvince(province);
+        station.setIsActive(true);
+        return station;
+    }
+
+    static RouteEntity route() {
+        RouteEntity route = new RouteEntity();
+        route.setId(1L);
+        route.setOrigin(station(1L, "GMR", "Gambir", "Jakarta Pusat", "DKI Jakarta"));
+        route.setDestination(station(2L, "BD", "Bandung", "Bandung", "Jawa Barat"));
+        route.setTripDistance(173.0);
+        route.setTripDuration(180.0);
+        return route;
+    }
+
+    static CoachTypeEntity coachType() {
+        CoachTypeEntity coachType = new CoachTypeEntity();
+        coachType.setId(1L);
+        coachType.setName("Executive");
+        return coachType;
+    }
+
+    static CoachEntity coach(long id, CoachTypeEntity coachType) {
+        List<SeatEntity> seats = new ArrayList<>();
+
+        for (int row = 1; row <= ROWS; row++) {
+            for (char column : COLUMNS.toCharArray()) {
+                SeatEntity seat = new SeatEntity();
+                seat.setId((long) seats.size() + 1);
+                seat.setSeatNumber(row + String.valueOf(column));
+                seats.add(seat);
+            }
+        }
+
+        CoachEntity coach = new CoachEntity();
+        coach.setId(id);
+        coach.setCoachName("Executive " + id);
+        coach.setCoachNumber((int) id);
+        coach.setCoachTypeEntity(coachType);
+        coach.setIsActive(true);
+        coach.setSeats(seats);
+        return coach;
+    }
+
+    static TrainEntity train() {
+        CoachTypeEntity coachType = coachType();
+        List<CoachEntity> coaches = new ArrayList<>();
+
+        for (long id = 1; id <= COACHES; id++) {
+            coaches.add(coach(id, coachType));
+        }
+
+        TrainEntity train = new TrainEntity();
+        train.setId(1L);
+        train.setName("Argo Parahyangan");
+        train.setTrainType("Intercity");
+        train.setOperator("KAI");
+        train.setIsActive(true);
+        train.setCoaches(coaches);
+        return train;
+    }
+
+    static RoutePriceEntity routePrice(RouteEntity route, CoachTypeEntity coachType) {
+        RoutePriceEntity routePrice = new RoutePriceEntity();
+        routePrice.setId(1L);
+        routePrice.setPrice(150000.0);
+        routePrice.setRouteEntity(route);
+        routePrice.setCoachTypeEntity(coachType);
+        return routePrice;
+    }
+
+    static TicketEntity ticket() {
+        TrainEntity train = train();
+        RouteEntity route = route();
+        CoachEntity coach = train.getCoaches().get(0);
+
+        ScheduleEntity schedule = new ScheduleEntity();
+        schedule.setId(1L);
+        schedule.setTrainEntity(train);
+        schedule.setRouteEntity(route);
+        schedule.setDepartureDatetime(LocalDateTime.of(2026, 1, 1, 8, 0));
+        schedule.setArrivalDatetime(LocalDateTime.of(2026, 1, 1, 11, 0));
+        schedule.setStatus("SCHEDULED");
+
+        TicketEntity ticket = new TicketEntity();
+        ticket.setId(1L);
+        ticket.setBookingReference("EZT-20260101-000001");
+        ticket.setBookingStatus("CONFIRMED");
+        ticket.setPrice(150000.0);
+        ticket.setTrainEntity(train);
+        ticket.setScheduleEntity(schedule);
+        ticket.setCoachEntity(coach);
+        ticket.setSeatEntity(coach.getSeats().get(0));
+        ticket.setRouteEntity(route);
+        ticket.setRoutePriceEntity(routePrice(route, coach.getCoachTypeEntity()));
+        return ticket;
+    }
+
+    static List<UserEntity> users(int count) {
+        RoleEntity userRole = new RoleEntity();
+        userRole.setId(1L);
+        userRole.setName("ROLE_USER");
+
+        RoleEntity adminRole = new RoleEntity();
+        adminRole.setId(2L);
+        adminRole.setName("ROLE_ADMIN");
+
+        List<UserEntity> users = new ArrayList<>();
+
+        for (long id = 1; id <= count; id++) {
+            UserEntity user = new UserEntity();
+            user.setId(id);
+            user.setEmail("user" + id + "@gmail.com");
+            user.setFullName("User " + id);
+            user.setPhoneNumber("08123456" + id);
+            user.setIsVerified(true);
+            user.setIsActive(true);
+            user.setRoles(id % 10 == 0 ? List.of(userRole, adminRole) : List.of(userRole));
+            users.add(user);
+        }
+
+        return users;
+    }
+
+    static List<StationEntity> stations(int count) {
+        List<StationEntity> stations = new ArrayList<>();
+
+        for (long id = 1; id <= count; id++) {
+            stations.add(station(id, "ST" + id, "Station " + id, "City " + id, "Province " + (id % 34)));
+        }
+
+        return stations;
+    }
+
+}
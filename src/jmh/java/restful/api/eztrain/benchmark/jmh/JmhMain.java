@@ -0,0 +1,17 @@
+package restful.api.eztrain.benchmark.jmh;
+
+import java.io.File;
+
+import org.openjdk.jmh.Main;
+
+// Run with: mvn -P jmh -DskipTests test-compile exec:exec
+public class JmhMain {
+
+    public static void main(String[] args) throws Exception {
+        // JMH does not create the directory of the -rff result file
+        new File("target/benchmarks").mkdirs();
+
+        Main.main(args);
+    }
+
+}
@@ -0,0 +1,91 @@
+package restful.api.eztrain.benchmark.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import restful.api.eztrain.entity.CoachEntity;
+import restful.api.eztrain.entity.RoutePriceEntity;
+import restful.api.eztrain.entity.StationEntity;
+import restful.api.eztrain.entity.TicketEntity;
+import restful.api.eztrain.entity.TrainEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.mapper.ResponseMapper;
+import restful.api.eztrain.model.CoachResponse;
+import restful.api.eztrain.model.RoutePriceResponse;
+import restful.api.eztrain.model.StationResponse;
+import restful.api.eztrain.model.TicketResponse;
+import restful.api.eztrain.model.TrainResponse;
+import restful.api.eztrain.model.UserResponse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMapperBenchmark {
+
+    private StationEntity station;
+
+    private TrainEntity train;
+
+    private CoachEntity coach;
+
+    private RoutePriceEntity routePrice;
+
+    private TicketEntity ticket;
+
+    private List<UserEntity> users;
+
+    @Setup
+    public void setUp() {
+        station = Fixtures.station(1L, "BD", "Bandung", "Bandung", "Jawa Barat");
+        ticket = Fixtures.ticket();
+        train = ticket.getTrainEntity();
+        coach = ticket.getCoachEntity();
+        routePrice = ticket.getRoutePriceEntity();
+        users = Fixtures.users(50);
+    }
+
+    @Benchmark
+    public StationResponse toStationResponse() {
+        return ResponseMapper.ToStationResponseMapper(station);
+    }
+
+    @Benchmark
+    public TrainResponse toTrainResponse() {
+        return ResponseMapper.ToTrainResponseMapper(train);
+    }
+
+    @Benchmark
+    public CoachResponse toCoachResponse() {
+        return ResponseMapper.ToCoachResponseMapper(coach);
+    }
+
+    @Benchmark
+    public RoutePriceResponse toRoutePriceResponse() {
+        return ResponseMapper.ToRoutePriceResponseMapper(routePrice);
+    }
+
+    @Benchmark
+    public TicketResponse toTicketResponse() {
+        return ResponseMapper.ToTicketResponseMapper(ticket);
+    }
+
+    @Benchmark
+    public List<UserResponse> toUserResponseList() {
+        return ResponseMapper.ToUserResponseListMapper(users);
+    }
+
+}
@@ -0,0 +1,80 @@
+package restful.api.eztrain.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import restful.api.eztrain.model.RegisterStationRequest;
+import restful.api.eztrain.service.ValidationService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationServiceBenchmark {
+
+    private ValidatorFactory validatorFactory;
+
+    private ValidationService validationService;
+
+    private RegisterStationRequest validRequest;
+
+    private RegisterStationRequest invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+
+        validationService = new ValidationService();
+        ReflectionTestUtils.setField(validationService, "validator", validatorFactory.getValidator());
+
+        validRequest = new RegisterStationRequest();
+        validRequest.setCode("BD");
+        validRequest.setName("Bandung");
+        validRequest.setCity("Bandung");
+        validRequest.setProvince("Jawa Barat");
+
+        invalidRequest = new RegisterStationRequest();
+        invalidRequest.setCode("");
+        invalidRequest.setName("");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public RegisterStationRequest validateValid() {
+        validationService.validate(validRequest);
+
+        return validRequest;
+    }
+
+    @Benchmark
+    public ConstraintViolationException validateInvalid() {
+        try {
+            validationService.validate(invalidRequest);
+            return null;
+        } catch (ConstraintViolationException e) {
+            return e;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package restful.api.eztrain.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.TicketEntity;
+import restful.api.eztrain.mapper.ResponseMapper;
+import restful.api.eztrain.model.PagingResponse;
+import restful.api.eztrain.model.StationResponse;
+import restful.api.eztrain.model.TicketResponse;
+import restful.api.eztrain.model.WebResponse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebResponseSerializationBenchmark {
+
+    @Param({ "10", "100" })
+    private int size;
+
+    // same defaults Spring Boot applies to the MVC ObjectMapper
+    private ObjectMapper objectMapper;
+
+    private WebResponse<List<StationResponse>> stationPage;
+
+    private WebResponse<List<TicketResponse>> ticketPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        PagingResponse paging = PagingResponse.builder()
+                                    .currentPage(0)
+                                    .totalPage(12)
+                                    .size(size)
+                                    .build();
+
+        stationPage = WebResponse.<List<StationResponse>>builder()
+                            .status(true)
+                            .messages("Station fetching success")
+                            .data(Fixtures.stations(size).stream().map(ResponseMapper::ToStationResponseMapper).toList())
+                            .paging(paging)
+                            .build();
+
+        TicketEntity ticket = Fixtures.ticket();
+        List<TicketResponse> tickets = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            tickets.add(ResponseMapper.ToTicketResponseMapper(ticket));
+        }
+
+        ticketPage = WebResponse.<List<TicketResponse>>builder()
+                            .status(true)
+                            .messages("Ticket fetching success")
+                            .data(tickets)
+                            .paging(paging)
+                            .build();
+    }
+
+    @Benchmark
+    public byte[] serializeStationPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(stationPage);
+    }
+
+    @Benchmark
+    public byte[] serializeTicketPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ticketPage);
+    }
+
+}
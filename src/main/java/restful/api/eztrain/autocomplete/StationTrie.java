@@ -0,0 +1,160 @@
+package restful.api.eztrain.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import restful.api.eztrain.model.StationResponse;
+
+// Immutable once built; every node keeps the best matches of its subtree, so a lookup
+// only walks the prefix and never scans below it.
+public class StationTrie {
+
+    private static final Node EMPTY = new Node(new char[0], new Node[0], new StationResponse[0]);
+
+    private final Node root;
+
+    private final int size;
+
+    private StationTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static StationTrie of(List<StationResponse> stations, int maxResults) {
+        Builder root = new Builder();
+
+        for (int i = 0; i < stations.size(); i++) {
+            StationResponse station = stations.get(i);
+            String[] fields = { station.getCode(), station.getName(), station.getCity(), station.getProvince() };
+
+            for (int field = 0; field < fields.length; field++) {
+                String value = normalize(fields[field]);
+
+                if (value.isEmpty()) {
+                    continue;
+                }
+
+                // the whole value ranks above a later word of it, and code above name, city and province
+                root.insert(value, i, field * 2);
+
+                for (int space = value.indexOf(' '); space >= 0; space = value.indexOf(' ', space + 1)) {
+                    root.insert(value.substring(space + 1), i, field * 2 + 1);
+                }
+            }
+        }
+
+        String[] names = stations.stream().map(station -> normalize(station.getName())).toArray(String[]::new);
+
+        Comparator<Map.Entry<Integer, Integer>> order = Comparator
+                .<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue)
+                .thenComparing(entry -> names[entry.getKey()])
+                .thenComparingInt(Map.Entry::getKey);
+
+        return new StationTrie(root.freeze(stations, order, maxResults), stations.size());
+    }
+
+    public static StationTrie empty() {
+        return new StationTrie(EMPTY, 0);
+    }
+
+    public List<StationResponse> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Node node = root;
+
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+
+        if (node == null) {
+            return List.of();
+        }
+
+        return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+
+        private final char[] keys;
+
+        private final Node[] children;
+
+        private final StationResponse[] top;
+
+        private Node(char[] keys, Node[] children, StationResponse[] top) {
+            this.keys = keys;
+            this.children = children;
+            this.top = top;
+        }
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+
+            return index < 0 ? null : children[index];
+        }
+
+    }
+
+    private static final class Builder {
+
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+
+        // station index -> best rank of any key that passes through this node
+        private final Map<Integer, Integer> ranks = new HashMap<>();
+
+        private void insert(String key, int station, int rank) {
+            Builder node = this;
+
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+                node.ranks.merge(station, rank, Math::min);
+            }
+        }
+
+        private Node freeze(List<StationResponse> stations, Comparator<Map.Entry<Integer, Integer>> order, int maxResults) {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+
+            for (Map.Entry<Character, Builder> child : children.entrySet()) {
+                keys[i] = child.getKey();
+                nodes[i] = child.getValue().freeze(stations, order, maxResults);
+                i++;
+            }
+
+            List<Map.Entry<Integer, Integer>> matches = new ArrayList<>(ranks.entrySet());
+            matches.sort(order);
+
+            StationResponse[] top = matches.stream()
+                                        .limit(maxResults)
+                                        .map(entry -> stations.get(entry.getKey()))
+                                        .toArray(StationResponse[]::new);
+
+            return new Node(keys, nodes, top);
+        }
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package restful.api.eztrain.bulkhead;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@ConditionalOnProperty(name = "database.bulkhead.enabled", havingValue = "true")
+@Slf4j
+public class DatabaseBulkheadPostProcessor implements BeanPostProcessor {
+
+    @Value("${database.bulkhead.permits:0}")
+    private Integer permits;
+
+    @Value("${database.bulkhead.timeout:30000}")
+    private Long timeout;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+            return bean;
+        }
+
+        // by default one permit per pooled connection, so nobody waits inside the pool itself
+        int size = permits > 0 ? permits
+                    : dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize()
+                    : 10;
+
+        log.info("Database bulkhead enabled for {} with {} permits", beanName, size);
+        return new BulkheadDataSource(dataSource, size, timeout);
+    }
+
+}
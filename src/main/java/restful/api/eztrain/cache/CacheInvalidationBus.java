@@ -0,0 +1,180 @@
+package restful.api.eztrain.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Fans cache invalidations out to every node through Postgres NOTIFY. Callers publish once their
+// transaction has committed; each node LISTENs on a dedicated connection outside the pool and
+// hands the topic and key to whoever subscribed to it. A node ignores its own messages because
+// it has already evicted locally before publishing.
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    private static final String SEPARATOR = "\t";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${cache.invalidation.channel:eztrain_cache_invalidation}")
+    private String channel;
+
+    @Value("${cache.invalidation.poll-interval:500}")
+    private Integer pollInterval;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Consumer<String>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running;
+
+    private Thread listener;
+
+    // the handler receives the key, or null when the whole topic has to go
+    public void subscribe(String topic, Consumer<String> handler) {
+        subscribers.put(topic, handler);
+    }
+
+    public void publish(String topic, String key) {
+        if (!enabled) {
+            return;
+        }
+
+        String payload = String.join(SEPARATOR, nodeId, topic, key != null ? key : "");
+
+        // off the committing thread, so the notify never joins a transaction that has already ended
+        publisher.execute(() -> {
+            try {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) resultSet -> {}, channel, payload);
+            } catch (RuntimeException e) {
+                log.warn("Could not publish cache invalidation {} {}", topic, key, e);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        publisher.shutdown();
+
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                                            dataSourceProperties.determineUsername(),
+                                            dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + channel.replace("\"", "\"\"") + "\"");
+                }
+
+                log.info("Listening for cache invalidations on {} as node {}", channel, nodeId);
+
+                // anything published while the connection was down is lost
+                if (connectedBefore) {
+                    subscribers.forEach((topic, handler) -> deliver(topic, handler, null));
+                }
+
+                connectedBefore = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollInterval);
+
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+
+                log.warn("Cache invalidation listener lost its connection, reconnecting", e);
+
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        String[] parts = payload.split(SEPARATOR, 3);
+
+        if (parts.length < 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+
+        Consumer<String> handler = subscribers.get(parts[1]);
+
+        if (handler != null) {
+            deliver(parts[1], handler, parts[2].isEmpty() ? null : parts[2]);
+        }
+    }
+
+    private void deliver(String topic, Consumer<String> handler, String key) {
+        try {
+            handler.accept(key);
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidation {} {} failed", topic, key, e);
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+package restful.api.eztrain.cache;
+
+import java.util.Set;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import restful.api.eztrain.entity.RoleEntity;
+import restful.api.eztrain.entity.StationEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.entity.VoucherEntity;
+import restful.api.eztrain.transaction.AfterCommit;
+
+// Evicts the reference caches once a write to one of the cached entities has committed, no
+// matter whether it came from a service, a seeder or a repository call in a test, and passes
+// the eviction on to the other nodes. Bulk JPQL and native statements bypass these events and
+// have to clear the caches themselves.
+@Component
+public class ReferenceCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final Set<Class<?>> CACHED = Set.of(StationEntity.class, RoleEntity.class, UserEntity.class, VoucherEntity.class);
+
+    private static final Set<String> CACHE_NAMES = Set.of(ReferenceCaches.STATIONS, ReferenceCaches.USERS, ReferenceCaches.VOUCHERS);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                                            .getServiceRegistry()
+                                            .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+
+        CACHE_NAMES.forEach(name -> cacheInvalidationBus.subscribe(name, key -> evictLocal(name, key)));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evict(event.getEntity());
+    }
+
+    // a changed roles list does not dirty the user row itself, so no update event follows it
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictOwnerAfterCommit(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictOwnerAfterCommit(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        evictOwnerAfterCommit(event);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return CACHED.contains(persister.getMappedClass());
+    }
+
+    public void clearAll() {
+        CACHE_NAMES.forEach(name -> invalidate(name, null));
+    }
+
+    private void evictOwnerAfterCommit(AbstractCollectionEvent event) {
+        Object owner = event.getAffectedOwnerOrNull();
+
+        if (!(owner instanceof UserEntity)) {
+            return;
+        }
+
+        AfterCommit.run(() -> evict(owner));
+    }
+
+    private void evict(Object entity) {
+        if (entity instanceof UserEntity user) {
+            invalidate(ReferenceCaches.USERS, user.getEmail());
+        } else if (entity instanceof StationEntity) {
+            // codes can change on update, so the old key is unknown here
+            invalidate(ReferenceCaches.STATIONS, null);
+        } else if (entity instanceof RoleEntity) {
+            // cached credentials carry the role names
+            invalidate(ReferenceCaches.USERS, null);
+        } else if (entity instanceof VoucherEntity) {
+            invalidate(ReferenceCaches.VOUCHERS, null);
+        }
+    }
+
+    private void invalidate(String name, String key) {
+        evictLocal(name, key);
+        cacheInvalidationBus.publish(name, key);
+    }
+
+    private void evictLocal(String name, String key) {
+        Cache cache = cacheManager.getCache(name);
+
+        if (cache == null) {
+            return;
+        }
+
+        if (key != null) {
+            cache.evict(key);
+        } else {
+            cache.clear();
+        }
+    }
+
+}
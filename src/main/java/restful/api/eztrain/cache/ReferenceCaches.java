@@ -0,0 +1,27 @@
+package restful.api.eztrain.cache;
+
+public final class ReferenceCaches {
+
+    public static final String STATIONS = "stations";
+
+    public static final String USERS = "users";
+
+    public static final String VOUCHERS = "vouchers";
+
+    // in-memory structures kept outside the cache manager
+    public static final String FARES = "fares";
+
+    public static final String STATION_AUTOCOMPLETE = "stationAutocomplete";
+
+    public static final String DEPARTURES = "departures";
+
+    public static final String JOURNEYS = "journeys";
+
+    public static final String SEAT_INVENTORY = "seatInventory";
+
+    public static final String TOKEN_REVOCATIONS = "tokenRevocations";
+
+    private ReferenceCaches() {
+    }
+
+}
@@ -0,0 +1,74 @@
+package restful.api.eztrain.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import restful.api.eztrain.model.SeatHoldRequest;
+import restful.api.eztrain.model.SeatHoldResponse;
+import restful.api.eztrain.model.TicketResponse;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.service.BookingService;
+
+@RestController
+public class BookingController {
+
+    @Autowired
+    BookingService bookingService;
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @PostMapping(
+        path = "/api/bookings/holds",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<SeatHoldResponse> hold(Authentication authentication, @RequestBody SeatHoldRequest request) {
+        SeatHoldResponse response = bookingService.hold(authentication, request);
+
+        return WebResponse.<SeatHoldResponse>builder()
+                                        .status(true)
+                                        .messages("Seat hold success")
+                                        .data(response)
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @PostMapping(
+        path = "/api/bookings/holds/{holdId}/confirm",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<TicketResponse>> confirm(Authentication authentication, 
+                                                    @PathVariable("holdId") String holdId) {
+        List<TicketResponse> response = bookingService.confirm(authentication, holdId);
+
+        return WebResponse.<List<TicketResponse>>builder()
+                                        .status(true)
+                                        .messages("Booking confirmation success")
+                                        .data(response)
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @DeleteMapping(
+        path = "/api/bookings/holds/{holdId}",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<String> cancelHold(Authentication authentication, 
+                                        @PathVariable("holdId") String holdId) {
+        bookingService.cancelHold(authentication, holdId);
+
+        return WebResponse.<String>builder()
+                                        .status(true)
+                                        .messages("Seat hold release success")
+                                        .build();
+    }
+
+}
@@ -1,9 +1,11 @@
 package restful.api.eztrain.controller;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -16,12 +18,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import restful.api.eztrain.model.AssignSeatsRequest;
+import restful.api.eztrain.model.BulkRegisterCoachRequest;
 import restful.api.eztrain.model.CoachResponse;
 import restful.api.eztrain.model.PagingResponse;
 import restful.api.eztrain.model.RegisterCoachRequest;
 import restful.api.eztrain.model.SearchCoachRequest;
 import restful.api.eztrain.model.UpdateCoachRequest;
 import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.service.CoachService;
 
 @RestController
@@ -46,6 +51,22 @@ public class CoachController {
                                         .build();      
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(
+        path = "/api/coaches/bulk",
+        consumes = MediaType.APPLICATION_JSON_VALUE,        
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<CoachResponse>> registerBulk(Authentication authentication, @RequestBody BulkRegisterCoachRequest request) {
+        List<CoachResponse> response = coachService.registerBulk(authentication, request);
+
+        return WebResponse.<List<CoachResponse>>builder()
+                                        .status(true)
+                                        .messages("Coach bulk registration success")
+                                        .data(response)
+                                        .build();      
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping(
         path = "/api/coaches/{coachId}",        
@@ -106,9 +127,27 @@ public class CoachController {
         produces = MediaType.APPLICATION_JSON_VALUE
     )
     public WebResponse<List<CoachResponse>> getAlltrain(
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
+        if (Objects.nonNull(after)) {
+            Window<CoachResponse> window = coachService.scroll(SearchCoachRequest.builder()
+                                                    .size(size)
+                                                    .after(after)
+                                                    .build());
+
+            return WebResponse.<List<CoachResponse>>builder()
+                                            .status(true)
+                                            .messages("All coaches successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<CoachResponse> response = coachService.getAllCoaches(page, size);
 
         return WebResponse.<List<CoachResponse>>builder()
@@ -130,6 +169,7 @@ public class CoachController {
     )
     public WebResponse<List<CoachResponse>> search(Authentication authentication,
                                                 @RequestParam(value = "coachName", required = false) String coachName,                                                
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
@@ -137,8 +177,23 @@ public class CoachController {
                                         .page(page)
                                         .size(size)                                                                            
                                         .coachName(coachName)                                    
+                                        .after(after)
                                         .build();
 
+        if (Objects.nonNull(after)) {
+            Window<CoachResponse> window = coachService.scroll(request);
+
+            return WebResponse.<List<CoachResponse>>builder()
+                                            .status(true)
+                                            .messages("All coaches successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<CoachResponse> response = coachService.search(request);
 
         return WebResponse.<List<CoachResponse>>builder()
@@ -172,6 +227,25 @@ public class CoachController {
                                         .build();      
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(
+        path = "/api/coaches/{coachId}/seats",
+        consumes = MediaType.APPLICATION_JSON_VALUE,        
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<CoachResponse> assignSeats(Authentication authentication,                                             
+                                            @PathVariable("coachId") Long coachId,
+                                            @RequestBody AssignSeatsRequest request) {        
+        
+        CoachResponse response = coachService.assignSeats(coachId, request);
+
+        return WebResponse.<CoachResponse>builder()
+                                        .status(true)
+                                        .messages("Coach assigning seats success")
+                                        .data(response)
+                                        .build();      
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping(
         path = "/api/coaches/{coachId}/seats/{seatId}",
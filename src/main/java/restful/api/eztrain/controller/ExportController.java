@@ -0,0 +1,68 @@
+package restful.api.eztrain.controller;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletResponse;
+import restful.api.eztrain.export.ExportFormat;
+import restful.api.eztrain.service.ExportService;
+
+@RestController
+public class ExportController {
+
+    @Autowired
+    ExportService exportService;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(path = "/api/exports/tickets")
+    public void exportTickets(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        prepare(response, "tickets", exportFormat);
+        exportService.exportTickets(exportFormat, response.getOutputStream());
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(path = "/api/exports/payments")
+    public void exportPayments(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        prepare(response, "payments", exportFormat);
+        exportService.exportPayments(exportFormat, response.getOutputStream());
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(path = "/api/exports/users")
+    public void exportUsers(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        prepare(response, "users", exportFormat);
+        exportService.exportUsers(exportFormat, response.getOutputStream());
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(path = "/api/exports/schedules")
+    public void exportSchedules(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        prepare(response, "schedules", exportFormat);
+        exportService.exportSchedules(exportFormat, response.getOutputStream());
+    }
+
+    private void prepare(HttpServletResponse response, String name, ExportFormat format) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+    }
+
+}
@@ -0,0 +1,52 @@
+package restful.api.eztrain.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import restful.api.eztrain.model.JourneyResponse;
+import restful.api.eztrain.model.SearchJourneyRequest;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.service.JourneyPlannerService;
+
+@RestController
+public class JourneyController {
+
+    @Autowired
+    JourneyPlannerService journeyPlannerService;
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/journeys",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<JourneyResponse>> plan(
+                                @RequestParam(value = "originCode") String originCode,
+                                @RequestParam(value = "destCode") String destCode,
+                                @RequestParam(value = "departAfter", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departAfter,
+                                @RequestParam(value = "maxTransfers", required = false) Integer maxTransfers) {
+
+        SearchJourneyRequest request = SearchJourneyRequest.builder()
+                                        .origin(originCode)
+                                        .destination(destCode)
+                                        .departAfter(departAfter)
+                                        .maxTransfers(maxTransfers)
+                                        .build();
+
+        List<JourneyResponse> response = journeyPlannerService.plan(request);
+
+        return WebResponse.<List<JourneyResponse>>builder()
+                                            .status(true)
+                                            .messages("Journey planning success")
+                                            .data(response)
+                                            .build();
+    }
+
+}
@@ -0,0 +1,37 @@
+package restful.api.eztrain.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import restful.api.eztrain.model.PaymentResponse;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.service.PaymentService;
+
+@RestController
+public class PaymentController {
+
+    @Autowired
+    PaymentService paymentService;
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/payments/{paymentId}",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<PaymentResponse> get(Authentication authentication, 
+                                            @PathVariable("paymentId") Long paymentId) {
+        PaymentResponse response = paymentService.get(authentication, paymentId);
+
+        return WebResponse.<PaymentResponse>builder()
+                                        .status(true)
+                                        .messages("Payment fetching success")
+                                        .data(response)
+                                        .build();
+    }
+
+}
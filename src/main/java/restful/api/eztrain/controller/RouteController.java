@@ -1,9 +1,11 @@
 package restful.api.eztrain.controller;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -22,6 +24,7 @@ import restful.api.eztrain.model.RouteResponse;
 import restful.api.eztrain.model.SearchRouteRequest;
 import restful.api.eztrain.model.UpdateRouteRequest;
 import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.service.RouteService;
 
 @RestController
@@ -70,9 +73,27 @@ public class RouteController {
         produces = MediaType.APPLICATION_JSON_VALUE
     )
     public WebResponse<List<RouteResponse>> getAllRoute(
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
+        if (Objects.nonNull(after)) {
+            Window<RouteResponse> window = routeService.scroll(SearchRouteRequest.builder()
+                                                    .size(size)
+                                                    .after(after)
+                                                    .build());
+
+            return WebResponse.<List<RouteResponse>>builder()
+                                            .status(true)
+                                            .messages("All routes successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<RouteResponse> response = routeService.getAllRoutes(page, size);
 
         return WebResponse.<List<RouteResponse>>builder()
@@ -132,6 +153,7 @@ public class RouteController {
     public WebResponse<List<RouteResponse>> search(Authentication authentication,
                                                 @RequestParam(value = "originCode", required = false) String originCode,
                                                 @RequestParam(value = "destCode", required = false) String destCode,                                                
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
@@ -140,8 +162,23 @@ public class RouteController {
                                         .size(size)
                                         .origin(originCode)
                                         .destination(destCode)                                        
+                                        .after(after)
                                         .build();
 
+        if (Objects.nonNull(after)) {
+            Window<RouteResponse> window = routeService.scroll(request);
+
+            return WebResponse.<List<RouteResponse>>builder()
+                                            .status(true)
+                                            .messages("All routes successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<RouteResponse> response = routeService.search(request);
 
         return WebResponse.<List<RouteResponse>>builder()
@@ -0,0 +1,186 @@
+package restful.api.eztrain.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import restful.api.eztrain.model.BulkRegisterScheduleRequest;
+import restful.api.eztrain.model.PagingResponse;
+import restful.api.eztrain.model.RegisterScheduleRequest;
+import restful.api.eztrain.model.ScheduleResponse;
+import restful.api.eztrain.model.UpdateScheduleRequest;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.service.DepartureService;
+import restful.api.eztrain.service.ScheduleService;
+
+@RestController
+public class ScheduleController {
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    DepartureService departureService;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(
+        path = "/api/schedules",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<ScheduleResponse> register(Authentication authentication, @RequestBody RegisterScheduleRequest request) {
+        ScheduleResponse response = scheduleService.register(authentication, request);
+
+        return WebResponse.<ScheduleResponse>builder()
+                                        .status(true)
+                                        .messages("Schedule registration success")
+                                        .data(response)
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(
+        path = "/api/schedules/bulk",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<ScheduleResponse>> registerBulk(Authentication authentication, @RequestBody BulkRegisterScheduleRequest request) {
+        List<ScheduleResponse> response = scheduleService.registerBulk(authentication, request);
+
+        return WebResponse.<List<ScheduleResponse>>builder()
+                                        .status(true)
+                                        .messages("Schedule bulk registration success")
+                                        .data(response)
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/schedules/{scheduleId}",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<ScheduleResponse> get(Authentication authentication,
+                                            @PathVariable("scheduleId") Long scheduleId) {
+
+        ScheduleResponse response = scheduleService.get(scheduleId);
+
+        return WebResponse.<ScheduleResponse>builder()
+                                            .status(true)
+                                            .messages("Schedule fetching success")
+                                            .data(response)
+                                            .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping(
+        path = "/api/schedules/{scheduleId}",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<ScheduleResponse> update(Authentication authentication,
+                                            @RequestBody UpdateScheduleRequest request,
+                                            @PathVariable("scheduleId") Long scheduleId) {
+
+        request.setId(scheduleId);
+
+        ScheduleResponse response = scheduleService.update(authentication, request, scheduleId);
+
+        return WebResponse.<ScheduleResponse>builder()
+                                        .status(true)
+                                        .messages("Schedule update success")
+                                        .data(response)
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping(
+        path = "/api/schedules/{scheduleId}",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<String> delete(Authentication authentication,
+                                            @PathVariable("scheduleId") Long scheduleId) {
+
+        scheduleService.delete(scheduleId);
+
+        return WebResponse.<String>builder()
+                                        .status(true)
+                                        .messages("Schedule delete success")
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/schedules",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<ScheduleResponse>> getAllSchedules(
+                                                @RequestParam(value = "page", defaultValue = "0") Integer page,
+                                                @RequestParam(value = "size", defaultValue = "10") Integer size) {
+
+        Page<ScheduleResponse> response = scheduleService.getAllSchedules(page, size);
+
+        return WebResponse.<List<ScheduleResponse>>builder()
+                                            .status(true)
+                                            .messages("All schedules successfully fetched")
+                                            .data(response.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .currentPage(response.getNumber())
+                                                    .totalPage(response.getTotalPages())
+                                                    .size(response.getSize())
+                                                    .build())
+                                            .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/departures",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<ScheduleResponse>> getDepartures(
+                                @RequestParam(value = "stationCode") String stationCode,
+                                @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        List<ScheduleResponse> response = departureService.getDepartures(stationCode, date != null ? date : LocalDate.now());
+
+        return WebResponse.<List<ScheduleResponse>>builder()
+                                            .status(true)
+                                            .messages("Departures successfully fetched")
+                                            .data(response)
+                                            .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/departures/next",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<ScheduleResponse>> getNextDepartures(
+                                @RequestParam(value = "stationCode") String stationCode,
+                                @RequestParam(value = "after", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after,
+                                @RequestParam(value = "limit", defaultValue = "5") Integer limit) {
+
+        List<ScheduleResponse> response = departureService.getNextDepartures(stationCode, after != null ? after : LocalDateTime.now(), limit);
+
+        return WebResponse.<List<ScheduleResponse>>builder()
+                                            .status(true)
+                                            .messages("Next departures successfully fetched")
+                                            .data(response)
+                                            .build();
+    }
+
+}
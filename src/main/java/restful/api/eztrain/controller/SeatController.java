@@ -1,9 +1,11 @@
 package restful.api.eztrain.controller;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -19,9 +21,11 @@ import org.springframework.web.bind.annotation.RestController;
 import restful.api.eztrain.model.PagingResponse;
 import restful.api.eztrain.model.RegisterSeatRequest;
 import restful.api.eztrain.model.SearchSeatRequest;
+import restful.api.eztrain.model.SeatLayoutRequest;
 import restful.api.eztrain.model.SeatResponse;
 import restful.api.eztrain.model.UpdateSeatRequest;
 import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.service.SeatService;
 
 @RestController
@@ -46,6 +50,22 @@ public class SeatController {
                                         .build();      
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(
+        path = "/api/seats/bulk",
+        consumes = MediaType.APPLICATION_JSON_VALUE,        
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<SeatResponse>> registerLayout(Authentication authentication, @RequestBody SeatLayoutRequest request) {
+        List<SeatResponse> response = seatService.registerLayout(authentication, request);
+
+        return WebResponse.<List<SeatResponse>>builder()
+                                        .status(true)
+                                        .messages("Seat layout registration success")
+                                        .data(response)
+                                        .build();      
+    }
+
     @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
     @GetMapping(
         path = "/api/seats/{seatId}",
@@ -106,9 +126,27 @@ public class SeatController {
         produces = MediaType.APPLICATION_JSON_VALUE
     )
     public WebResponse<List<SeatResponse>> getAlltrain(
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
+        if (Objects.nonNull(after)) {
+            Window<SeatResponse> window = seatService.scroll(SearchSeatRequest.builder()
+                                                    .size(size)
+                                                    .after(after)
+                                                    .build());
+
+            return WebResponse.<List<SeatResponse>>builder()
+                                            .status(true)
+                                            .messages("All seats successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<SeatResponse> response = seatService.getAllSeats(page, size);
 
         return WebResponse.<List<SeatResponse>>builder()
@@ -130,6 +168,7 @@ public class SeatController {
     )
     public WebResponse<List<SeatResponse>> search(Authentication authentication,
                                                 @RequestParam(value = "seatNumber", required = false) String seatNumber,                                                
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
@@ -137,8 +176,23 @@ public class SeatController {
                                         .page(page)
                                         .size(size)                                                                            
                                         .seatNumber(seatNumber)                                    
+                                        .after(after)
                                         .build();
 
+        if (Objects.nonNull(after)) {
+            Window<SeatResponse> window = seatService.scroll(request);
+
+            return WebResponse.<List<SeatResponse>>builder()
+                                            .status(true)
+                                            .messages("All seats successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<SeatResponse> response = seatService.search(request);
 
         return WebResponse.<List<SeatResponse>>builder()
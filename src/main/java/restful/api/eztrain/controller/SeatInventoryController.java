@@ -0,0 +1,55 @@
+package restful.api.eztrain.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import restful.api.eztrain.model.AdjacentSeatsResponse;
+import restful.api.eztrain.model.ScheduleAvailabilityResponse;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.service.SeatInventoryService;
+
+@RestController
+public class SeatInventoryController {
+
+    @Autowired
+    SeatInventoryService seatInventoryService;
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/schedules/{scheduleId}/availability",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<ScheduleAvailabilityResponse> getAvailability(@PathVariable("scheduleId") Long scheduleId) {
+        ScheduleAvailabilityResponse response = seatInventoryService.getAvailability(scheduleId);
+
+        return WebResponse.<ScheduleAvailabilityResponse>builder()
+                                            .status(true)
+                                            .messages("Seat availability fetching success")
+                                            .data(response)
+                                            .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/schedules/{scheduleId}/availability/adjacent",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<AdjacentSeatsResponse> getAdjacentSeats(@PathVariable("scheduleId") Long scheduleId,
+                                                @RequestParam(value = "count", defaultValue = "1") Integer count,
+                                                @RequestParam(value = "coachType", required = false) String coachType) {
+
+        AdjacentSeatsResponse response = seatInventoryService.findAdjacentSeats(scheduleId, count, coachType);
+
+        return WebResponse.<AdjacentSeatsResponse>builder()
+                                            .status(true)
+                                            .messages("Adjacent seats fetching success")
+                                            .data(response)
+                                            .build();
+    }
+
+}
@@ -1,9 +1,11 @@
 package restful.api.eztrain.controller;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -22,6 +24,8 @@ import restful.api.eztrain.model.SearchStationRequest;
 import restful.api.eztrain.model.StationResponse;
 import restful.api.eztrain.model.UpdateStationRequest;
 import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.pagination.KeysetCursor;
+import restful.api.eztrain.service.StationAutocompleteService;
 import restful.api.eztrain.service.StationService;
 
 @RestController
@@ -30,6 +34,9 @@ public class StationController {
     @Autowired
     StationService stationService;
 
+    @Autowired
+    StationAutocompleteService stationAutocompleteService;
+
     public StationController(StationService stationService) {
         this.stationService = stationService;
     }
@@ -110,9 +117,27 @@ public class StationController {
         produces = MediaType.APPLICATION_JSON_VALUE
     )
     public WebResponse<List<StationResponse>> getAllStation(
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
+        if (Objects.nonNull(after)) {
+            Window<StationResponse> window = stationService.scroll(SearchStationRequest.builder()
+                                                    .size(size)
+                                                    .after(after)
+                                                    .build());
+
+            return WebResponse.<List<StationResponse>>builder()
+                                            .status(true)
+                                            .messages("All stations successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<StationResponse> response = stationService.getAllStations(page, size);
 
         return WebResponse.<List<StationResponse>>builder()
@@ -137,6 +162,7 @@ public class StationController {
                                                         @RequestParam(value = "name", required = false) String name,
                                                         @RequestParam(value = "city", required = false) String city,
                                                         @RequestParam(value = "province", required = false) String province,
+                                                        @RequestParam(value = "after", required = false) String after,
                                                         @RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
                                                         @RequestParam(value = "size", required = false, defaultValue = "10") Integer size) {
         SearchStationRequest request = SearchStationRequest.builder()
@@ -146,8 +172,23 @@ public class StationController {
                                         .name(name)
                                         .city(city)
                                         .province(province)
+                                        .after(after)
                                         .build();
 
+        if (Objects.nonNull(after)) {
+            Window<StationResponse> window = stationService.scroll(request);
+
+            return WebResponse.<List<StationResponse>>builder()
+                                            .status(true)
+                                            .messages("Station search executed successfully")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<StationResponse> response = stationService.search(request);
         
         return WebResponse.<List<StationResponse>>builder()
@@ -162,4 +203,21 @@ public class StationController {
                                 .build())
                             .build();
     }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/stations/autocomplete",        
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<StationResponse>> autocomplete(Authentication authentication,
+                                                        @RequestParam(value = "q") String query,
+                                                        @RequestParam(value = "limit", required = false) Integer limit) {
+        List<StationResponse> response = stationAutocompleteService.complete(query, limit);
+
+        return WebResponse.<List<StationResponse>>builder()
+                            .status(true)
+                            .messages("Station autocomplete executed successfully")
+                            .data(response)
+                            .build();
+    }
 }
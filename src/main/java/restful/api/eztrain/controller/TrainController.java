@@ -1,9 +1,11 @@
 package restful.api.eztrain.controller;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -22,6 +24,7 @@ import restful.api.eztrain.model.SearchTrainRequest;
 import restful.api.eztrain.model.TrainResponse;
 import restful.api.eztrain.model.UpdateTrainRequest;
 import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.service.TrainService;
 
 @RestController
@@ -110,9 +113,27 @@ public class TrainController {
         produces = MediaType.APPLICATION_JSON_VALUE
     )
     public WebResponse<List<TrainResponse>> getAllTrain(
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
+        if (Objects.nonNull(after)) {
+            Window<TrainResponse> window = trainService.scroll(SearchTrainRequest.builder()
+                                                    .size(size)
+                                                    .after(after)
+                                                    .build());
+
+            return WebResponse.<List<TrainResponse>>builder()
+                                            .status(true)
+                                            .messages("All trains successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<TrainResponse> response = trainService.getAllTrains(page, size);
 
         return WebResponse.<List<TrainResponse>>builder()
@@ -136,6 +157,7 @@ public class TrainController {
                                                 @RequestParam(value = "name", required = false) String name,
                                                 @RequestParam(value = "trainType", required = false) String trainType,
                                                 @RequestParam(value = "operator", required = false) String operator,
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
@@ -145,8 +167,23 @@ public class TrainController {
                                         .name(name)                                        
                                         .trainType(trainType)
                                         .operator(operator)
+                                        .after(after)
                                         .build();
 
+        if (Objects.nonNull(after)) {
+            Window<TrainResponse> window = trainService.scroll(request);
+
+            return WebResponse.<List<TrainResponse>>builder()
+                                            .status(true)
+                                            .messages("All trains successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<TrainResponse> response = trainService.search(request);
 
         return WebResponse.<List<TrainResponse>>builder()
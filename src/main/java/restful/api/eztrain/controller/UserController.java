@@ -1,9 +1,11 @@
 package restful.api.eztrain.controller;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -19,6 +21,7 @@ import restful.api.eztrain.model.RegisterUserRequest;
 import restful.api.eztrain.model.UpdateUserRequest;
 import restful.api.eztrain.model.UserResponse;
 import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.service.UserService;
 
 @RestController
@@ -83,9 +86,24 @@ public class UserController {
         produces = MediaType.APPLICATION_JSON_VALUE
     )
     public WebResponse<List<UserResponse>> getAllUser(
+                                                @RequestParam(value = "after", required = false) String after,
                                                 @RequestParam(value = "page", defaultValue = "0") Integer page,
                                                 @RequestParam(value = "size", defaultValue = "10") Integer size) {
 
+        if (Objects.nonNull(after)) {
+            Window<UserResponse> window = userService.scrollUsers(after, size);
+
+            return WebResponse.<List<UserResponse>>builder()
+                                            .status(true)
+                                            .messages("All users successfully fetched")
+                                            .data(window.getContent())
+                                            .paging(PagingResponse.builder()
+                                                    .size(size)
+                                                    .nextCursor(KeysetCursor.next(window))
+                                                    .build())
+                                            .build();
+        }
+
         Page<UserResponse> response = userService.getAllUsers(page, size);
 
         return WebResponse.<List<UserResponse>>builder()
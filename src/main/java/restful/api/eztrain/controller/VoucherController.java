@@ -0,0 +1,55 @@
+package restful.api.eztrain.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import restful.api.eztrain.model.RegisterVoucherRequest;
+import restful.api.eztrain.model.VoucherResponse;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.service.VoucherService;
+
+@RestController
+public class VoucherController {
+
+    @Autowired
+    VoucherService voucherService;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(
+        path = "/api/vouchers",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<VoucherResponse> register(Authentication authentication, @RequestBody RegisterVoucherRequest request) {
+        VoucherResponse response = voucherService.register(authentication, request);
+
+        return WebResponse.<VoucherResponse>builder()
+                                        .status(true)
+                                        .messages("Voucher registration success")
+                                        .data(response)
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/vouchers/{code}",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<VoucherResponse> get(@PathVariable("code") String code) {
+        VoucherResponse response = voucherService.get(code);
+
+        return WebResponse.<VoucherResponse>builder()
+                                        .status(true)
+                                        .messages("Voucher fetching success")
+                                        .data(response)
+                                        .build();
+    }
+
+}
@@ -9,7 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,7 +25,8 @@ import lombok.NoArgsConstructor;
 public class PaymentEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
 
     private String paymentMethod;
@@ -39,12 +40,21 @@ public class PaymentEntity {
     private String paymentStatus;
     private LocalDateTime paidAt;
 
-    @OneToOne
+    private String gatewayReference;
+
+    // the hold the booking was confirmed from, shared by the payments of all its tickets
+    private String bookingId;
+
+    // the node working on the payment, and until when; any node may take it over after that
+    private String claimedBy;
+    private LocalDateTime claimedUntil;
+
+    @ManyToOne
     @JoinColumn(name = "ticket_id")
     private TicketEntity ticket;
 
     @ManyToOne
-    @JoinColumn(name = "voucher_id", nullable = false, referencedColumnName = "id")
+    @JoinColumn(name = "voucher_id", referencedColumnName = "id")
     private VoucherEntity voucherEntity;
 
     @ManyToOne
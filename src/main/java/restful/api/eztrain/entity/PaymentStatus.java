@@ -0,0 +1,15 @@
+package restful.api.eztrain.entity;
+
+public enum PaymentStatus {
+
+    PENDING,
+
+    AUTHORIZED,
+
+    CAPTURED,
+
+    SETTLED,
+
+    FAILED
+
+}
@@ -15,6 +15,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -36,7 +37,8 @@ import lombok.NoArgsConstructor;
 public class RoutePriceEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "route_prices_seq")
+    @SequenceGenerator(name = "route_prices_seq", sequenceName = "route_prices_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
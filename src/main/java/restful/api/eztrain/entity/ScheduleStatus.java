@@ -0,0 +1,11 @@
+package restful.api.eztrain.entity;
+
+public enum ScheduleStatus {
+
+    SCHEDULED,
+
+    DELAYED,
+
+    CANCELLED
+
+}
@@ -1,15 +1,19 @@
 package restful.api.eztrain.entity;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.hibernate.annotations.CreationTimestamp;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,7 +29,8 @@ import lombok.NoArgsConstructor;
 public class TicketEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_seq")
+    @SequenceGenerator(name = "tickets_seq", sequenceName = "tickets_seq", allocationSize = 50)
     private Long id;
 
     private String bookingReference;
@@ -65,4 +70,7 @@ public class TicketEntity {
     @JoinColumn(name = "route_price_id", nullable = false, referencedColumnName = "id")
     private RoutePriceEntity routePriceEntity;
 
+    @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL)
+    private List<PaymentEntity> payments;
+
 }
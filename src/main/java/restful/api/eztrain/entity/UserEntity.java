@@ -17,6 +17,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,7 +33,8 @@ import lombok.NoArgsConstructor;
 public class UserEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -40,6 +42,11 @@ public class UserEntity {
 
     @Column(nullable = false)
     private String password;
+
+    // signed JWTs with roles and jti claims run well past the default 255 characters; ddl-auto=update
+    // never widens a column, so an existing database needs a one-off
+    // ALTER TABLE users ALTER COLUMN token TYPE varchar(1024)
+    @Column(length = 1024)
     private String token;
 
     @Column(name = "token_expired_at")
@@ -12,6 +12,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,7 +28,8 @@ import lombok.NoArgsConstructor;
 public class VoucherEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vouchers_seq")
+    @SequenceGenerator(name = "vouchers_seq", sequenceName = "vouchers_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -44,6 +46,16 @@ public class VoucherEntity {
 
     private Boolean isActive;
 
+    // null means unlimited
+    private Integer maxRedemptions;
+
+    // only ever changed by relative updates from VoucherService, never by dirty checking
+    @Column(updatable = false)
+    private Integer reservedCount;
+
+    @Column(updatable = false)
+    private Integer redeemedCount;
+
     @OneToMany(mappedBy = "voucherEntity", cascade = CascadeType.ALL)
     private List<PaymentEntity> payments;
 
@@ -0,0 +1,132 @@
+package restful.api.eztrain.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Column layout of one export; rows are written one at a time so memory stays flat
+// no matter how many rows the stream yields.
+public class ExportTable<T> {
+
+    // rows the JDBC driver pulls per round-trip from the server-side cursor
+    public static final String FETCH_SIZE = "1000";
+
+    private final List<String> names = new ArrayList<>();
+
+    private final List<Function<T, Object>> values = new ArrayList<>();
+
+    public ExportTable<T> column(String name, Function<T, Object> value) {
+        names.add(name);
+        values.add(value);
+        return this;
+    }
+
+    public long write(Stream<T> rows, ExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case NDJSON -> writeNdjson(rows, out, objectMapper);
+            case CSV -> writeCsv(rows, out);
+        };
+    }
+
+    private long writeNdjson(Stream<T> rows, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        long count = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            for (Iterator<T> iterator = rows.iterator(); iterator.hasNext(); count++) {
+                T row = iterator.next();
+
+                generator.writeStartObject();
+                for (int i = 0; i < names.size(); i++) {
+                    generator.writeFieldName(names.get(i));
+                    generator.writeObject(values.get(i).apply(row));
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+
+        return count;
+    }
+
+    private long writeCsv(Stream<T> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        writeCsvLine(writer, new ArrayList<>(names));
+
+        for (Iterator<T> iterator = rows.iterator(); iterator.hasNext(); count++) {
+            T row = iterator.next();
+            List<Object> line = new ArrayList<>(values.size());
+
+            for (Function<T, Object> value : values) {
+                line.add(value.apply(row));
+            }
+
+            writeCsvLine(writer, line);
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(Writer writer, List<Object> line) throws IOException {
+        for (int i = 0; i < line.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(line.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text;
+
+        if (value instanceof LocalDateTime dateTime) {
+            text = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+        } else if (value instanceof Date date) {
+            text = date.toInstant().toString();
+        } else if (value instanceof Number) {
+            text = value.toString();
+        } else {
+            text = neutraliseFormula(value.toString());
+        }
+
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    // text that a spreadsheet would read as a formula is kept as text; numbers keep their sign
+    private static String neutraliseFormula(String text) {
+        if (text.isEmpty() || "=+-@\t\r".indexOf(text.charAt(0)) < 0) {
+            return text;
+        }
+
+        return "'" + text;
+    }
+
+}
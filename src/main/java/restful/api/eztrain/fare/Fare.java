@@ -0,0 +1,51 @@
+package restful.api.eztrain.fare;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import restful.api.eztrain.repository.RoutePriceRepository.FareRow;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class Fare {
+
+    private final Long routePriceId;
+
+    private final Double price;
+
+    private final Long routeId;
+
+    private final Long coachTypeId;
+
+    private final String coachType;
+
+    private final Long originId;
+
+    private final String originCode;
+
+    private final String origin;
+
+    private final Long destinationId;
+
+    private final String destinationCode;
+
+    private final String destination;
+
+    public static Fare of(FareRow row) {
+        return Fare.builder()
+                .routePriceId(row.getRoutePriceId())
+                .price(row.getPrice())
+                .routeId(row.getRouteId())
+                .coachTypeId(row.getCoachTypeId())
+                .coachType(row.getCoachType())
+                .originId(row.getOriginId())
+                .originCode(row.getOriginCode())
+                .origin(row.getOrigin())
+                .destinationId(row.getDestinationId())
+                .destinationCode(row.getDestinationCode())
+                .destination(row.getDestination())
+                .build();
+    }
+
+}
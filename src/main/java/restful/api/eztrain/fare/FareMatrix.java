@@ -0,0 +1,143 @@
+package restful.api.eztrain.fare;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import restful.api.eztrain.repository.RoutePriceRepository.FareRow;
+
+// Only the route prices that exist are stored: most station pairs have no route, so a dense
+// [origin][destination][coachType] array would be almost entirely empty on a national network.
+// A matrix is never changed once built; a changed route price produces a new one without going
+// back to the database for the others, so readers keep the old one until it is swapped in.
+public class FareMatrix {
+
+    // the order of the rows from the database
+    private static final Comparator<Fare> ORDER = Comparator.comparing(Fare::getOriginCode)
+                                                            .thenComparing(Fare::getDestinationCode)
+                                                            .thenComparing(Fare::getCoachType);
+
+    private final Map<FareKey, Fare> fares = new HashMap<>();
+
+    private final Map<Long, List<Fare>> faresByOrigin = new HashMap<>();
+
+    private final Map<Long, List<Fare>> faresByDestination = new HashMap<>();
+
+    private final List<Fare> allFares = new ArrayList<>();
+
+    private final Map<String, Long> stationIds = new HashMap<>();
+
+    private final Map<String, Long> coachTypeIds = new HashMap<>();
+
+    private FareMatrix() {
+    }
+
+    // rows arrive ordered by origin code, destination code and coach type, and every list keeps that order
+    public static FareMatrix of(List<FareRow> rows) {
+        return build(rows.stream().map(Fare::of).toList());
+    }
+
+    // the route price is taken out, and put back in its place when it still exists
+    public FareMatrix with(Long routePriceId, FareRow row) {
+        List<Fare> changed = new ArrayList<>(allFares.size() + 1);
+
+        for (Fare fare : allFares) {
+            if (!fare.getRoutePriceId().equals(routePriceId)) {
+                changed.add(fare);
+            }
+        }
+
+        if (row != null) {
+            Fare fare = Fare.of(row);
+            int index = 0;
+
+            while (index < changed.size() && ORDER.compare(changed.get(index), fare) <= 0) {
+                index++;
+            }
+
+            changed.add(index, fare);
+        }
+
+        return build(changed);
+    }
+
+    public Fare get(Long originId, Long destinationId, Long coachTypeId) {
+        return fares.get(new FareKey(originId, destinationId, coachTypeId));
+    }
+
+    // a route price matches when its route matches the stations given, or its coach type the one
+    // given; without any filter everything matches, and an unknown code matches nothing
+    public List<Fare> find(String originCode, String destinationCode, String coachTypeName) {
+        boolean byRoute = !isBlank(originCode) || !isBlank(destinationCode);
+        boolean byCoachType = !isBlank(coachTypeName);
+
+        if (!byRoute && !byCoachType) {
+            return new ArrayList<>(allFares);
+        }
+
+        boolean routeKnown = byRoute && !isUnknown(stationIds, originCode) && !isUnknown(stationIds, destinationCode);
+        boolean coachTypeKnown = byCoachType && !isUnknown(coachTypeIds, coachTypeName);
+
+        Long origin = idOf(stationIds, originCode);
+        Long destination = idOf(stationIds, destinationCode);
+        Long coachType = idOf(coachTypeIds, coachTypeName);
+
+        List<Fare> candidates = coachTypeKnown ? allFares
+                                : !routeKnown ? List.of()
+                                : origin != null ? faresByOrigin.getOrDefault(origin, List.of())
+                                : faresByDestination.getOrDefault(destination, List.of());
+
+        List<Fare> result = new ArrayList<>();
+
+        for (Fare fare : candidates) {
+            boolean routeMatches = routeKnown
+                                    && (origin == null || origin.equals(fare.getOriginId()))
+                                    && (destination == null || destination.equals(fare.getDestinationId()));
+
+            if (routeMatches || (coachTypeKnown && coachType.equals(fare.getCoachTypeId()))) {
+                result.add(fare);
+            }
+        }
+
+        return result;
+    }
+
+    public int size() {
+        return fares.size();
+    }
+
+    private static FareMatrix build(List<Fare> ordered) {
+        FareMatrix matrix = new FareMatrix();
+
+        for (Fare fare : ordered) {
+            matrix.fares.put(new FareKey(fare.getOriginId(), fare.getDestinationId(), fare.getCoachTypeId()), fare);
+            matrix.faresByOrigin.computeIfAbsent(fare.getOriginId(), id -> new ArrayList<>()).add(fare);
+            matrix.faresByDestination.computeIfAbsent(fare.getDestinationId(), id -> new ArrayList<>()).add(fare);
+            matrix.allFares.add(fare);
+
+            matrix.stationIds.put(fare.getOriginCode(), fare.getOriginId());
+            matrix.stationIds.put(fare.getDestinationCode(), fare.getDestinationId());
+            matrix.coachTypeIds.put(fare.getCoachType(), fare.getCoachTypeId());
+        }
+
+        return matrix;
+    }
+
+    private static boolean isBlank(String key) {
+        return key == null || key.isBlank();
+    }
+
+    private static boolean isUnknown(Map<String, Long> ids, String key) {
+        return !isBlank(key) && !ids.containsKey(key);
+    }
+
+    private static Long idOf(Map<String, Long> ids, String key) {
+        return isBlank(key) ? null : ids.get(key);
+    }
+
+    private record FareKey(Long originId, Long destinationId, Long coachTypeId) {
+    }
+
+}
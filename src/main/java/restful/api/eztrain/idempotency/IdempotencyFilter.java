@@ -0,0 +1,207 @@
+package restful.api.eztrain.idempotency;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import restful.api.eztrain.model.WebResponse;
+
+// POSTs sent with an Idempotency-Key run once per caller and key; retries get the stored response
+// back without touching the services. Keys are claimed in the idempotency_keys table, so a retry
+// is recognised whichever node it reaches.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+@ConditionalOnProperty(name = "idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${idempotency.ttl:86400000}")
+    private Long ttl;
+
+    @Value("${idempotency.in-progress-timeout:60000}")
+    private Long inProgressTimeout;
+
+    @Value("${idempotency.max-response-size:65536}")
+    private Integer maxResponseSize;
+
+    @Value("${idempotency.max-request-size:65536}")
+    private Integer maxRequestSize;
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    // anonymous callers cannot be told apart, so one of them could replay another's stored response
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(KEY_HEADER) == null || caller() == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER);
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        // the whole body is held in memory for the fingerprint, so it is read no further than the limit
+        byte[] body = request.getContentLengthLong() > maxRequestSize
+                        ? null
+                        : request.getInputStream().readNBytes(maxRequestSize + 1);
+
+        if (body == null || body.length > maxRequestSize) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Requests with an " + KEY_HEADER + " are limited to " + maxRequestSize + " bytes");
+            return;
+        }
+
+        String fingerprint = fingerprint(request, body);
+        String storeKey = caller() + " " + key;
+
+        long claimedAt = System.currentTimeMillis();
+
+        if (!claim(storeKey, fingerprint, claimedAt)) {
+            IdempotentResponse existing = find(storeKey);
+
+            if (existing != null && !existing.getFingerprint().equals(fingerprint)) {
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_HEADER + " was already used for a different request");
+            } else if (existing == null || !existing.isCompleted()) {
+                reject(response, HttpStatus.CONFLICT, "A request with this " + KEY_HEADER + " is still in progress");
+            } else {
+                replay(existing, response);
+            }
+
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), wrapper);
+
+            byte[] content = wrapper.getContentAsByteArray();
+
+            // server errors are worth retrying, so they are not remembered
+            if (wrapper.getStatus() < 500 && content.length <= maxResponseSize) {
+                jdbcTemplate.update("""
+                        UPDATE idempotency_keys SET status = ?, content_type = ?, body = ?, updated_at = ?
+                        WHERE store_key = ? AND status IS NULL AND updated_at = ?
+                        """, wrapper.getStatus(), wrapper.getContentType(), content, System.currentTimeMillis(), storeKey, claimedAt);
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE store_key = ? AND status IS NULL AND updated_at = ?", storeKey, claimedAt);
+            }
+
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:3600000}")
+    public void deleteExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE updated_at < ?", System.currentTimeMillis() - ttl);
+    }
+
+    // a key is free when nobody holds it, when its stored response has expired, or when the
+    // request holding it has run past the timeout, which is what a node that died mid-request leaves
+    private boolean claim(String storeKey, String fingerprint, long claimedAt) {
+        return jdbcTemplate.update("""
+                INSERT INTO idempotency_keys (store_key, fingerprint, updated_at) VALUES (?, ?, ?)
+                ON CONFLICT (store_key) DO UPDATE
+                SET fingerprint = EXCLUDED.fingerprint, status = NULL, content_type = NULL, body = NULL, updated_at = EXCLUDED.updated_at
+                WHERE idempotency_keys.updated_at < ? OR (idempotency_keys.status IS NULL AND idempotency_keys.updated_at < ?)
+                """, storeKey, fingerprint, claimedAt, claimedAt - ttl, claimedAt - inProgressTimeout) > 0;
+    }
+
+    private IdempotentResponse find(String storeKey) {
+        return jdbcTemplate.query("SELECT fingerprint, status, content_type, body FROM idempotency_keys WHERE store_key = ?",
+                                    (row, rowNum) -> row.getObject("status") == null
+                                                        ? IdempotentResponse.inProgress(row.getString("fingerprint"))
+                                                        : IdempotentResponse.completed(row.getString("fingerprint"),
+                                                                                        row.getInt("status"),
+                                                                                        row.getString("content_type"),
+                                                                                        row.getBytes("body")),
+                                    storeKey)
+                            .stream()
+                            .findFirst()
+                            .orElse(null);
+    }
+
+    private String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return authentication == null || trustResolver.isAnonymous(authentication) ? null : authentication.getName();
+    }
+
+    private String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "?" + request.getQueryString() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void replay(IdempotentResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String reason) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        objectMapper.writeValue(response.getOutputStream(), WebResponse.<String>builder()
+                                                                .status(false)
+                                                                .errors(reason)
+                                                                .build());
+    }
+
+}
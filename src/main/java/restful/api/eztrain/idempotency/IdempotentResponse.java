@@ -0,0 +1,29 @@
+package restful.api.eztrain.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A request seen under an Idempotency-Key: in progress until its response has been stored.
+@Getter
+@AllArgsConstructor
+class IdempotentResponse {
+
+    private final String fingerprint;
+
+    private final boolean completed;
+
+    private final int status;
+
+    private final String contentType;
+
+    private final byte[] body;
+
+    static IdempotentResponse inProgress(String fingerprint) {
+        return new IdempotentResponse(fingerprint, false, 0, null, null);
+    }
+
+    static IdempotentResponse completed(String fingerprint, int status, String contentType, byte[] body) {
+        return new IdempotentResponse(fingerprint, true, status, contentType, body);
+    }
+
+}
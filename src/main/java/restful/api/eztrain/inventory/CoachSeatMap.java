@@ -0,0 +1,160 @@
+package restful.api.eztrain.inventory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+public class CoachSeatMap {
+
+    @Getter
+    private final Long coachId;
+
+    @Getter
+    private final String coachName;
+
+    @Getter
+    private final Integer coachNumber;
+
+    @Getter
+    private final String coachType;
+
+    private final long[] seatIds;
+
+    private final String[] seatNumbers;
+
+    private final Map<Long, Integer> seatIndexes;
+
+    // bit i is set when the i-th seat of the layout is booked
+    private final BitSet booked;
+
+    // bit i is set while the i-th seat is temporarily held for a pending booking
+    private final BitSet held;
+
+    public CoachSeatMap(Long coachId, String coachName, Integer coachNumber, String coachType, List<Long> seatIds, List<String> seatNumbers) {
+        this.coachId = coachId;
+        this.coachName = coachName;
+        this.coachNumber = coachNumber;
+        this.coachType = coachType;
+        this.seatIds = seatIds.stream().mapToLong(Long::longValue).toArray();
+        this.seatNumbers = seatNumbers.toArray(new String[0]);
+        this.seatIndexes = new HashMap<>(seatIds.size() * 2);
+        this.booked = new BitSet(seatIds.size());
+        this.held = new BitSet(seatIds.size());
+
+        for (int i = 0; i < this.seatIds.length; i++) {
+            seatIndexes.put(this.seatIds[i], i);
+        }
+    }
+
+    public Long getSeatId(int index) {
+        return seatIds[index];
+    }
+
+    public String getSeatNumber(int index) {
+        return seatNumbers[index];
+    }
+
+    public int getTotalSeats() {
+        return seatIds.length;
+    }
+
+    public int getAvailableSeats() {
+        return seatIds.length - taken().cardinality();
+    }
+
+    public boolean hasSeat(Long seatId) {
+        return seatIndexes.containsKey(seatId);
+    }
+
+    public boolean isBooked(Long seatId) {
+        Integer index = seatIndexes.get(seatId);
+
+        return index != null && booked.get(index);
+    }
+
+    public boolean isHeld(Long seatId) {
+        Integer index = seatIndexes.get(seatId);
+
+        return index != null && held.get(index);
+    }
+
+    public boolean book(Long seatId) {
+        Integer index = seatIndexes.get(seatId);
+
+        if (index == null || booked.get(index)) {
+            return false;
+        }
+
+        held.clear(index);
+
+        booked.set(index);
+        return true;
+    }
+
+    public boolean release(Long seatId) {
+        Integer index = seatIndexes.get(seatId);
+
+        if (index == null || !booked.get(index)) {
+            return false;
+        }
+
+        booked.clear(index);
+        return true;
+    }
+
+    public boolean hold(List<Long> seatIds) {
+        List<Integer> indexes = new ArrayList<>(seatIds.size());
+
+        for (Long seatId : seatIds) {
+            Integer index = seatIndexes.get(seatId);
+
+            if (index == null || booked.get(index) || held.get(index) || indexes.contains(index)) {
+                return false;
+            }
+
+            indexes.add(index);
+        }
+
+        indexes.forEach(held::set);
+        return true;
+    }
+
+    public void releaseHold(List<Long> seatIds) {
+        for (Long seatId : seatIds) {
+            Integer index = seatIndexes.get(seatId);
+
+            if (index != null) {
+                held.clear(index);
+            }
+        }
+    }
+
+    public int findFreeRun(int count) {
+        BitSet taken = taken();
+        int start = taken.nextClearBit(0);
+
+        while (start + count <= seatIds.length) {
+            int nextTaken = taken.nextSetBit(start);
+
+            if (nextTaken == -1 || nextTaken - start >= count) {
+                return start;
+            }
+
+            start = taken.nextClearBit(nextTaken);
+        }
+
+        return -1;
+    }
+
+    private BitSet taken() {
+        BitSet taken = (BitSet) booked.clone();
+        taken.or(held);
+
+        return taken;
+    }
+
+}
@@ -0,0 +1,125 @@
+package restful.api.eztrain.inventory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import lombok.Getter;
+import restful.api.eztrain.repository.ScheduleRepository.SeatLayoutRow;
+
+public class ScheduleSeatMap {
+
+    private static final Pattern SEAT_NUMBER_PATTERN = Pattern.compile("^(\\d{1,9})(.*)$");
+
+    private static final Comparator<SeatLayoutRow> SEAT_ORDER = Comparator
+                                                                .comparing((SeatLayoutRow row) -> seatRow(row.getSeatNumber()))
+                                                                .thenComparing(row -> seatColumn(row.getSeatNumber()))
+                                                                .thenComparing(SeatLayoutRow::getSeatId);
+
+    @Getter
+    private final Long scheduleId;
+
+    private final Map<Long, CoachSeatMap> coaches;
+
+    private ScheduleSeatMap(Long scheduleId, Map<Long, CoachSeatMap> coaches) {
+        this.scheduleId = scheduleId;
+        this.coaches = coaches;
+    }
+
+    public static ScheduleSeatMap of(Long scheduleId, List<SeatLayoutRow> layout) {
+        Map<Long, List<SeatLayoutRow>> rowsByCoach = new LinkedHashMap<>();
+
+        layout.stream()
+            .sorted(Comparator
+                    .comparing((SeatLayoutRow row) -> row.getCoachNumber() == null ? Integer.MAX_VALUE : row.getCoachNumber())
+                    .thenComparing(SeatLayoutRow::getCoachId))
+            .forEach(row -> rowsByCoach.computeIfAbsent(row.getCoachId(), id -> new ArrayList<>()).add(row));
+
+        Map<Long, CoachSeatMap> coaches = new LinkedHashMap<>();
+
+        rowsByCoach.forEach((coachId, rows) -> {
+            rows.sort(SEAT_ORDER);
+
+            SeatLayoutRow first = rows.get(0);
+            coaches.put(coachId, new CoachSeatMap(
+                                    coachId, 
+                                    first.getCoachName(), 
+                                    first.getCoachNumber(), 
+                                    first.getCoachType(), 
+                                    rows.stream().map(SeatLayoutRow::getSeatId).toList(),
+                                    rows.stream().map(SeatLayoutRow::getSeatNumber).toList()));
+        });
+
+        return new ScheduleSeatMap(scheduleId, coaches);
+    }
+
+    public synchronized Collection<CoachSeatMap> getCoaches() {
+        return coaches.values();
+    }
+
+    public synchronized CoachSeatMap getCoach(Long coachId) {
+        return coaches.get(coachId);
+    }
+
+    public synchronized boolean book(Long coachId, Long seatId) {
+        CoachSeatMap coach = coaches.get(coachId);
+
+        return coach != null && coach.book(seatId);
+    }
+
+    public synchronized boolean release(Long coachId, Long seatId) {
+        CoachSeatMap coach = coaches.get(coachId);
+
+        return coach != null && coach.release(seatId);
+    }
+
+    public synchronized boolean hold(Long coachId, List<Long> seatIds) {
+        CoachSeatMap coach = coaches.get(coachId);
+
+        return coach != null && coach.hold(seatIds);
+    }
+
+    public synchronized void releaseHold(Long coachId, List<Long> seatIds) {
+        CoachSeatMap coach = coaches.get(coachId);
+
+        if (coach != null) {
+            coach.releaseHold(seatIds);
+        }
+    }
+
+    public synchronized void confirmHold(Long coachId, List<Long> seatIds) {
+        CoachSeatMap coach = coaches.get(coachId);
+
+        if (coach != null) {
+            seatIds.forEach(coach::book);
+        }
+    }
+
+    public synchronized Map<String, Integer> getAvailableSeatsByCoachType() {
+        Map<String, Integer> available = new LinkedHashMap<>();
+
+        for (CoachSeatMap coach : coaches.values()) {
+            available.merge(coach.getCoachType(), coach.getAvailableSeats(), Integer::sum);
+        }
+
+        return available;
+    }
+
+    private static int seatRow(String seatNumber) {
+        Matcher matcher = SEAT_NUMBER_PATTERN.matcher(seatNumber == null ? "" : seatNumber);
+
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : Integer.MAX_VALUE;
+    }
+
+    private static String seatColumn(String seatNumber) {
+        Matcher matcher = SEAT_NUMBER_PATTERN.matcher(seatNumber == null ? "" : seatNumber);
+
+        return matcher.matches() ? matcher.group(2) : String.valueOf(seatNumber);
+    }
+
+}
@@ -0,0 +1,32 @@
+package restful.api.eztrain.inventory;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class SeatHold {
+
+    private final String holdId;
+
+    private final Long scheduleId;
+
+    private final Long coachId;
+
+    private final List<Long> seatIds;
+
+    private final String email;
+
+    private final Long expiredAt;
+
+    private final String voucherCode;
+
+    public boolean isExpired(long now) {
+        return expiredAt < now;
+    }
+
+}
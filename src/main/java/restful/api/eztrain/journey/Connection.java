@@ -0,0 +1,50 @@
+package restful.api.eztrain.journey;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import restful.api.eztrain.repository.ScheduleRepository.ConnectionRow;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class Connection {
+
+    private final Long scheduleId;
+
+    private final Long routeId;
+
+    private final Long trainId;
+
+    private final Long originId;
+
+    private final Long destinationId;
+
+    private final LocalDateTime departure;
+
+    private final LocalDateTime arrival;
+
+    private final Double tripDistance;
+
+    public static Connection of(ConnectionRow row) {
+        LocalDateTime arrival = row.getArrivalDatetime();
+
+        if (arrival == null) {
+            arrival = row.getDepartureDatetime().plusMinutes(Math.round(row.getTripDuration() * 60));
+        }
+
+        return Connection.builder()
+                .scheduleId(row.getScheduleId())
+                .routeId(row.getRouteId())
+                .trainId(row.getTrainId())
+                .originId(row.getOriginId())
+                .destinationId(row.getDestinationId())
+                .departure(row.getDepartureDatetime())
+                .arrival(arrival)
+                .tripDistance(row.getTripDistance())
+                .build();
+    }
+
+}
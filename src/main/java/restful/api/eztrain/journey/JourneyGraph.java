@@ -0,0 +1,242 @@
+package restful.api.eztrain.journey;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class JourneyGraph {
+
+    private static final Comparator<Connection> DEPARTURE_ORDER = Comparator
+                                                                    .comparing(Connection::getDeparture)
+                                                                    .thenComparing(Connection::getScheduleId);
+
+    private final Map<Long, Connection> connections = new HashMap<>();
+
+    private final Map<Long, NavigableSet<Connection>> departuresByStation = new HashMap<>();
+
+    private final Map<Long, Set<Long>> schedulesByRoute = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static JourneyGraph of(List<Connection> connections) {
+        JourneyGraph graph = new JourneyGraph();
+
+        connections.forEach(graph::index);
+
+        return graph;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+
+        try {
+            return connections.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Connection connection) {
+        lock.writeLock().lock();
+
+        try {
+            unindex(connection.getScheduleId());
+            index(connection);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long scheduleId) {
+        lock.writeLock().lock();
+
+        try {
+            unindex(scheduleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceRoute(Long routeId, List<Connection> routeConnections) {
+        lock.writeLock().lock();
+
+        try {
+            for (Long scheduleId : new ArrayList<>(schedulesByRoute.getOrDefault(routeId, Collections.emptySet()))) {
+                unindex(scheduleId);
+            }
+
+            for (Connection connection : routeConnections) {
+                unindex(connection.getScheduleId());
+                index(connection);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRoute(Long routeId) {
+        replaceRoute(routeId, Collections.emptyList());
+    }
+
+    public void removeTrain(Long trainId) {
+        lock.writeLock().lock();
+
+        try {
+            connections.values()
+                .stream()
+                .filter(connection -> connection.getTrainId().equals(trainId))
+                .map(Connection::getScheduleId)
+                .toList()
+                .forEach(this::unindex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // drops the connections that left before the given time
+    public int prune(LocalDateTime before) {
+        lock.writeLock().lock();
+
+        try {
+            Connection probe = Connection.builder().departure(before).scheduleId(Long.MIN_VALUE).build();
+
+            List<Long> past = departuresByStation.values()
+                                .stream()
+                                .flatMap(departures -> departures.headSet(probe, false).stream())
+                                .map(Connection::getScheduleId)
+                                .toList();
+
+            past.forEach(this::unindex);
+
+            return past.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // round-based search in the spirit of RAPTOR: round k only extends the arrivals improved
+    // in round k - 1, so each round adds exactly one leg and the number of rounds caps transfers;
+    // the first leg leaves within the departure window, so round 0 never walks the whole horizon
+    public List<List<Connection>> search(Long originId, Long destinationId, LocalDateTime departAfter,
+                                        Duration departureWindow, int maxTransfers, Duration minConnection) {
+        lock.readLock().lock();
+
+        try {
+            List<Map<Long, Connection>> rounds = new ArrayList<>();
+            Map<Long, LocalDateTime> bestArrival = new HashMap<>();
+            Map<Long, LocalDateTime> readyAt = Map.of(originId, departAfter);
+
+            bestArrival.put(originId, departAfter);
+
+            for (int round = 0; round <= maxTransfers && !readyAt.isEmpty(); round++) {
+                Map<Long, Connection> improved = new HashMap<>();
+
+                for (Map.Entry<Long, LocalDateTime> station : readyAt.entrySet()) {
+                    NavigableSet<Connection> departures = departuresByStation.get(station.getKey());
+
+                    if (departures == null) {
+                        continue;
+                    }
+
+                    LocalDateTime earliestDeparture = round == 0 ? station.getValue() : station.getValue().plus(minConnection);
+                    Connection probe = Connection.builder().departure(earliestDeparture).scheduleId(Long.MIN_VALUE).build();
+
+                    NavigableSet<Connection> candidates = departures.tailSet(probe, true);
+
+                    if (round == 0) {
+                        Connection latest = Connection.builder().departure(departAfter.plus(departureWindow)).scheduleId(Long.MAX_VALUE).build();
+                        candidates = candidates.headSet(latest, true);
+                    }
+
+                    for (Connection connection : candidates) {
+                        LocalDateTime targetArrival = bestArrival.get(destinationId);
+
+                        if (targetArrival != null && !connection.getDeparture().isBefore(targetArrival)) {
+                            break;
+                        }
+
+                        LocalDateTime known = bestArrival.get(connection.getDestinationId());
+
+                        if (known == null || connection.getArrival().isBefore(known)) {
+                            bestArrival.put(connection.getDestinationId(), connection.getArrival());
+                            improved.put(connection.getDestinationId(), connection);
+                        }
+                    }
+                }
+
+                rounds.add(improved);
+                readyAt = new HashMap<>();
+
+                for (Connection connection : improved.values()) {
+                    readyAt.put(connection.getDestinationId(), connection.getArrival());
+                }
+            }
+
+            return journeys(rounds, destinationId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<List<Connection>> journeys(List<Map<Long, Connection>> rounds, Long destinationId) {
+        List<List<Connection>> journeys = new ArrayList<>();
+
+        for (int round = 0; round < rounds.size(); round++) {
+            if (!rounds.get(round).containsKey(destinationId)) {
+                continue;
+            }
+
+            List<Connection> legs = new ArrayList<>();
+            Long station = destinationId;
+
+            for (int leg = round; leg >= 0; leg--) {
+                Connection connection = rounds.get(leg).get(station);
+                legs.add(connection);
+                station = connection.getOriginId();
+            }
+
+            Collections.reverse(legs);
+            journeys.add(legs);
+        }
+
+        return journeys;
+    }
+
+    private void index(Connection connection) {
+        connections.put(connection.getScheduleId(), connection);
+        departuresByStation.computeIfAbsent(connection.getOriginId(), id -> new TreeSet<>(DEPARTURE_ORDER)).add(connection);
+        schedulesByRoute.computeIfAbsent(connection.getRouteId(), id -> new HashSet<>()).add(connection.getScheduleId());
+    }
+
+    private void unindex(Long scheduleId) {
+        Connection connection = connections.remove(scheduleId);
+
+        if (connection == null) {
+            return;
+        }
+
+        NavigableSet<Connection> departures = departuresByStation.get(connection.getOriginId());
+
+        if (departures != null) {
+            departures.remove(connection);
+        }
+
+        Set<Long> schedules = schedulesByRoute.get(connection.getRouteId());
+
+        if (schedules != null) {
+            schedules.remove(scheduleId);
+        }
+    }
+
+}
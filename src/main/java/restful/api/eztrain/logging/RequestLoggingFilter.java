@@ -0,0 +1,105 @@
+package restful.api.eztrain.logging;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+// One line per request with the method, path, masked query string, status and duration. Headers
+// and bodies are never logged, so tokens and passwords only ever show up as masked parameters.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "logging.requests.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    static final String MASK = "****";
+
+    @Value("${logging.requests.masked-parameters:password,token,email,phoneNumber}")
+    private String maskedParameters;
+
+    private Set<String> masked;
+
+    @PostConstruct
+    void init() {
+        masked = Arrays.stream(maskedParameters.split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .map(String::toLowerCase)
+                    .collect(Collectors.toSet());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // scrapes and health checks would drown out the traffic
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long duration = (System.nanoTime() - start) / 1_000_000;
+            String query = mask(request.getQueryString());
+
+            log.atInfo()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("query", query)
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("durationMs", duration)
+                .log("{} {}{} {} {}ms", request.getMethod(), request.getRequestURI(),
+                        query != null ? "?" + query : "", response.getStatus(), duration);
+        }
+    }
+
+    String mask(String query) {
+        if (query == null || query.isEmpty()) {
+            return null;
+        }
+
+        StringJoiner joiner = new StringJoiner("&");
+
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator >= 0 ? pair.substring(0, separator) : pair;
+
+            if (separator >= 0 && masked.contains(decode(name).toLowerCase())) {
+                joiner.add(name + "=" + MASK);
+            } else {
+                joiner.add(pair);
+            }
+        }
+
+        return joiner.toString();
+    }
+
+    private String decode(String name) {
+        try {
+            return URLDecoder.decode(name, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return name;
+        }
+    }
+
+}
@@ -4,21 +4,36 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import restful.api.eztrain.entity.CoachEntity;
+import restful.api.eztrain.entity.PaymentEntity;
 import restful.api.eztrain.entity.RouteEntity;
 import restful.api.eztrain.entity.RoutePriceEntity;
+import restful.api.eztrain.entity.ScheduleEntity;
 import restful.api.eztrain.entity.SeatEntity;
 import restful.api.eztrain.entity.StationEntity;
+import restful.api.eztrain.entity.TicketEntity;
 import restful.api.eztrain.entity.TrainEntity;
 import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.entity.VoucherEntity;
+import restful.api.eztrain.fare.Fare;
+import restful.api.eztrain.inventory.SeatHold;
 import restful.api.eztrain.model.CoachResponse;
 import restful.api.eztrain.model.ForgotPasswordResponse;
+import restful.api.eztrain.model.PaymentResponse;
 import restful.api.eztrain.model.RoutePriceResponse;
 import restful.api.eztrain.model.RouteResponse;
+import restful.api.eztrain.model.ScheduleResponse;
+import restful.api.eztrain.model.SeatHoldResponse;
 import restful.api.eztrain.model.SeatResponse;
 import restful.api.eztrain.model.StationResponse;
+import restful.api.eztrain.model.TicketResponse;
 import restful.api.eztrain.model.TokenResponse;
 import restful.api.eztrain.model.TrainResponse;
 import restful.api.eztrain.model.UserResponse;
+import restful.api.eztrain.model.VoucherResponse;
+import restful.api.eztrain.repository.CoachRepository.CoachRow;
+import restful.api.eztrain.repository.UserRepository.UserRow;
+import restful.api.eztrain.timetable.Departure;
+import restful.api.eztrain.voucher.VoucherRule;
 
 public class ResponseMapper {
 
@@ -35,6 +50,17 @@ public class ResponseMapper {
                 .build();
     }
 
+    public static UserResponse ToUserResponseMapper(UserRow user, List<String> roles) {
+        return UserResponse.builder()                
+                .email(user.getEmail())
+                .fullName(user.getFullName())
+                .phoneNumber(user.getPhoneNumber())   
+                .isVerified(user.getIsVerified())
+                .isActive(user.getIsActive())
+                .role(roles)
+                .build();
+    }
+
     public static List<UserResponse> ToUserResponseListMapper(List<UserEntity> users) {
         return users.stream()
                             .map(
@@ -76,8 +102,10 @@ public class ResponseMapper {
     }
 
     public static TrainResponse ToTrainResponseMapper(TrainEntity train) {
-        List<String> coaches = train.getCoaches().stream().map(p -> p.getCoachName()).toList();
+        return ToTrainResponseMapper(train, train.getCoaches().stream().map(p -> p.getCoachName()).toList());
+    }
 
+    public static TrainResponse ToTrainResponseMapper(TrainEntity train, List<String> coaches) {
         return TrainResponse.builder()
                 .id(train.getId())                                
                 .name(train.getName())
@@ -101,6 +129,17 @@ public class ResponseMapper {
                 .build();
     }
 
+    public static CoachResponse ToCoachResponseMapper(CoachRow coach, List<String> seats) {
+        return CoachResponse.builder()
+                .id(coach.getId())
+                .coachName(coach.getCoachName())
+                .coachNumber(coach.getCoachNumber())
+                .coachTypeId(coach.getCoachTypeId())
+                .coachTypeName(coach.getCoachTypeName())
+                .seats(seats)
+                .build();
+    }
+
     public static SeatResponse ToSeatResponseMapper(SeatEntity seat) {
         return SeatResponse.builder()
                 .id(seat.getId())
@@ -131,4 +170,115 @@ public class ResponseMapper {
                 .destination(routePrice.getRouteEntity().getDestination().getName())                
                 .build();
         }
+
+    public static RoutePriceResponse ToRoutePriceResponseMapper(Fare fare) {
+        return RoutePriceResponse.builder()
+                .id(fare.getRoutePriceId())
+                .price(fare.getPrice())
+                .coachTypeId(fare.getCoachTypeId())
+                .coachType(fare.getCoachType())
+                .routeId(fare.getRouteId())
+                .origin(fare.getOrigin())
+                .destination(fare.getDestination())
+                .build();
+        }
+
+    public static TicketResponse ToTicketResponseMapper(TicketEntity ticket) {
+        return TicketResponse.builder()
+                .id(ticket.getId())
+                .bookingReference(ticket.getBookingReference())
+                .bookingStatus(ticket.getBookingStatus())
+                .price(ticket.getPrice())
+                .scheduleId(ticket.getScheduleEntity().getId())
+                .trainName(ticket.getTrainEntity().getName())
+                .coachName(ticket.getCoachEntity().getCoachName())
+                .seatNumber(ticket.getSeatEntity().getSeatNumber())
+                .origin(ticket.getRouteEntity().getOrigin().getName())
+                .destination(ticket.getRouteEntity().getDestination().getName())
+                .departureDatetime(ticket.getScheduleEntity().getDepartureDatetime())
+                .build();
+    }
+
+    public static SeatHoldResponse ToSeatHoldResponseMapper(SeatHold hold) {
+        return SeatHoldResponse.builder()
+                .holdId(hold.getHoldId())
+                .scheduleId(hold.getScheduleId())
+                .coachId(hold.getCoachId())
+                .seatIds(hold.getSeatIds())
+                .expiredAt(hold.getExpiredAt())
+                .build();
+    }
+
+    public static PaymentResponse ToPaymentResponseMapper(PaymentEntity payment) {
+        return PaymentResponse.builder()
+                .id(payment.getId())
+                .ticketId(payment.getTicket().getId())
+                .bookingReference(payment.getTicket().getBookingReference())
+                .bookingStatus(payment.getTicket().getBookingStatus())
+                .paymentMethod(payment.getPaymentMethod())
+                .originalAmount(payment.getOriginalAmount())
+                .discountAmount(payment.getDiscountAmount())
+                .finalAmount(payment.getFinalAmount())
+                .paymentStatus(payment.getPaymentStatus())
+                .paidAt(payment.getPaidAt())
+                .build();
+    }
+
+    public static VoucherResponse ToVoucherResponseMapper(VoucherEntity voucher) {
+        return VoucherResponse.builder()
+                .id(voucher.getId())
+                .code(voucher.getCode())
+                .discountAmount(voucher.getDiscountAmount())
+                .minimumAmount(voucher.getMinimumAmount())
+                .validFrom(voucher.getValidFrom())
+                .validUntil(voucher.getValidUntil())
+                .maxRedemptions(voucher.getMaxRedemptions())
+                .isActive(voucher.getIsActive())
+                .build();
+    }
+
+    public static VoucherResponse ToVoucherResponseMapper(VoucherRule voucher) {
+        return VoucherResponse.builder()
+                .id(voucher.getId())
+                .code(voucher.getCode())
+                .discountAmount(voucher.getDiscountAmount())
+                .minimumAmount(voucher.getMinimumAmount())
+                .validFrom(voucher.getValidFrom())
+                .validUntil(voucher.getValidUntil())
+                .maxRedemptions(voucher.getMaxRedemptions())
+                .isActive(voucher.getIsActive())
+                .build();
+    }
+
+    public static ScheduleResponse ToScheduleResponseMapper(ScheduleEntity schedule) {
+        return ScheduleResponse.builder()
+                .id(schedule.getId())
+                .trainId(schedule.getTrainEntity().getId())
+                .trainName(schedule.getTrainEntity().getName())
+                .routeId(schedule.getRouteEntity().getId())
+                .originCode(schedule.getRouteEntity().getOrigin().getCode())
+                .origin(schedule.getRouteEntity().getOrigin().getName())
+                .destinationCode(schedule.getRouteEntity().getDestination().getCode())
+                .destination(schedule.getRouteEntity().getDestination().getName())
+                .departureDatetime(schedule.getDepartureDatetime())
+                .arrivalDatetime(schedule.getArrivalDatetime())
+                .status(schedule.getStatus())
+                .build();
+    }
+
+    public static ScheduleResponse ToScheduleResponseMapper(Departure departure) {
+        return ScheduleResponse.builder()
+                .id(departure.getScheduleId())
+                .trainId(departure.getTrainId())
+                .trainName(departure.getTrainName())
+                .routeId(departure.getRouteId())
+                .originCode(departure.getOriginCode())
+                .origin(departure.getOrigin())
+                .destinationCode(departure.getDestinationCode())
+                .destination(departure.getDestination())
+                .departureDatetime(departure.getDeparture())
+                .arrivalDatetime(departure.getArrival())
+                .status(departure.getStatus())
+                .build();
+    }
 }
@@ -0,0 +1,65 @@
+package restful.api.eztrain.metrics;
+
+import lombok.Getter;
+
+// Tallies what Hibernate does on the current thread between start and stop. Counters nest, so a
+// test can measure a MockMvc call while the request filter measures the same request inside it.
+// Threads that never started a counter are not counted at all.
+public final class QueryCounter {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static Counts start() {
+        Counts counts = new Counts(CURRENT.get());
+        CURRENT.set(counts);
+
+        return counts;
+    }
+
+    public static void stop(Counts counts) {
+        if (counts.parent != null) {
+            CURRENT.set(counts.parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    static void statement() {
+        for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+            counts.statements++;
+        }
+    }
+
+    static void entityLoad() {
+        for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+            counts.entityLoads++;
+        }
+    }
+
+    static void collectionFetch() {
+        for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+            counts.collectionFetches++;
+        }
+    }
+
+    @Getter
+    public static class Counts {
+
+        private final Counts parent;
+
+        private long statements;
+
+        private long entityLoads;
+
+        private long collectionFetches;
+
+        private Counts(Counts parent) {
+            this.parent = parent;
+        }
+
+    }
+
+}
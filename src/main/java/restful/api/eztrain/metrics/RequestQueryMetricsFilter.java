@@ -0,0 +1,63 @@
+package restful.api.eztrain.metrics;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Records how many statements, entity loads and collection fetches each request caused, tagged
+// with the same method and uri as http.server.requests. Runs outside the security filters so the
+// user lookup of the JWT filter is part of the count.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    // the running counts of the request, for tests that put a budget on them
+    public static final String COUNTS_ATTRIBUTE = RequestQueryMetricsFilter.class.getName() + ".COUNTS";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.Counts counts = QueryCounter.start();
+        request.setAttribute(COUNTS_ATTRIBUTE, counts);
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter.stop(counts);
+            record(request, counts);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCounter.Counts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        // unmatched paths share one tag so that scanners cannot blow up the number of series
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+
+        summary("eztrain.request.statements", tags).record(counts.getStatements());
+        summary("eztrain.request.entity.loads", tags).record(counts.getEntityLoads());
+        summary("eztrain.request.collection.fetches", tags).record(counts.getCollectionFetches());
+    }
+
+    private DistributionSummary summary(String name, Tags tags) {
+        return DistributionSummary.builder(name)
+                    .tags(tags)
+                    .register(meterRegistry);
+    }
+
+}
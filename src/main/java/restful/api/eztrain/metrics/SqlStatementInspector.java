@@ -0,0 +1,32 @@
+package restful.api.eztrain.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Sees every statement Hibernate prepares, batched inserts once per batch. Counts all of them
+// and logs a random sample, which replaces show_sql: a small rate is enough to spot unexpected
+// SQL without writing every statement of every request.
+@Slf4j
+public class SqlStatementInspector implements StatementInspector {
+
+    private final double sampleRate;
+
+    public SqlStatementInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.statement();
+
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("Sampled SQL: {}", sql);
+        }
+
+        return sql;
+    }
+
+}
@@ -0,0 +1,26 @@
+package restful.api.eztrain.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AdjacentSeatsResponse {
+
+    private Long scheduleId;
+
+    private Long coachId;
+
+    private String coachName;
+
+    private String coachType;
+
+    private List<SeatResponse> seats;
+
+}
@@ -0,0 +1,23 @@
+package restful.api.eztrain.model;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AssignSeatsRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> seatIds;
+
+}
@@ -0,0 +1,27 @@
+package restful.api.eztrain.model;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkRegisterCoachRequest {
+
+    @NotEmpty
+    @Size(max = 100)
+    private List<@NotNull @Valid RegisterCoachRequest> coaches;
+
+    @Valid
+    private SeatLayoutRequest layout;
+
+}
@@ -0,0 +1,26 @@
+package restful.api.eztrain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CoachAvailabilityResponse {
+
+    private Long coachId;
+
+    private String coachName;
+
+    private Integer coachNumber;
+
+    private String coachType;
+
+    private Integer totalSeats;
+
+    private Integer availableSeats;
+
+}
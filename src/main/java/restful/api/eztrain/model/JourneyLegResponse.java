@@ -0,0 +1,32 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class JourneyLegResponse {
+
+    private Long scheduleId;
+
+    private Long routeId;
+
+    private String trainName;
+
+    private String origin;
+
+    private String destination;
+
+    private LocalDateTime departureDatetime;
+
+    private LocalDateTime arrivalDatetime;
+
+    private Double tripDistance;
+
+}
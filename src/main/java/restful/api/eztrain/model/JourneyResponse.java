@@ -0,0 +1,29 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class JourneyResponse {
+
+    private LocalDateTime departureDatetime;
+
+    private LocalDateTime arrivalDatetime;
+
+    private Integer transfers;
+
+    private Double totalDistance;
+
+    private Long totalDuration;
+
+    private List<JourneyLegResponse> legs;
+
+}
@@ -0,0 +1,36 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaymentResponse {
+
+    private Long id;
+
+    private Long ticketId;
+
+    private String bookingReference;
+
+    private String bookingStatus;
+
+    private String paymentMethod;
+
+    private Double originalAmount;
+
+    private Double discountAmount;
+
+    private Double finalAmount;
+
+    private String paymentStatus;
+
+    private LocalDateTime paidAt;
+
+}
@@ -0,0 +1,28 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RegisterScheduleRequest {
+
+    @NotNull
+    private Long trainId;
+
+    @NotNull
+    private Long routeId;
+
+    @NotNull
+    private LocalDateTime departureDatetime;
+
+    private LocalDateTime arrivalDatetime;
+
+}
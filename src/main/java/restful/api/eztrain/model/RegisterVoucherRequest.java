@@ -0,0 +1,40 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RegisterVoucherRequest {
+
+    @NotBlank
+    @Size(max = 50)
+    private String code;
+
+    @NotNull
+    @Positive
+    private Double discountAmount;
+
+    @NotNull
+    @PositiveOrZero
+    private Double minimumAmount;
+
+    private LocalDateTime validFrom;
+
+    private LocalDateTime validUntil;
+
+    @Positive
+    private Integer maxRedemptions;
+
+}
@@ -0,0 +1,23 @@
+package restful.api.eztrain.model;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ScheduleAvailabilityResponse {
+
+    private Long scheduleId;
+
+    private Map<String, Integer> availableSeatsByCoachType;
+
+    private List<CoachAvailabilityResponse> coaches;
+
+}
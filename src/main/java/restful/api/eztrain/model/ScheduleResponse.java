@@ -0,0 +1,38 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ScheduleResponse {
+
+    private Long id;
+
+    private Long trainId;
+
+    private String trainName;
+
+    private Long routeId;
+
+    private String originCode;
+
+    private String origin;
+
+    private String destinationCode;
+
+    private String destination;
+
+    private LocalDateTime departureDatetime;
+
+    private LocalDateTime arrivalDatetime;
+
+    private String status;
+
+}
@@ -14,6 +14,8 @@ public class SearchCoachRequest {
 
     private String coachName;  
 
+    private String after;
+
     @NotNull
     private Integer page;
 
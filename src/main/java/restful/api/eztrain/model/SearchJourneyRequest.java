@@ -0,0 +1,29 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SearchJourneyRequest {
+
+    @NotBlank
+    private String origin;
+
+    @NotBlank
+    private String destination;
+
+    private LocalDateTime departAfter;
+
+    @Min(0)
+    private Integer maxTransfers;
+
+}
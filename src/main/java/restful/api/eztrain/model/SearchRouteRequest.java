@@ -16,6 +16,8 @@ public class SearchRouteRequest {
 
     private String destination;
 
+    private String after;
+
     @NotNull
     private Integer page;
 
@@ -14,6 +14,8 @@ public class SearchSeatRequest {
 
     private String seatNumber;
 
+    private String after;
+
     @NotNull
     private Integer page;
 
@@ -20,6 +20,8 @@ public class SearchStationRequest {
 
     private String province;
 
+    private String after;
+
     @NotNull
     private Integer page;
 
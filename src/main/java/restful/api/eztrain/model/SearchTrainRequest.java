@@ -18,6 +18,8 @@ public class SearchTrainRequest {
     
     private String operator;
 
+    private String after;
+
     @NotNull
     private Integer page;
 
@@ -0,0 +1,32 @@
+package restful.api.eztrain.model;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SeatHoldRequest {
+
+    @NotNull
+    private Long scheduleId;
+
+    @NotNull
+    private Long coachId;
+
+    @NotEmpty
+    @Size(max = 10)
+    private List<@NotNull Long> seatIds;
+
+    @Size(max = 50)
+    private String voucherCode;
+
+}
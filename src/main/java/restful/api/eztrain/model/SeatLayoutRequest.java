@@ -0,0 +1,28 @@
+package restful.api.eztrain.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SeatLayoutRequest {
+
+    @NotNull
+    @Min(1)
+    @Max(100)
+    private Integer rows;
+
+    @NotBlank
+    @Pattern(regexp = "[A-Z]{1,10}")
+    private String columns;
+
+}
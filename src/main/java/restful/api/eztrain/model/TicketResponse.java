@@ -0,0 +1,40 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TicketResponse {
+
+    private Long id;
+
+    private String bookingReference;
+
+    private String bookingStatus;
+
+    private Double price;
+
+    private Long scheduleId;
+
+    private String trainName;
+
+    private String coachName;
+
+    private String seatNumber;
+
+    private String origin;
+
+    private String destination;
+
+    private LocalDateTime departureDatetime;
+
+    private Long paymentId;
+
+}
@@ -0,0 +1,35 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UpdateScheduleRequest {
+
+    @JsonIgnore
+    @NotNull
+    private Long id;
+
+    private Long trainId;
+
+    private Long routeId;
+
+    private LocalDateTime departureDatetime;
+
+    private LocalDateTime arrivalDatetime;
+
+    @Pattern(regexp = "SCHEDULED|DELAYED|CANCELLED")
+    private String status;
+
+}
@@ -0,0 +1,32 @@
+package restful.api.eztrain.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VoucherResponse {
+
+    private Long id;
+
+    private String code;
+
+    private Double discountAmount;
+
+    private Double minimumAmount;
+
+    private LocalDateTime validFrom;
+
+    private LocalDateTime validUntil;
+
+    private Integer maxRedemptions;
+
+    private Boolean isActive;
+
+}
@@ -0,0 +1,27 @@
+package restful.api.eztrain.outbox;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OutboxMessage {
+
+    private final Long id;
+
+    private final String aggregateType;
+
+    private final String aggregateId;
+
+    private final String eventType;
+
+    @JsonRawValue
+    private final String payload;
+
+    private final LocalDateTime createdAt;
+
+}
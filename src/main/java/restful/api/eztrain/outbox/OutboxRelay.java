@@ -0,0 +1,107 @@
+package restful.api.eztrain.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// Publishes unpublished outbox events in id order, one batch per transaction. The advisory lock
+// keeps a single relay running across nodes, which is what keeps the order per aggregate; a batch
+// that fails is rolled back and offered again, so delivery is at least once. The relay goes through
+// JDBC so that its polling never shows up in the Hibernate statistics of the requests.
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final long LOCK_KEY = 0x6f7574626f78L;
+
+    @Autowired
+    private OutboxSink outboxSink;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${outbox.batch-size:100}")
+    private Integer batchSize;
+
+    @Value("${outbox.retention:86400000}")
+    private Long retention;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:500}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            while (relayBatch() == batchSize) {
+                // a full batch means more may be waiting
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox batch failed, retrying on the next poll", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval:3600000}")
+    public void deletePublished() {
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE published_at < ?", LocalDateTime.now().minusNanos(retention * 1_000_000));
+    }
+
+    private int relayBatch() {
+        return transactionTemplate.execute(transaction -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+
+            if (!Boolean.TRUE.equals(locked)) {
+                return 0;
+            }
+
+            List<OutboxMessage> messages = jdbcTemplate.query("""
+                    SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at
+                    FROM outbox_events WHERE published_at IS NULL ORDER BY id LIMIT ?
+                    """, (row, rowNum) -> new OutboxMessage(row.getLong("id"), row.getString("aggregate_type"),
+                                                        row.getString("aggregate_id"), row.getString("event_type"),
+                                                        row.getString("payload"), row.getObject("created_at", LocalDateTime.class)),
+                    batchSize);
+
+            if (messages.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                outboxSink.publish(messages);
+            } catch (Exception e) {
+                throw new IllegalStateException("Outbox sink rejected " + messages.size() + " messages", e);
+            }
+
+            LocalDateTime publishedAt = LocalDateTime.now();
+
+            jdbcTemplate.batchUpdate("UPDATE outbox_events SET published_at = ? WHERE id = ?",
+                                    messages.stream().map(message -> new Object[] { publishedAt, message.getId() }).toList());
+
+            return messages.size();
+        });
+    }
+
+}
@@ -0,0 +1,11 @@
+package restful.api.eztrain.outbox;
+
+import java.util.List;
+
+// Receives the messages of one batch in outbox order. Throwing fails the whole batch, which is
+// then offered again from its first message; a sink has to tolerate seeing a message twice.
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+
+}
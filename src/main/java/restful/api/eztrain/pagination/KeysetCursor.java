@@ -0,0 +1,54 @@
+package restful.api.eztrain.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class KeysetCursor {
+
+    public static final String KEY = "id";
+
+    public static final Sort SORT = Sort.by(KEY);
+
+    private KeysetCursor() {
+    }
+
+    public static ScrollPosition decode(String after) {
+        if (after == null || after.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            Long id = Long.valueOf(new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8));
+
+            return ScrollPosition.forward(Map.of(KEY, id));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public static String next(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(String.valueOf(position.getKeys().get(KEY)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static <T, R> Window<R> map(Window<T> window, List<R> content) {
+        return Window.from(content, window::positionAt, window.hasNext());
+    }
+
+}
@@ -0,0 +1,10 @@
+package restful.api.eztrain.payment;
+
+// Final answer of the provider; anything else thrown by a gateway is treated as transient.
+public class PaymentDeclinedException extends RuntimeException {
+
+    public PaymentDeclinedException(String message) {
+        super(message);
+    }
+
+}
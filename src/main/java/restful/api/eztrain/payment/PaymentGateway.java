@@ -0,0 +1,15 @@
+package restful.api.eztrain.payment;
+
+// Every call carries the payment reference so that a provider can deduplicate the retry of a
+// step whose outcome was lost, e.g. when the node died between the call and the status update.
+public interface PaymentGateway {
+
+    String getName();
+
+    String authorize(String reference, Double amount);
+
+    void capture(String authorizationId, Double amount);
+
+    void settle(String authorizationId);
+
+}
@@ -0,0 +1,56 @@
+package restful.api.eztrain.payment;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// In-process stand-in for a payment provider: every step takes the configured latency and
+// amounts above the limit are declined.
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    @Value("${payment.simulated.latency:200}")
+    private Long latency;
+
+    @Value("${payment.simulated.max-amount:100000000}")
+    private Double maxAmount;
+
+    @Override
+    public String getName() {
+        return "SIMULATED";
+    }
+
+    @Override
+    public String authorize(String reference, Double amount) {
+        respond();
+
+        if (amount > maxAmount) {
+            throw new PaymentDeclinedException("Amount exceeds limit");
+        }
+
+        return "SIM-" + UUID.nameUUIDFromBytes(reference.getBytes());
+    }
+
+    @Override
+    public void capture(String authorizationId, Double amount) {
+        respond();
+    }
+
+    @Override
+    public void settle(String authorizationId) {
+        respond();
+    }
+
+    private void respond() {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payment gateway call interrupted", e);
+        }
+    }
+
+}
@@ -1,17 +1,75 @@
 package restful.api.eztrain.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import restful.api.eztrain.entity.CoachEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
 @Repository
 public interface CoachRepository extends JpaRepository<CoachEntity, Long>, JpaSpecificationExecutor<CoachEntity>{
 
+    interface CoachRow {
+
+        Long getId();
+
+        String getCoachName();
+
+        Integer getCoachNumber();
+
+        Long getCoachTypeId();
+
+        String getCoachTypeName();
+
+    }
+
+    interface CoachSeatRow {
+
+        Long getCoachId();
+
+        String getSeatNumber();
+
+    }
+
     Optional<CoachEntity> findByCoachName(String coachName);    
 
+    @Query(
+        value = """
+                select c.id as id, c.coachName as coachName, c.coachNumber as coachNumber,
+                    ct.id as coachTypeId, ct.name as coachTypeName
+                from CoachEntity c join c.coachTypeEntity ct
+                """,
+        countQuery = "select count(c) from CoachEntity c"
+    )
+    Page<CoachRow> findAllCoachRows(Pageable pageable);
+
+    @Query("select c.id as coachId, s.seatNumber as seatNumber from CoachEntity c join c.seats s where c.id in :coachIds")
+    List<CoachSeatRow> findSeatNumbersByCoachIds(@Param("coachIds") Collection<Long> coachIds);
+
+    List<CoachEntity> findAllByCoachNameIn(Collection<String> coachNames);
+
+    // one statement for every coach x seat pair; pairs that are already linked are skipped
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            INSERT INTO coaches_seats (coach_id, seat_id)
+            SELECT c.id, s.id
+            FROM coaches c CROSS JOIN seats s
+            WHERE c.id IN (:coachIds)
+            AND s.id IN (:seatIds)
+            AND NOT EXISTS (
+                SELECT 1 FROM coaches_seats cs WHERE cs.coach_id = c.id AND cs.seat_id = s.id
+            )
+            """, nativeQuery = true)
+    int attachSeats(@Param("coachIds") Collection<Long> coachIds, @Param("seatIds") Collection<Long> seatIds);
+
 }
@@ -0,0 +1,11 @@
+package restful.api.eztrain.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import restful.api.eztrain.entity.OutboxEventEntity;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+}
@@ -0,0 +1,92 @@
+package restful.api.eztrain.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import restful.api.eztrain.entity.PaymentEntity;
+import restful.api.eztrain.export.ExportTable;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<PaymentEntity, Long> {
+
+    interface PaymentExportRow {
+
+        Long getId();
+
+        Long getTicketId();
+
+        String getBookingReference();
+
+        String getUserEmail();
+
+        String getPaymentMethod();
+
+        Double getOriginalAmount();
+
+        Double getDiscountAmount();
+
+        Double getFinalAmount();
+
+        String getPaymentStatus();
+
+        LocalDateTime getPaidAt();
+
+        String getVoucherCode();
+
+    }
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportTable.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select p.id as id, t.id as ticketId, t.bookingReference as bookingReference, u.email as userEmail,
+                   p.paymentMethod as paymentMethod, p.originalAmount as originalAmount, p.discountAmount as discountAmount,
+                   p.finalAmount as finalAmount, p.paymentStatus as paymentStatus, p.paidAt as paidAt, v.code as voucherCode
+            from PaymentEntity p join p.userEntity u left join p.ticket t left join p.voucherEntity v
+            order by p.id
+            """)
+    Stream<PaymentExportRow> streamAllForExport();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PaymentEntity p where p.id = :id")
+    Optional<PaymentEntity> findForUpdateById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PaymentEntity p where p.bookingId = :bookingId order by p.id")
+    List<PaymentEntity> findForUpdateByBookingId(String bookingId);
+
+    @Query("""
+            select p.id from PaymentEntity p
+            where p.paymentStatus in :statuses and (p.claimedUntil is null or p.claimedUntil < :now)
+            order by p.id
+            """)
+    List<Long> findUnclaimedIdsByPaymentStatusIn(Collection<String> statuses, LocalDateTime now);
+
+    // also extends a claim the node already holds
+    @Modifying
+    @Query("""
+            update PaymentEntity p set p.claimedBy = :node, p.claimedUntil = :until
+            where p.id = :id and p.paymentStatus in :statuses
+            and (p.claimedBy = :node or p.claimedUntil is null or p.claimedUntil < :now)
+            """)
+    int claim(Long id, Collection<String> statuses, String node, LocalDateTime now, LocalDateTime until);
+
+    @Modifying
+    @Query("update PaymentEntity p set p.claimedBy = null, p.claimedUntil = null where p.id = :id and p.claimedBy = :node")
+    int unclaim(Long id, String node);
+
+}
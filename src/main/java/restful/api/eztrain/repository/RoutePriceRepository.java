@@ -1,11 +1,13 @@
 package restful.api.eztrain.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import restful.api.eztrain.entity.CoachTypeEntity;
 import restful.api.eztrain.entity.RouteEntity;
@@ -14,6 +16,32 @@ import restful.api.eztrain.entity.RoutePriceEntity;
 
 public interface RoutePriceRepository extends JpaRepository<RoutePriceEntity, Long>, JpaSpecificationExecutor<RoutePriceEntity>{
 
+    interface FareRow {
+
+        Long getRoutePriceId();
+
+        Double getPrice();
+
+        Long getRouteId();
+
+        Long getCoachTypeId();
+
+        String getCoachType();
+
+        Long getOriginId();
+
+        String getOriginCode();
+
+        String getOrigin();
+
+        Long getDestinationId();
+
+        String getDestinationCode();
+
+        String getDestination();
+
+    }
+
     Optional<RoutePriceEntity> findByCoachTypeEntity(CoachTypeEntity coachTypeEntity);
     
     Optional<RoutePriceEntity> findByRouteEntity(RouteEntity routeEntity);
@@ -22,4 +50,22 @@ public interface RoutePriceRepository extends JpaRepository<RoutePriceEntity, Lo
 
     Page<RoutePriceEntity> findByRouteEntityOrCoachTypeEntity(RouteEntity routeEntity, CoachTypeEntity coachTypeEntity, Pageable pageable);
 
+    @Query("""
+            select rp.id as routePriceId, rp.price as price, r.id as routeId, ct.id as coachTypeId, ct.name as coachType,
+                   o.id as originId, o.code as originCode, o.name as origin,
+                   d.id as destinationId, d.code as destinationCode, d.name as destination
+            from RoutePriceEntity rp join rp.routeEntity r join rp.coachTypeEntity ct join r.origin o join r.destination d
+            order by o.code, d.code, ct.name
+            """)
+    List<FareRow> findAllFares();
+
+    @Query("""
+            select rp.id as routePriceId, rp.price as price, r.id as routeId, ct.id as coachTypeId, ct.name as coachType,
+                   o.id as originId, o.code as originCode, o.name as origin,
+                   d.id as destinationId, d.code as destinationCode, d.name as destination
+            from RoutePriceEntity rp join rp.routeEntity r join rp.coachTypeEntity ct join r.origin o join r.destination d
+            where rp.id = :routePriceId
+            """)
+    List<FareRow> findFaresByRoutePriceId(Long routePriceId);
+
 }
@@ -10,7 +10,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import restful.api.eztrain.entity.RouteEntity;
 import restful.api.eztrain.entity.StationEntity;
 
-public interface RouteRepository extends JpaRepository<RouteEntity, Long>, JpaSpecificationExecutor<StationEntity>{
+public interface RouteRepository extends JpaRepository<RouteEntity, Long>, JpaSpecificationExecutor<RouteEntity>{
 
     Optional<RouteEntity> findByOriginAndDestination(StationEntity origin, StationEntity destination);
 
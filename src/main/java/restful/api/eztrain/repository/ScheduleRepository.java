@@ -0,0 +1,239 @@
+package restful.api.eztrain.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import restful.api.eztrain.entity.ScheduleEntity;
+import restful.api.eztrain.export.ExportTable;
+
+@Repository
+public interface ScheduleRepository extends JpaRepository<ScheduleEntity, Long>, JpaSpecificationExecutor<ScheduleEntity> {
+
+    interface SeatLayoutRow {
+
+        Long getScheduleId();
+
+        Long getCoachId();
+
+        String getCoachName();
+
+        Integer getCoachNumber();
+
+        String getCoachType();
+
+        Long getSeatId();
+
+        String getSeatNumber();
+
+    }
+
+    interface ConnectionRow {
+
+        Long getScheduleId();
+
+        Long getRouteId();
+
+        Long getTrainId();
+
+        Long getOriginId();
+
+        Long getDestinationId();
+
+        LocalDateTime getDepartureDatetime();
+
+        LocalDateTime getArrivalDatetime();
+
+        Double getTripDistance();
+
+        Double getTripDuration();
+
+    }
+
+    interface ScheduleExportRow {
+
+        Long getId();
+
+        String getTrainName();
+
+        String getOrigin();
+
+        String getDestination();
+
+        LocalDateTime getDepartureDatetime();
+
+        LocalDateTime getArrivalDatetime();
+
+        String getStatus();
+
+    }
+
+    interface DepartureRow {
+
+        Long getScheduleId();
+
+        Long getTrainId();
+
+        String getTrainName();
+
+        Long getRouteId();
+
+        Long getOriginId();
+
+        String getOriginCode();
+
+        String getOrigin();
+
+        Long getDestinationId();
+
+        String getDestinationCode();
+
+        String getDestination();
+
+        LocalDateTime getDepartureDatetime();
+
+        LocalDateTime getArrivalDatetime();
+
+        Double getTripDuration();
+
+        String getStatus();
+
+    }
+
+    @Query("""
+            select sc.id as scheduleId, c.id as coachId, c.coachName as coachName, c.coachNumber as coachNumber,
+                   ct.name as coachType, s.id as seatId, s.seatNumber as seatNumber
+            from ScheduleEntity sc join sc.trainEntity t join t.coaches c join c.coachTypeEntity ct join c.seats s
+            where sc.id = :scheduleId
+            """)
+    List<SeatLayoutRow> findSeatLayoutByScheduleId(@Param("scheduleId") Long scheduleId);
+
+    @Query("""
+            select sc.id as scheduleId, c.id as coachId, c.coachName as coachName, c.coachNumber as coachNumber,
+                   ct.name as coachType, s.id as seatId, s.seatNumber as seatNumber
+            from ScheduleEntity sc join sc.trainEntity t join t.coaches c join c.coachTypeEntity ct join c.seats s
+            where sc.departureDatetime is null or sc.departureDatetime >= :from
+            """)
+    List<SeatLayoutRow> findSeatLayoutDepartingFrom(@Param("from") LocalDateTime from);
+
+    @Query("""
+            select sc.id as scheduleId, r.id as routeId, t.id as trainId, o.id as originId, d.id as destinationId,
+                   sc.departureDatetime as departureDatetime, sc.arrivalDatetime as arrivalDatetime,
+                   r.tripDistance as tripDistance, r.tripDuration as tripDuration
+            from ScheduleEntity sc join sc.routeEntity r join r.origin o join r.destination d join sc.trainEntity t
+            where sc.departureDatetime >= :from and (sc.status is null or sc.status <> 'CANCELLED')
+            """)
+    List<ConnectionRow> findConnectionsDepartingFrom(@Param("from") LocalDateTime from);
+
+    @Query("""
+            select sc.id as scheduleId, r.id as routeId, t.id as trainId, o.id as originId, d.id as destinationId,
+                   sc.departureDatetime as departureDatetime, sc.arrivalDatetime as arrivalDatetime,
+                   r.tripDistance as tripDistance, r.tripDuration as tripDuration
+            from ScheduleEntity sc join sc.routeEntity r join r.origin o join r.destination d join sc.trainEntity t
+            where r.id = :routeId and sc.departureDatetime >= :from and (sc.status is null or sc.status <> 'CANCELLED')
+            """)
+    List<ConnectionRow> findConnectionsByRouteId(@Param("routeId") Long routeId, @Param("from") LocalDateTime from);
+
+    @Query("""
+            select sc.id as scheduleId, r.id as routeId, t.id as trainId, o.id as originId, d.id as destinationId,
+                   sc.departureDatetime as departureDatetime, sc.arrivalDatetime as arrivalDatetime,
+                   r.tripDistance as tripDistance, r.tripDuration as tripDuration
+            from ScheduleEntity sc join sc.routeEntity r join r.origin o join r.destination d join sc.trainEntity t
+            where sc.id = :scheduleId and sc.departureDatetime is not null and (sc.status is null or sc.status <> 'CANCELLED')
+            """)
+    Optional<ConnectionRow> findConnectionByScheduleId(@Param("scheduleId") Long scheduleId);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportTable.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select sc.id as id, t.name as trainName, o.code as origin, d.code as destination,
+                   sc.departureDatetime as departureDatetime, sc.arrivalDatetime as arrivalDatetime, sc.status as status
+            from ScheduleEntity sc join sc.trainEntity t join sc.routeEntity r join r.origin o join r.destination d
+            order by sc.id
+            """)
+    Stream<ScheduleExportRow> streamAllForExport();
+
+    @Query("""
+            select sc.id as scheduleId, t.id as trainId, t.name as trainName, r.id as routeId,
+                   o.id as originId, o.code as originCode, o.name as origin,
+                   d.id as destinationId, d.code as destinationCode, d.name as destination,
+                   sc.departureDatetime as departureDatetime, sc.arrivalDatetime as arrivalDatetime,
+                   r.tripDuration as tripDuration, sc.status as status
+            from ScheduleEntity sc join sc.trainEntity t join sc.routeEntity r join r.origin o join r.destination d
+            where sc.id = :scheduleId
+            """)
+    Optional<DepartureRow> findDepartureById(@Param("scheduleId") Long scheduleId);
+
+    @Query("""
+            select sc.id as scheduleId, t.id as trainId, t.name as trainName, r.id as routeId,
+                   o.id as originId, o.code as originCode, o.name as origin,
+                   d.id as destinationId, d.code as destinationCode, d.name as destination,
+                   sc.departureDatetime as departureDatetime, sc.arrivalDatetime as arrivalDatetime,
+                   r.tripDuration as tripDuration, sc.status as status
+            from ScheduleEntity sc join sc.trainEntity t join sc.routeEntity r join r.origin o join r.destination d
+            where sc.id in :scheduleIds
+            order by sc.id
+            """)
+    List<DepartureRow> findDeparturesByIds(@Param("scheduleIds") Collection<Long> scheduleIds);
+
+    @Query(value = """
+            select sc.id as scheduleId, t.id as trainId, t.name as trainName, r.id as routeId,
+                   o.id as originId, o.code as originCode, o.name as origin,
+                   d.id as destinationId, d.code as destinationCode, d.name as destination,
+                   sc.departureDatetime as departureDatetime, sc.arrivalDatetime as arrivalDatetime,
+                   r.tripDuration as tripDuration, sc.status as status
+            from ScheduleEntity sc join sc.trainEntity t join sc.routeEntity r join r.origin o join r.destination d
+            order by sc.id
+            """,
+            countQuery = "select count(sc) from ScheduleEntity sc")
+    Page<DepartureRow> findAllDepartures(Pageable pageable);
+
+    // served by idx_routes_origin_station and idx_schedules_route_departure; loads the day buckets of
+    // the departure index and answers the windows outside it, which are capped by the page
+    @Query("""
+            select sc.id as scheduleId, t.id as trainId, t.name as trainName, r.id as routeId,
+                   o.id as originId, o.code as originCode, o.name as origin,
+                   d.id as destinationId, d.code as destinationCode, d.name as destination,
+                   sc.departureDatetime as departureDatetime, sc.arrivalDatetime as arrivalDatetime,
+                   r.tripDuration as tripDuration, sc.status as status
+            from ScheduleEntity sc join sc.trainEntity t join sc.routeEntity r join r.origin o join r.destination d
+            where o.id = :originId and sc.departureDatetime >= :from and sc.departureDatetime < :to
+              and (sc.status is null or sc.status <> 'CANCELLED')
+            order by sc.departureDatetime, sc.id
+            """)
+    List<DepartureRow> findDeparturesByOriginId(@Param("originId") Long originId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                Pageable pageable);
+
+    @Query("""
+            select sc.id as scheduleId, t.id as trainId, t.name as trainName, r.id as routeId,
+                   o.id as originId, o.code as originCode, o.name as origin,
+                   d.id as destinationId, d.code as destinationCode, d.name as destination,
+                   sc.departureDatetime as departureDatetime, sc.arrivalDatetime as arrivalDatetime,
+                   r.tripDuration as tripDuration, sc.status as status
+            from ScheduleEntity sc join sc.trainEntity t join sc.routeEntity r join r.origin o join r.destination d
+            where o.id = :originId and sc.departureDatetime >= :from
+              and (sc.status is null or sc.status <> 'CANCELLED')
+            order by sc.departureDatetime, sc.id
+            """)
+    List<DepartureRow> findNextDeparturesByOriginId(@Param("originId") Long originId,
+                                                    @Param("from") LocalDateTime from,
+                                                    Pageable pageable);
+
+}
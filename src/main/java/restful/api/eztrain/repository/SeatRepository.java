@@ -1,5 +1,7 @@
 package restful.api.eztrain.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,4 +15,8 @@ public interface SeatRepository extends JpaRepository<SeatEntity, Long>, JpaSpec
 
     Optional<SeatEntity> findBySeatNumber(String seatNumber);
 
+    List<SeatEntity> findAllBySeatNumberIn(Collection<String> seatNumbers);
+
+    long countByIdIn(Collection<Long> seatIds);
+
 }
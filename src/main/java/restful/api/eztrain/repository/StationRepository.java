@@ -3,12 +3,17 @@ package restful.api.eztrain.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import restful.api.eztrain.cache.ReferenceCaches;
 import restful.api.eztrain.entity.StationEntity;
 import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.model.StationResponse;
 
 @Repository
 public interface StationRepository extends JpaRepository<StationEntity, Long>, JpaSpecificationExecutor<StationEntity> {
@@ -17,7 +22,17 @@ public interface StationRepository extends JpaRepository<StationEntity, Long>, J
 
     Optional<StationEntity> findByCode(String code);
 
+    @Cacheable(cacheNames = ReferenceCaches.STATIONS, key = "#p0", unless = "#result == null")
+    @Query("select s.id from StationEntity s where s.code = :code")
+    Optional<Long> findIdByCode(@Param("code") String code);
+
     Optional<StationEntity> findByName(String name);
 
     List<StationEntity> findAllByUserEntity(UserEntity user);
+
+    @Query("""
+            select new restful.api.eztrain.model.StationResponse(s.id, s.code, s.name, s.city, s.province, s.isActive)
+            from StationEntity s
+            """)
+    List<StationResponse> findAllStationResponses();
 }
@@ -0,0 +1,98 @@
+package restful.api.eztrain.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import restful.api.eztrain.entity.TicketEntity;
+import restful.api.eztrain.export.ExportTable;
+
+@Repository
+public interface TicketRepository extends JpaRepository<TicketEntity, Long>, JpaSpecificationExecutor<TicketEntity> {
+
+    interface BookedSeatRow {
+
+        Long getScheduleId();
+
+        Long getCoachId();
+
+        Long getSeatId();
+
+    }
+
+    interface TicketExportRow {
+
+        Long getId();
+
+        String getBookingReference();
+
+        String getBookingStatus();
+
+        Double getPrice();
+
+        LocalDateTime getBookedAt();
+
+        LocalDateTime getCheckedInAt();
+
+        String getUserEmail();
+
+        String getTrainName();
+
+        Long getScheduleId();
+
+        LocalDateTime getDepartureDatetime();
+
+        String getOrigin();
+
+        String getDestination();
+
+        String getCoachName();
+
+        String getSeatNumber();
+
+    }
+
+    @Query("""
+            select t.scheduleEntity.id as scheduleId, t.coachEntity.id as coachId, t.seatEntity.id as seatId
+            from TicketEntity t
+            where t.scheduleEntity.id = :scheduleId and (t.bookingStatus is null or t.bookingStatus <> :excludedStatus)
+            """)
+    List<BookedSeatRow> findBookedSeatsByScheduleId(@Param("scheduleId") Long scheduleId, 
+                                                    @Param("excludedStatus") String excludedStatus);
+
+    @Query("""
+            select t.scheduleEntity.id as scheduleId, t.coachEntity.id as coachId, t.seatEntity.id as seatId
+            from TicketEntity t join t.scheduleEntity sc
+            where (sc.departureDatetime is null or sc.departureDatetime >= :from) 
+              and (t.bookingStatus is null or t.bookingStatus <> :excludedStatus)
+            """)
+    List<BookedSeatRow> findBookedSeatsDepartingFrom(@Param("from") LocalDateTime from, 
+                                                     @Param("excludedStatus") String excludedStatus);
+
+    boolean existsByScheduleEntityId(Long scheduleId);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportTable.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select t.id as id, t.bookingReference as bookingReference, t.bookingStatus as bookingStatus, t.price as price,
+                   t.bookedAt as bookedAt, t.checkedInAt as checkedInAt, u.email as userEmail, tr.name as trainName,
+                   sc.id as scheduleId, sc.departureDatetime as departureDatetime, o.code as origin, d.code as destination,
+                   c.coachName as coachName, s.seatNumber as seatNumber
+            from TicketEntity t join t.userEntity u join t.trainEntity tr join t.scheduleEntity sc
+                 join t.routeEntity r join r.origin o join r.destination d join t.coachEntity c join t.seatEntity s
+            order by t.id
+            """)
+    Stream<TicketExportRow> streamAllForExport();
+
+}
@@ -1,9 +1,13 @@
 package restful.api.eztrain.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import restful.api.eztrain.entity.TrainEntity;
 import restful.api.eztrain.entity.UserEntity;
@@ -11,8 +15,19 @@ import restful.api.eztrain.entity.UserEntity;
 @Repository
 public interface TrainRepository extends JpaRepository <TrainEntity, Long>, JpaSpecificationExecutor<TrainEntity> {
 
+    interface TrainCoachRow {
+
+        Long getTrainId();
+
+        String getCoachName();
+
+    }
+
     Optional<TrainEntity> findByName(String name);
 
     Optional<TrainEntity> findFirstByUserEntityAndId(UserEntity user, Long id);
-    
+
+    @Query("select t.id as trainId, c.coachName as coachName from TrainEntity t join t.coaches c where t.id in :trainIds")
+    List<TrainCoachRow> findCoachNamesByTrainIds(@Param("trainIds") Collection<Long> trainIds);
+
 }
@@ -1,20 +1,108 @@
 package restful.api.eztrain.repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import restful.api.eztrain.cache.ReferenceCaches;
 import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.export.ExportTable;
+import restful.api.eztrain.security.UserCredentials;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long>, JpaSpecificationExecutor<UserEntity>{
 
+    interface UserRow {
+
+        Long getId();
+
+        String getEmail();
+
+        String getFullName();
+
+        String getPhoneNumber();
+
+        Boolean getIsVerified();
+
+        Boolean getIsActive();
+
+    }
+
+    interface UserExportRow {
+
+        Long getId();
+
+        String getEmail();
+
+        String getFullName();
+
+        String getPhoneNumber();
+
+        Boolean getIsVerified();
+
+        Boolean getIsActive();
+
+        Date getCreatedAt();
+
+    }
+
+    interface UserRoleRow {
+
+        Long getUserId();
+
+        String getRoleName();
+
+    }
+
     Optional<UserEntity> findByEmail(String email);
+
+    // resolves the caller of every authenticated request, so it is cached; never a managed entity
+    @Cacheable(cacheNames = ReferenceCaches.USERS, key = "#p0", unless = "#result == null")
+    @Query("""
+            select new restful.api.eztrain.security.UserCredentials(u.id, u.email, u.password, listagg(r.name, ','))
+            from UserEntity u left join u.roles r
+            where u.email = :email
+            group by u.id, u.email, u.password
+            """)
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
     
     Optional<UserEntity> findFirstByEmailAndToken(String email, String token);
 
     Optional<UserEntity> findFirstByToken(String token);
 
+    @Query(
+        value = "select u.id as id, u.email as email, u.fullName as fullName, u.phoneNumber as phoneNumber, u.isVerified as isVerified, u.isActive as isActive from UserEntity u",
+        countQuery = "select count(u) from UserEntity u"
+    )
+    Page<UserRow> findAllUserRows(Pageable pageable);
+
+    @Query("select u.id as userId, r.name as roleName from UserEntity u join u.roles r where u.id in :userIds")
+    List<UserRoleRow> findRoleNamesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportTable.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select u.id as id, u.email as email, u.fullName as fullName, u.phoneNumber as phoneNumber,
+                   u.isVerified as isVerified, u.isActive as isActive, u.createdAt as createdAt
+            from UserEntity u
+            order by u.id
+            """)
+    Stream<UserExportRow> streamAllForExport();
+
 }
@@ -0,0 +1,29 @@
+package restful.api.eztrain.repository;
+
+import java.util.Optional;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import restful.api.eztrain.cache.ReferenceCaches;
+import restful.api.eztrain.entity.VoucherEntity;
+import restful.api.eztrain.voucher.VoucherRule;
+
+@Repository
+public interface VoucherRepository extends JpaRepository<VoucherEntity, Long> {
+
+    Optional<VoucherEntity> findByCode(String code);
+
+    @Cacheable(cacheNames = ReferenceCaches.VOUCHERS, key = "#p0", unless = "#result == null")
+    @Query("""
+            select new restful.api.eztrain.voucher.VoucherRule(v.id, v.code, v.discountAmount, v.minimumAmount,
+                   v.validFrom, v.validUntil, v.isActive, v.maxRedemptions)
+            from VoucherEntity v
+            where v.code = :code
+            """)
+    Optional<VoucherRule> findRuleByCode(@Param("code") String code);
+
+}
@@ -0,0 +1,84 @@
+package restful.api.eztrain.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+// Case-insensitive substring filters served by the lower(column) gin_trgm_ops indexes in schema.sql.
+// A term shorter than a trigram gives those indexes nothing to look up, so it matches the start of
+// the column instead, through the lower(column) text_pattern_ops indexes next to them.
+// Results are ranked by the summed pg_trgm similarity of every filtered column.
+public class TrigramSearch {
+
+    private static final char ESCAPE = '\\';
+
+    private static final int TRIGRAM_LENGTH = 3;
+
+    private final Root<?> root;
+
+    private final CriteriaQuery<?> query;
+
+    private final CriteriaBuilder builder;
+
+    private final List<Predicate> predicates = new ArrayList<>();
+
+    private Expression<Double> score;
+
+    private TrigramSearch(Root<?> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        this.root = root;
+        this.query = query;
+        this.builder = builder;
+    }
+
+    public static TrigramSearch of(Root<?> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        return new TrigramSearch(root, query, builder);
+    }
+
+    public TrigramSearch contains(String attribute, String term) {
+        if (Objects.isNull(term) || term.isBlank()) {
+            return this;
+        }
+
+        String needle = term.trim().toLowerCase(Locale.ROOT);
+        Expression<String> column = builder.lower(root.get(attribute));
+
+        String pattern = needle.length() < TRIGRAM_LENGTH ? escape(needle) + "%" : "%" + escape(needle) + "%";
+
+        predicates.add(builder.like(column, pattern, ESCAPE));
+
+        Expression<Double> similarity = builder.function("similarity", Double.class, column, builder.literal(needle));
+        score = Objects.isNull(score) ? similarity : builder.sum(score, similarity);
+
+        return this;
+    }
+
+    public Predicate toPredicate() {
+        // Count queries cannot be ordered, and keyset scrolling replaces this order with its own sort.
+        if (Objects.nonNull(score) && !Long.class.equals(query.getResultType())) {
+            query.orderBy(builder.desc(score), builder.asc(root.get("id")));
+        }
+
+        return builder.and(predicates.toArray(new Predicate[]{}));
+    }
+
+    private static String escape(String term) {
+        StringBuilder escaped = new StringBuilder(term.length());
+
+        for (char c : term.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+
+}
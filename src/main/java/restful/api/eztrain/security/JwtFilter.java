@@ -12,14 +12,13 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
 
 @Component
-@Slf4j
 public class JwtFilter extends OncePerRequestFilter {
 
     @Autowired
@@ -28,6 +27,12 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailService userDetailService;
 
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
     private HandlerExceptionResolver exceptionResolver;
     
     public JwtFilter(HandlerExceptionResolver exceptionResolver) {
@@ -41,13 +46,14 @@ public class JwtFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         
         String token = jwtUtil.getJwtFromRequest(request);
-        log.info("CURRENT TOKEN {}", token);
 
         try {
-            if (StringUtils.hasText(token) && jwtUtil.validateToken(token) && (!jwtUtil.isTokenExpired(token))) {
-                String email = jwtUtil.getEmailFromJwt(token);
-    
-                UserDetails userDetails = userDetailService.loadUserByUsername(email);
+            Claims claims = StringUtils.hasText(token) ? jwtUtil.parseClaims(token) : null;
+
+            if (claims != null && !tokenRevocationStore.isRevoked(claims) && isTokenActive(token)) {
+                UserDetails userDetails = securityConstants.getJwtStateless()
+                                            ? jwtUtil.getUserDetailsFromClaims(claims)
+                                            : userDetailService.loadUserByUsername(claims.getSubject());
     
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -61,4 +67,13 @@ public class JwtFilter extends OncePerRequestFilter {
         }              
     }
 
+    private boolean isTokenActive(String token) {
+        // stateless tokens carry their own expiry, which parseClaims already verified
+        if (securityConstants.getJwtStateless()) {
+            return true;
+        }
+
+        return !jwtUtil.isTokenExpired(token);
+    }
+
 }
@@ -1,12 +1,19 @@
 package restful.api.eztrain.security;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
@@ -24,6 +31,11 @@ public class JwtUtil {
 
     private static final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
 
+    private static final String ROLES_CLAIM = "roles";
+
+    // iat is truncated to whole seconds, which is too coarse to order a token against a revocation
+    static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
     @Autowired
     private UserRepository userRepository;
 
@@ -35,9 +47,13 @@ public class JwtUtil {
         Date currDate = new Date();
         //Date expDate = new Date(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
         Date expDate = new Date(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        List<String> roles = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
 
         String token = Jwts.builder()
+                        .setId(UUID.randomUUID().toString())
                         .setSubject(email)
+                        .claim(ROLES_CLAIM, roles)
+                        .claim(ISSUED_AT_MILLIS_CLAIM, currDate.getTime())
                         .setIssuedAt(currDate)
                         .setExpiration(expDate)
                         .signWith(key, SignatureAlgorithm.HS512)
@@ -46,27 +62,38 @@ public class JwtUtil {
         return token;
     }
 
-    public String getEmailFromJwt(String token) {
-        Claims claims = Jwts.parserBuilder()
+    public Claims parseClaims(String token) {
+        try {
+            return Jwts.parserBuilder()
                         .setSigningKey(key)
                         .build()
                         .parseClaimsJws(token)
                         .getBody();
+        } catch (Exception e) {
+            throw new AuthenticationCredentialsNotFoundException("JWT was expired or incorrect", e.fillInStackTrace());
+        }
+    }
 
-        return claims.getSubject();
+    public String getEmailFromJwt(String token) {
+        return parseClaims(token).getSubject();
     }
 
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+        parseClaims(token);
 
-                return true;
-        } catch (Exception e) {
-            throw new AuthenticationCredentialsNotFoundException("JWT was expired or incorrect", e.fillInStackTrace());
-        }
+        return true;
+    }
+
+    public UserDetails getUserDetailsFromClaims(Claims claims) {
+        Collection<?> roles = claims.get(ROLES_CLAIM, Collection.class);
+
+        List<GrantedAuthority> authorities = roles == null 
+                                                ? List.of() 
+                                                : roles.stream()
+                                                    .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                                                    .toList();
+
+        return new User(claims.getSubject(), "", authorities);
     }
 
     public String getJwtFromRequest(HttpServletRequest request) {
@@ -35,6 +35,9 @@ public class SecurityConfig {
                     //.requestMatchers("/api/users/**").permitAll()
                     .requestMatchers(HttpMethod.POST, "/api/users/**").permitAll()                    
                     .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                    .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                    // latency, query counts and JVM internals are for operators only
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     .anyRequest()
                     .authenticated())            
             .sessionManagement((session) -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -12,6 +12,9 @@ public class SecurityConstants {
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    @Value("${jwt.stateless:false}")
+    private Boolean jwtStateless;
+
     public Integer getJwtExpiration() {
         return jwtExpiration;
     }
@@ -20,6 +23,10 @@ public class SecurityConstants {
         return jwtSecret;
     }
 
+    public Boolean getJwtStateless() {
+        return jwtStateless;
+    }
+
     /*
     public static final int JWTexpiration = jwtExpiration;      
 
@@ -0,0 +1,161 @@
+package restful.api.eztrain.security;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import restful.api.eztrain.cache.CacheInvalidationBus;
+import restful.api.eztrain.cache.ReferenceCaches;
+import restful.api.eztrain.transaction.AfterCommit;
+
+// Revocations are checked in memory on every request. They are also written to revoked_tokens and
+// revoked_subjects, and announced on the bus once committed, so every node applies them; a node
+// that starts, or whose listener missed messages, reads both tables again.
+@Component
+public class TokenRevocationStore {
+
+    private static final String TOKEN = "token";
+
+    private static final String SUBJECT = "subject";
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    // token id -> token expiration, entries are useless once the token itself expires
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // email -> every token issued strictly before this instant is revoked
+    private final Map<String, Long> revokedSubjects = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        cacheInvalidationBus.subscribe(ReferenceCaches.TOKEN_REVOCATIONS, this::receive);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        purgeExpired();
+
+        jdbcTemplate.query("SELECT token_id, expired_at FROM revoked_tokens",
+                            (RowCallbackHandler) row -> revokeToken(row.getString("token_id"), row.getLong("expired_at")));
+
+        jdbcTemplate.query("SELECT email, revoked_at FROM revoked_subjects",
+                            (RowCallbackHandler) row -> revokeSubject(row.getString("email"), row.getLong("revoked_at")));
+    }
+
+    public void revoke(Claims claims) {
+        purgeExpired();
+
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return;
+        }
+
+        long expiredAt = claims.getExpiration().getTime();
+
+        revokeToken(claims.getId(), expiredAt);
+
+        jdbcTemplate.update("INSERT INTO revoked_tokens (token_id, expired_at) VALUES (?, ?) ON CONFLICT (token_id) DO NOTHING",
+                            claims.getId(), expiredAt);
+
+        announce(TOKEN, expiredAt, claims.getId());
+    }
+
+    public void revokeAll(String email) {
+        purgeExpired();
+
+        long revokedAt = System.currentTimeMillis();
+
+        revokeSubject(email, revokedAt);
+
+        jdbcTemplate.update("""
+                INSERT INTO revoked_subjects (email, revoked_at) VALUES (?, ?)
+                ON CONFLICT (email) DO UPDATE SET revoked_at = GREATEST(revoked_subjects.revoked_at, EXCLUDED.revoked_at)
+                """, email, revokedAt);
+
+        announce(SUBJECT, revokedAt, email);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        if (claims.getId() != null && revokedTokens.containsKey(claims.getId())) {
+            return true;
+        }
+
+        Long revokedAt = revokedSubjects.get(claims.getSubject());
+
+        if (revokedAt == null) {
+            return false;
+        }
+
+        Long issuedAt = issuedAtMillis(claims);
+
+        return issuedAt != null && issuedAt < revokedAt;
+    }
+
+    private void revokeToken(String tokenId, long expiredAt) {
+        revokedTokens.put(tokenId, expiredAt);
+    }
+
+    private void revokeSubject(String email, long revokedAt) {
+        revokedSubjects.merge(email, revokedAt, Math::max);
+    }
+
+    // kind, time and token id or email; the email goes last since it may contain the separator
+    private void announce(String kind, long time, String key) {
+        AfterCommit.run(() -> cacheInvalidationBus.publish(ReferenceCaches.TOKEN_REVOCATIONS, kind + ":" + time + ":" + key));
+    }
+
+    private void receive(String message) {
+        if (message == null) {
+            reload();
+            return;
+        }
+
+        String[] parts = message.split(":", 3);
+
+        if (TOKEN.equals(parts[0])) {
+            revokeToken(parts[2], Long.parseLong(parts[1]));
+        } else if (SUBJECT.equals(parts[0])) {
+            revokeSubject(parts[2], Long.parseLong(parts[1]));
+        }
+    }
+
+    // tokens without the millisecond claim fall back to the start of their iat second
+    private Long issuedAtMillis(Claims claims) {
+        Long issuedAt = claims.get(JwtUtil.ISSUED_AT_MILLIS_CLAIM, Long.class);
+
+        if (issuedAt != null) {
+            return issuedAt;
+        }
+
+        Date iat = claims.getIssuedAt();
+
+        return iat != null ? iat.getTime() : null;
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long revokedBefore = now - securityConstants.getJwtExpiration();
+
+        revokedTokens.values().removeIf(expiredAt -> expiredAt < now);
+        revokedSubjects.values().removeIf(revokedAt -> revokedAt < revokedBefore);
+
+        jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expired_at < ?", now);
+        jdbcTemplate.update("DELETE FROM revoked_subjects WHERE revoked_at < ?", revokedBefore);
+    }
+
+}
@@ -0,0 +1,28 @@
+package restful.api.eztrain.security;
+
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.Getter;
+
+// What authenticating a request needs from a user, safe to share across requests and threads.
+@Getter
+public class UserCredentials {
+
+    private final Long id;
+
+    private final String email;
+
+    private final String password;
+
+    private final List<String> roles;
+
+    // the role names arrive aggregated into one comma separated column
+    public UserCredentials(Long id, String email, String password, String roleNames) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.roles = roleNames == null ? List.of() : Arrays.stream(roleNames.split(",")).toList();
+    }
+
+}
@@ -0,0 +1,23 @@
+package restful.api.eztrain.security;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.repository.UserRepository;
+
+// Users as owners of the rows a request writes. The id comes from the cached credentials and the
+// entity is a reference in the caller's session, so the user row is not read again.
+@Component
+public class UserReferences {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public Optional<UserEntity> findByEmail(String email) {
+        return userRepository.findCredentialsByEmail(email).map(credentials -> userRepository.getReferenceById(credentials.getId()));
+    }
+
+}
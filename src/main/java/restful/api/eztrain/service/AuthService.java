@@ -31,6 +31,7 @@ import restful.api.eztrain.repository.UserRepository;
 import restful.api.eztrain.security.CustomUserDetailService;
 import restful.api.eztrain.security.JwtUtil;
 import restful.api.eztrain.security.SecurityConstants;
+import restful.api.eztrain.security.TokenRevocationStore;
 
 @Service
 public class AuthService {
@@ -53,6 +54,9 @@ public class AuthService {
     @Autowired
     private SecurityConstants securityConstants;
 
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
     @Autowired
     ValidationService validationService;
 
@@ -125,12 +129,20 @@ public class AuthService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "User password reset failed");
         }        
 
+        tokenRevocationStore.revokeAll(user.getEmail());
+
     }
 
     @Transactional
     public void logout(Authentication authentication, HttpServletRequest request, HttpServletResponse response) {
         
         if (authentication != null && authentication.isAuthenticated()) {
+            String token = jwtUtil.getJwtFromRequest(request);
+
+            if (token != null) {
+                tokenRevocationStore.revoke(jwtUtil.parseClaims(token));
+            }
+
             new SecurityContextLogoutHandler().logout(request, response, authentication);
         } else {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Username not found");
@@ -0,0 +1,219 @@
+package restful.api.eztrain.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import restful.api.eztrain.entity.BookingStatus;
+import restful.api.eztrain.entity.CoachEntity;
+import restful.api.eztrain.entity.PaymentEntity;
+import restful.api.eztrain.entity.RoutePriceEntity;
+import restful.api.eztrain.entity.ScheduleEntity;
+import restful.api.eztrain.entity.SeatEntity;
+import restful.api.eztrain.entity.TicketEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.fare.Fare;
+import restful.api.eztrain.inventory.SeatHold;
+import restful.api.eztrain.mapper.ResponseMapper;
+import restful.api.eztrain.model.SeatHoldRequest;
+import restful.api.eztrain.model.SeatHoldResponse;
+import restful.api.eztrain.model.TicketResponse;
+import restful.api.eztrain.repository.CoachRepository;
+import restful.api.eztrain.repository.RoutePriceRepository;
+import restful.api.eztrain.repository.ScheduleRepository;
+import restful.api.eztrain.repository.SeatRepository;
+import restful.api.eztrain.repository.TicketRepository;
+import restful.api.eztrain.security.UserReferences;
+import restful.api.eztrain.voucher.VoucherRedemption;
+
+@Service
+public class BookingService {
+
+    @Autowired
+    private UserReferences userReferences;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private CoachRepository coachRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private RoutePriceRepository routePriceRepository;
+
+    @Autowired
+    private FareService fareService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private VoucherService voucherService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ValidationService validationService;
+
+    @Value("${booking.hold-ttl:600000}")
+    private Long holdTtl;
+
+    public SeatHoldResponse hold(Authentication authentication, SeatHoldRequest request) {
+        validationService.validate(request);
+
+        if (request.getVoucherCode() != null) {
+            voucherService.check(request.getVoucherCode());
+        }
+
+        SeatHold hold = SeatHold.builder()
+                            .holdId(UUID.randomUUID().toString())
+                            .scheduleId(request.getScheduleId())
+                            .coachId(request.getCoachId())
+                            .seatIds(List.copyOf(request.getSeatIds()))
+                            .email(authentication.getName())
+                            .expiredAt(System.currentTimeMillis() + holdTtl)
+                            .voucherCode(request.getVoucherCode())
+                            .build();
+
+        if (!seatInventoryService.hold(hold)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Seats are not available");
+        }
+
+        return ResponseMapper.ToSeatHoldResponseMapper(hold);
+    }
+
+    @Transactional
+    public List<TicketResponse> confirm(Authentication authentication, String holdId) {
+        SeatHold hold = claimOwnHold(authentication, holdId);
+
+        // the rollback puts the expired hold back for the sweeper to release
+        if (hold.isExpired(System.currentTimeMillis())) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Seat hold expired");
+        }
+
+        // from here on the held seats are either booked on commit or held again on rollback
+        seatInventoryService.confirmHoldAfterCommit(hold);
+
+        UserEntity user = userReferences.findByEmail(authentication.getName())
+                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        ScheduleEntity schedule = scheduleRepository.findById(hold.getScheduleId())
+                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Schedule not found"));
+
+        CoachEntity coach = coachRepository.findById(hold.getCoachId())
+                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Coach not found"));
+
+        List<SeatEntity> seats = seatRepository.findAllById(hold.getSeatIds());
+
+        if (seats.size() != hold.getSeatIds().size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Seat not found");
+        }
+
+        Fare fare = fareService.get(schedule.getRouteEntity().getOrigin().getId(), 
+                                    schedule.getRouteEntity().getDestination().getId(), 
+                                    coach.getCoachTypeEntity().getId());
+
+        if (fare == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Route price not found");
+        }
+
+        RoutePriceEntity routePrice = routePriceRepository.getReferenceById(fare.getRoutePriceId());
+
+        VoucherRedemption redemption = null;
+
+        if (hold.getVoucherCode() != null) {
+            redemption = voucherService.redeem(hold.getVoucherCode(), fare.getPrice() * seats.size());
+        }
+
+        List<TicketEntity> tickets = new ArrayList<>();
+
+        for (SeatEntity seat : seats) {
+            TicketEntity ticket = new TicketEntity();
+            ticket.setBookingReference(UUID.randomUUID().toString().replace("-", "").substring(0, 10).toUpperCase());
+            ticket.setBookingStatus(BookingStatus.BOOKED.name());
+            ticket.setPrice(fare.getPrice());
+            ticket.setUserEntity(user);
+            ticket.setTrainEntity(schedule.getTrainEntity());
+            ticket.setScheduleEntity(schedule);
+            ticket.setCoachEntity(coach);
+            ticket.setSeatEntity(seat);
+            ticket.setRouteEntity(schedule.getRouteEntity());
+            ticket.setRoutePriceEntity(routePrice);
+
+            tickets.add(ticket);
+        }
+
+        try {
+            ticketRepository.saveAllAndFlush(tickets);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Seats already booked");
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Booking confirmation failed");
+        }
+
+        // charged by the payment workers once this transaction has committed
+        List<PaymentEntity> payments = paymentService.open(user, hold.getHoldId(), tickets, redemption);
+
+        List<TicketResponse> responses = tickets.stream()
+                .map(ticket -> ResponseMapper.ToTicketResponseMapper(ticket))
+                .collect(Collectors.toList());
+
+        for (int i = 0; i < responses.size(); i++) {
+            responses.get(i).setPaymentId(payments.get(i).getId());
+
+            TicketEntity ticket = tickets.get(i);
+
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("bookingReference", ticket.getBookingReference());
+            event.put("email", authentication.getName());
+            event.put("scheduleId", schedule.getId());
+            event.put("coachId", coach.getId());
+            event.put("seatId", ticket.getSeatEntity().getId());
+            event.put("price", ticket.getPrice());
+            event.put("paymentId", payments.get(i).getId());
+
+            outboxService.record("Ticket", ticket.getId(), "TicketBooked", event);
+        }
+
+        return responses;
+    }
+
+    public void cancelHold(Authentication authentication, String holdId) {
+        SeatHold hold = claimOwnHold(authentication, holdId);
+
+        seatInventoryService.releaseHold(hold);
+    }
+
+    private SeatHold claimOwnHold(Authentication authentication, String holdId) {
+        SeatHold hold = seatInventoryService.claimHold(holdId, authentication.getName());
+
+        if (hold == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Seat hold not found");
+        }
+
+        return hold;
+    }
+
+}
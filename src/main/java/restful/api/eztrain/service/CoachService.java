@@ -1,8 +1,13 @@
 package restful.api.eztrain.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +15,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
@@ -17,26 +23,31 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import jakarta.persistence.criteria.Predicate;
 import restful.api.eztrain.entity.CoachEntity;
 import restful.api.eztrain.entity.CoachTypeEntity;
 import restful.api.eztrain.entity.SeatEntity;
 import restful.api.eztrain.entity.UserEntity;
 import restful.api.eztrain.mapper.ResponseMapper;
+import restful.api.eztrain.model.AssignSeatsRequest;
+import restful.api.eztrain.model.BulkRegisterCoachRequest;
 import restful.api.eztrain.model.CoachResponse;
 import restful.api.eztrain.model.RegisterCoachRequest;
 import restful.api.eztrain.model.SearchCoachRequest;
 import restful.api.eztrain.model.UpdateCoachRequest;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.repository.CoachRepository;
+import restful.api.eztrain.repository.CoachRepository.CoachRow;
+import restful.api.eztrain.repository.CoachRepository.CoachSeatRow;
 import restful.api.eztrain.repository.CoachTypeRepository;
 import restful.api.eztrain.repository.SeatRepository;
-import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.search.TrigramSearch;
+import restful.api.eztrain.security.UserReferences;
 
 @Service
 public class CoachService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserReferences userReferences;
 
     @Autowired
     private CoachRepository coachRepository;
@@ -50,11 +61,17 @@ public class CoachService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private SeatService seatService;
+
     @Transactional
     public CoachResponse register(Authentication authentication, RegisterCoachRequest request) {
         validationService.validate(request);
         
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));                
 
         if (coachRepository.findByCoachName(request.getCoachName()).isPresent()) {
@@ -81,6 +98,60 @@ public class CoachService {
         
     }
 
+    @Transactional
+    public List<CoachResponse> registerBulk(Authentication authentication, BulkRegisterCoachRequest request) {
+        validationService.validate(request);
+
+        UserEntity user = userReferences.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        Set<String> coachNames = request.getCoaches().stream().map(RegisterCoachRequest::getCoachName).collect(Collectors.toSet());
+
+        if (coachNames.size() != request.getCoaches().size() || !coachRepository.findAllByCoachNameIn(coachNames).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coach already registered");
+        }
+
+        Set<Long> coachTypeIds = request.getCoaches().stream().map(RegisterCoachRequest::getCoachTypeId).collect(Collectors.toSet());
+        Map<Long, CoachTypeEntity> coachTypes = coachTypeRepository.findAllById(coachTypeIds)
+                                                    .stream()
+                                                    .collect(Collectors.toMap(CoachTypeEntity::getId, Function.identity()));
+
+        if (coachTypes.size() != coachTypeIds.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Coach type not found");
+        }
+
+        List<CoachEntity> coaches = new ArrayList<>();
+
+        for (RegisterCoachRequest coachRequest : request.getCoaches()) {
+            CoachEntity coach = new CoachEntity();
+            coach.setCoachName(coachRequest.getCoachName());
+            coach.setCoachNumber(coachRequest.getCoachNumber());
+            coach.setCoachTypeEntity(coachTypes.get(coachRequest.getCoachTypeId()));
+            coach.setIsActive(true);
+            coach.setUserEntity(user);
+            coaches.add(coach);
+        }
+
+        try {
+            coachRepository.saveAll(coaches);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Register coach failed");
+        }
+
+        List<Long> coachIds = coaches.stream().map(CoachEntity::getId).toList();
+
+        if (Objects.nonNull(request.getLayout())) {
+            List<Long> seatIds = seatService.provisionLayout(user, request.getLayout())
+                                    .stream()
+                                    .map(SeatEntity::getId)
+                                    .toList();
+
+            coachRepository.attachSeats(coachIds, seatIds);
+        }
+
+        return toCoachResponses(coachIds);
+    }
+
     @Transactional(readOnly = true)
     public CoachResponse get(Long coachId) {             
         CoachEntity coach = coachRepository.findById(coachId)
@@ -89,15 +160,25 @@ public class CoachService {
         return ResponseMapper.ToCoachResponseMapper(coach);
     }
 
+    // the page and its seat numbers come from two projection queries, without loading the coaches
+    // and their eagerly fetched seats
     @Transactional(readOnly = true)
     public Page<CoachResponse> getAllCoaches(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<CoachEntity> coaches = coachRepository.findAll(pageable);
+        Page<CoachRow> coaches = coachRepository.findAllCoachRows(pageable);
+
+        Map<Long, List<String>> seats = coaches.isEmpty()
+                                            ? new HashMap<>()
+                                            : coachRepository.findSeatNumbersByCoachIds(coaches.getContent().stream().map(CoachRow::getId).toList())
+                                                .stream()
+                                                .collect(Collectors.groupingBy(
+                                                    CoachSeatRow::getCoachId,
+                                                    Collectors.mapping(CoachSeatRow::getSeatNumber, Collectors.toList())));
 
         List<CoachResponse> coachResponses = coaches
                                             .getContent()
                                             .stream()
-                                            .map(p -> ResponseMapper.ToCoachResponseMapper(p))
+                                            .map(p -> ResponseMapper.ToCoachResponseMapper(p, seats.getOrDefault(p.getId(), new ArrayList<>())))
                                             .collect(Collectors.toList()); 
 
         return new PageImpl<>(coachResponses, pageable, coaches.getTotalElements());
@@ -105,7 +186,7 @@ public class CoachService {
 
     @Transactional
     public CoachResponse update(Authentication authentication, UpdateCoachRequest request, Long coachId) {    
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         CoachEntity coach = coachRepository.findById(coachId)
@@ -134,6 +215,8 @@ public class CoachService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Update coach failed");
         }
 
+        seatInventoryService.invalidateAll();
+
         return ResponseMapper.ToCoachResponseMapper(coach);
     }
 
@@ -147,22 +230,14 @@ public class CoachService {
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Delete coach failed");
         }
+
+        seatInventoryService.invalidateAll();
     }
 
     @SuppressWarnings("null")
     @Transactional(readOnly = true)
     public Page<CoachResponse> search(SearchCoachRequest request) {
-        Specification<CoachEntity> specification = (root, query, builder) -> {
-            List<Predicate> predicates = new ArrayList<>();                    
-
-            if (Objects.nonNull(request.getCoachName())) {
-                predicates.add(builder.or(                    
-                    builder.like(root.get("coachName"), "%"+request.getCoachName()+"%")
-                ));
-            }
-
-            return query.where(predicates.toArray(new Predicate[]{})).getRestriction();
-        };
+        Specification<CoachEntity> specification = searchSpecification(request);
 
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
         Page<CoachEntity> coaches = coachRepository.findAll(specification, pageable);        
@@ -175,6 +250,22 @@ public class CoachService {
         return new PageImpl<>(coachResponses, pageable, coaches.getTotalElements());
     }
 
+    @Transactional(readOnly = true)
+    public Window<CoachResponse> scroll(SearchCoachRequest request) {
+        Window<CoachEntity> coaches = coachRepository.findBy(searchSpecification(request), query -> query
+                                                        .sortBy(KeysetCursor.SORT)
+                                                        .limit(request.getSize())
+                                                        .scroll(KeysetCursor.decode(request.getAfter())));
+
+        return coaches.map(coach -> ResponseMapper.ToCoachResponseMapper(coach));
+    }
+
+    private Specification<CoachEntity> searchSpecification(SearchCoachRequest request) {
+        return (root, query, builder) -> TrigramSearch.of(root, query, builder)
+                .contains("coachName", request.getCoachName())
+                .toPredicate();
+    }
+
     @Transactional
     public CoachResponse assignSeat(Long coachId, Long seatId) {            
         CoachEntity coach = coachRepository.findById(coachId)
@@ -191,9 +282,32 @@ public class CoachService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Assigning seat to coach failed");
         }
 
+        seatInventoryService.invalidateAll();
+
         return ResponseMapper.ToCoachResponseMapper(coach);
     }
 
+    @Transactional
+    public CoachResponse assignSeats(Long coachId, AssignSeatsRequest request) {
+        validationService.validate(request);
+
+        if (!coachRepository.existsById(coachId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Coach not found");
+        }
+
+        Set<Long> seatIds = new HashSet<>(request.getSeatIds());
+
+        if (seatRepository.countByIdIn(seatIds) != seatIds.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Seat not found");
+        }
+
+        coachRepository.attachSeats(List.of(coachId), seatIds);
+
+        seatInventoryService.invalidateAll();
+
+        return toCoachResponses(List.of(coachId)).get(0);
+    }
+
     @Transactional
     public CoachResponse removeSeat(Long coachId, Long seatId) {        
         CoachEntity coach = coachRepository.findById(coachId)
@@ -204,7 +318,20 @@ public class CoachService {
 
         coach.getSeats().remove(seat);
 
+        seatInventoryService.invalidateAll();
+
         return ResponseMapper.ToCoachResponseMapper(coach);
     }
 
+    // attachSeats clears the persistence context, so the coaches are read back with their new seats
+    private List<CoachResponse> toCoachResponses(List<Long> coachIds) {
+        Map<Long, CoachEntity> coaches = coachRepository.findAllById(coachIds)
+                                            .stream()
+                                            .collect(Collectors.toMap(CoachEntity::getId, Function.identity()));
+
+        return coachIds.stream()
+                .map(coachId -> ResponseMapper.ToCoachResponseMapper(coaches.get(coachId)))
+                .collect(Collectors.toList());
+    }
+
 }
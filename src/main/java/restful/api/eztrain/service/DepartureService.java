@@ -0,0 +1,227 @@
+package restful.api.eztrain.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.eztrain.cache.CacheInvalidationBus;
+import restful.api.eztrain.cache.ReferenceCaches;
+import restful.api.eztrain.mapper.ResponseMapper;
+import restful.api.eztrain.model.ScheduleResponse;
+import restful.api.eztrain.repository.ScheduleRepository;
+import restful.api.eztrain.repository.StationRepository;
+import restful.api.eztrain.timetable.Departure;
+import restful.api.eztrain.timetable.DepartureIndex;
+import restful.api.eztrain.timetable.StationDepartures;
+import restful.api.eztrain.transaction.AfterCommit;
+
+// Departure boards for the days from today up to departures.horizon-days are answered from day
+// buckets per origin station. The missing days a board needs are loaded together, with one query;
+// windows outside the horizon are queried directly and capped by the limit. Schedule
+// writes drop only the station and day they touch, on every node.
+@Service
+@Slf4j
+public class DepartureService {
+
+    private static final String DAYS_SEPARATOR = ":";
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${departures.max-limit:50}")
+    private Integer maxLimit;
+
+    @Value("${departures.horizon-days:90}")
+    private Integer horizonDays;
+
+    private final DepartureIndex index = new DepartureIndex();
+
+    private final Map<Long, Object> loadLocks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void subscribe() {
+        cacheInvalidationBus.subscribe(ReferenceCaches.DEPARTURES, this::receive);
+    }
+
+    public List<ScheduleResponse> getDepartures(String stationCode, LocalDate date) {
+        Long stationId = findStationId(stationCode);
+
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+
+        if (!isIndexed(date)) {
+            return toResponses(findInDatabase(stationId, from, to, Pageable.unpaged()));
+        }
+
+        return toResponses(load(stationId, date, date.plusDays(1)).between(from, to));
+    }
+
+    public List<ScheduleResponse> getNextDepartures(String stationCode, LocalDateTime after, Integer limit) {
+        if (limit == null || limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+
+        Long stationId = findStationId(stationCode);
+
+        int wanted = Math.min(limit, maxLimit);
+        LocalDate today = LocalDate.now();
+        LocalDate horizon = today.plusDays(horizonDays);
+
+        List<Departure> departures = new ArrayList<>();
+
+        if (after.toLocalDate().isBefore(today)) {
+            departures.addAll(findInDatabase(stationId, after, today.atStartOfDay(), PageRequest.of(0, wanted)));
+            after = today.atStartOfDay();
+        }
+
+        // the days are loaded a window at a time, doubling from one day, so a busy station stops
+        // after its first day or two instead of loading the whole horizon
+        int windowDays = 1;
+
+        while (departures.size() < wanted && after.toLocalDate().isBefore(horizon)) {
+            LocalDate until = after.toLocalDate().plusDays(windowDays);
+
+            if (until.isAfter(horizon)) {
+                until = horizon;
+            }
+
+            departures.addAll(load(stationId, after.toLocalDate(), until)
+                                .next(after, until.atStartOfDay(), wanted - departures.size()));
+            after = until.atStartOfDay();
+            windowDays *= 2;
+        }
+
+        if (departures.size() < wanted) {
+            departures.addAll(scheduleRepository.findNextDeparturesByOriginId(stationId, after, PageRequest.of(0, wanted - departures.size()))
+                                .stream()
+                                .map(Departure::of)
+                                .toList());
+        }
+
+        return toResponses(departures);
+    }
+
+    // a schedule write drops only the day buckets of its origin station
+    public void invalidate(Long stationId, Collection<LocalDate> days) {
+        AfterCommit.run(() -> {
+            index.invalidate(stationId, days);
+            cacheInvalidationBus.publish(ReferenceCaches.DEPARTURES, key(stationId, days));
+        });
+    }
+
+    public void invalidateStation(Long stationId) {
+        invalidate(stationId, null);
+    }
+
+    // trains and stations show up on the boards of other stations, so their writes drop everything
+    public void invalidate() {
+        AfterCommit.run(() -> {
+            index.invalidateAll();
+            cacheInvalidationBus.publish(ReferenceCaches.DEPARTURES, null);
+        });
+    }
+
+    // every node drops the days that have passed on its own
+    @Scheduled(cron = "${departures.prune-cron:0 0 0 * * *}")
+    public void prune() {
+        index.prune(LocalDate.now());
+    }
+
+    private StationDepartures load(Long stationId, LocalDate from, LocalDate to) {
+        StationDepartures current = index.get(stationId);
+
+        if (current.missing(from, to).isEmpty()) {
+            return current;
+        }
+
+        // one load per station at a time; boards of other stations are not held up
+        synchronized (loadLocks.computeIfAbsent(stationId, id -> new Object())) {
+            current = index.get(stationId);
+            List<LocalDate> missing = current.missing(from, to);
+
+            if (missing.isEmpty()) {
+                return current;
+            }
+
+            long version = index.version();
+            LocalDate first = missing.get(0);
+            LocalDate last = missing.get(missing.size() - 1).plusDays(1);
+
+            List<Departure> departures = findInDatabase(stationId, first.atStartOfDay(), last.atStartOfDay(), Pageable.unpaged());
+
+            log.debug("Loaded {} departures of station {} from {} to {}", departures.size(), stationId, first, last);
+
+            return index.put(stationId, version, first, last, departures);
+        }
+    }
+
+    private boolean isIndexed(LocalDate date) {
+        LocalDate today = LocalDate.now();
+
+        return !date.isBefore(today) && date.isBefore(today.plusDays(horizonDays));
+    }
+
+    private void receive(String key) {
+        if (key == null) {
+            index.invalidateAll();
+            return;
+        }
+
+        String[] parts = key.split(DAYS_SEPARATOR, 2);
+        Long stationId = Long.valueOf(parts[0]);
+
+        index.invalidate(stationId, parts.length < 2 ? null : Arrays.stream(parts[1].split(","))
+                                                                    .map(LocalDate::parse)
+                                                                    .toList());
+    }
+
+    private String key(Long stationId, Collection<LocalDate> days) {
+        if (days == null) {
+            return stationId.toString();
+        }
+
+        return stationId + DAYS_SEPARATOR + days.stream().map(LocalDate::toString).collect(Collectors.joining(","));
+    }
+
+    private Long findStationId(String stationCode) {
+        return stationRepository.findIdByCode(stationCode)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Station not found"));
+    }
+
+    private List<Departure> findInDatabase(Long stationId, LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return scheduleRepository.findDeparturesByOriginId(stationId, from, to, pageable)
+                .stream()
+                .map(Departure::of)
+                .toList();
+    }
+
+    private List<ScheduleResponse> toResponses(List<Departure> departures) {
+        return departures.stream()
+                .map(ResponseMapper::ToScheduleResponseMapper)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,121 @@
+package restful.api.eztrain.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+import restful.api.eztrain.export.ExportFormat;
+import restful.api.eztrain.export.ExportTable;
+import restful.api.eztrain.repository.PaymentRepository;
+import restful.api.eztrain.repository.PaymentRepository.PaymentExportRow;
+import restful.api.eztrain.repository.ScheduleRepository;
+import restful.api.eztrain.repository.ScheduleRepository.ScheduleExportRow;
+import restful.api.eztrain.repository.TicketRepository;
+import restful.api.eztrain.repository.TicketRepository.TicketExportRow;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.repository.UserRepository.UserExportRow;
+
+@Service
+@Slf4j
+public class ExportService {
+
+    private static final ExportTable<TicketExportRow> TICKETS = new ExportTable<TicketExportRow>()
+            .column("id", TicketExportRow::getId)
+            .column("bookingReference", TicketExportRow::getBookingReference)
+            .column("bookingStatus", TicketExportRow::getBookingStatus)
+            .column("price", TicketExportRow::getPrice)
+            .column("bookedAt", TicketExportRow::getBookedAt)
+            .column("checkedInAt", TicketExportRow::getCheckedInAt)
+            .column("userEmail", TicketExportRow::getUserEmail)
+            .column("trainName", TicketExportRow::getTrainName)
+            .column("scheduleId", TicketExportRow::getScheduleId)
+            .column("departureDatetime", TicketExportRow::getDepartureDatetime)
+            .column("origin", TicketExportRow::getOrigin)
+            .column("destination", TicketExportRow::getDestination)
+            .column("coachName", TicketExportRow::getCoachName)
+            .column("seatNumber", TicketExportRow::getSeatNumber);
+
+    private static final ExportTable<PaymentExportRow> PAYMENTS = new ExportTable<PaymentExportRow>()
+            .column("id", PaymentExportRow::getId)
+            .column("ticketId", PaymentExportRow::getTicketId)
+            .column("bookingReference", PaymentExportRow::getBookingReference)
+            .column("userEmail", PaymentExportRow::getUserEmail)
+            .column("paymentMethod", PaymentExportRow::getPaymentMethod)
+            .column("originalAmount", PaymentExportRow::getOriginalAmount)
+            .column("discountAmount", PaymentExportRow::getDiscountAmount)
+            .column("finalAmount", PaymentExportRow::getFinalAmount)
+            .column("paymentStatus", PaymentExportRow::getPaymentStatus)
+            .column("paidAt", PaymentExportRow::getPaidAt)
+            .column("voucherCode", PaymentExportRow::getVoucherCode);
+
+    private static final ExportTable<UserExportRow> USERS = new ExportTable<UserExportRow>()
+            .column("id", UserExportRow::getId)
+            .column("email", UserExportRow::getEmail)
+            .column("fullName", UserExportRow::getFullName)
+            .column("phoneNumber", UserExportRow::getPhoneNumber)
+            .column("isVerified", UserExportRow::getIsVerified)
+            .column("isActive", UserExportRow::getIsActive)
+            .column("createdAt", UserExportRow::getCreatedAt);
+
+    private static final ExportTable<ScheduleExportRow> SCHEDULES = new ExportTable<ScheduleExportRow>()
+            .column("id", ScheduleExportRow::getId)
+            .column("trainName", ScheduleExportRow::getTrainName)
+            .column("origin", ScheduleExportRow::getOrigin)
+            .column("destination", ScheduleExportRow::getDestination)
+            .column("departureDatetime", ScheduleExportRow::getDepartureDatetime)
+            .column("arrivalDatetime", ScheduleExportRow::getArrivalDatetime)
+            .column("status", ScheduleExportRow::getStatus);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // The transaction keeps the server-side cursor open while rows are written,
+    // and interface projections keep them out of the persistence context.
+    @Transactional(readOnly = true)
+    public void exportTickets(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<TicketExportRow> rows = ticketRepository.streamAllForExport()) {
+            log.info("Exported {} tickets", TICKETS.write(rows, format, out, objectMapper));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPayments(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamAllForExport()) {
+            log.info("Exported {} payments", PAYMENTS.write(rows, format, out, objectMapper));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUsers(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<UserExportRow> rows = userRepository.streamAllForExport()) {
+            log.info("Exported {} users", USERS.write(rows, format, out, objectMapper));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportSchedules(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ScheduleExportRow> rows = scheduleRepository.streamAllForExport()) {
+            log.info("Exported {} schedules", SCHEDULES.write(rows, format, out, objectMapper));
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package restful.api.eztrain.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.eztrain.cache.CacheInvalidationBus;
+import restful.api.eztrain.cache.ReferenceCaches;
+import restful.api.eztrain.fare.Fare;
+import restful.api.eztrain.fare.FareMatrix;
+import restful.api.eztrain.repository.RoutePriceRepository;
+import restful.api.eztrain.repository.RoutePriceRepository.FareRow;
+import restful.api.eztrain.transaction.AfterCommit;
+
+@Service
+@Slf4j
+public class FareService {
+
+    @Autowired
+    private RoutePriceRepository routePriceRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile FareMatrix matrix;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Object loading = new Object();
+
+    public Fare get(Long originId, Long destinationId, Long coachTypeId) {
+        return getMatrix().get(originId, destinationId, coachTypeId);
+    }
+
+    public List<Fare> find(String originCode, String destinationCode, String coachType) {
+        return getMatrix().find(originCode, destinationCode, coachType);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        cacheInvalidationBus.subscribe(ReferenceCaches.FARES, key -> {
+            if (key == null) {
+                reset();
+            } else {
+                refresh(Long.valueOf(key));
+            }
+        });
+    }
+
+    // for changes to stations and routes, which can touch any number of fares
+    public void invalidate() {
+        AfterCommit.run(() -> {
+            reset();
+            cacheInvalidationBus.publish(ReferenceCaches.FARES, null);
+        });
+    }
+
+    // for a route price that was created, changed or deleted; only that fare is read again
+    public void invalidate(Long routePriceId) {
+        AfterCommit.run(() -> {
+            refresh(routePriceId);
+            cacheInvalidationBus.publish(ReferenceCaches.FARES, routePriceId.toString());
+        });
+    }
+
+    private synchronized void reset() {
+        generation.incrementAndGet();
+        matrix = null;
+    }
+
+    // under the lock so that two changes of one fare land in order; readers keep the old matrix
+    private synchronized void refresh(Long routePriceId) {
+        generation.incrementAndGet();
+
+        if (matrix != null) {
+            List<FareRow> rows = routePriceRepository.findFaresByRoutePriceId(routePriceId);
+
+            matrix = matrix.with(routePriceId, rows.isEmpty() ? null : rows.get(0));
+        }
+    }
+
+    // only a node without any matrix waits here, and never for a change of a single fare
+    private FareMatrix getMatrix() {
+        FareMatrix current = matrix;
+
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (loading) {
+            current = matrix;
+
+            if (current != null) {
+                return current;
+            }
+
+            long loadedGeneration = generation.get();
+            FareMatrix loaded = FareMatrix.of(routePriceRepository.findAllFares());
+
+            // a change that lands while loading means the rows may already be stale,
+            // so the result is served once but not kept
+            synchronized (this) {
+                if (generation.get() == loadedGeneration) {
+                    matrix = loaded;
+                }
+            }
+
+            log.info("Fare matrix loaded with {} fares", loaded.size());
+            return loaded;
+        }
+    }
+
+}
@@ -0,0 +1,276 @@
+package restful.api.eztrain.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.eztrain.cache.CacheInvalidationBus;
+import restful.api.eztrain.cache.ReferenceCaches;
+import restful.api.eztrain.entity.StationEntity;
+import restful.api.eztrain.entity.TrainEntity;
+import restful.api.eztrain.journey.Connection;
+import restful.api.eztrain.journey.JourneyGraph;
+import restful.api.eztrain.model.JourneyLegResponse;
+import restful.api.eztrain.model.JourneyResponse;
+import restful.api.eztrain.model.SearchJourneyRequest;
+import restful.api.eztrain.repository.ScheduleRepository;
+import restful.api.eztrain.repository.StationRepository;
+import restful.api.eztrain.repository.TrainRepository;
+import restful.api.eztrain.transaction.AfterCommit;
+
+// Every node keeps its own graph. A change is applied locally once committed and announced on
+// the bus as "schedule:<id>", "route:<id>" or "train:<id>"; the other nodes reload the same rows.
+@Service
+@Slf4j
+public class JourneyPlannerService {
+
+    private static final String SCHEDULE = "schedule";
+
+    private static final String ROUTE = "route";
+
+    private static final String TRAIN = "train";
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private TrainRepository trainRepository;
+
+    @Autowired
+    private ValidationService validationService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${journey.max-transfers:3}")
+    private Integer maxTransfers;
+
+    @Value("${journey.min-connection-minutes:10}")
+    private Long minConnectionMinutes;
+
+    @Value("${journey.departure-window-hours:24}")
+    private Long departureWindowHours;
+
+    private volatile JourneyGraph graph = new JourneyGraph();
+
+    // the changes applied while a rebuild loads, so they can be applied again to the graph it
+    // builds; null when no rebuild is running
+    private Set<String> missed;
+
+    private final Object missedLock = new Object();
+
+    @PostConstruct
+    void subscribe() {
+        cacheInvalidationBus.subscribe(ReferenceCaches.JOURNEYS, this::receive);
+    }
+
+    // the rows are read outside the lock, and every change that lands meanwhile is applied to
+    // the old graph and again, reloaded from its rows, to the new one once it is in place
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (missedLock) {
+            missed = new LinkedHashSet<>();
+        }
+
+        List<Connection> connections = scheduleRepository.findConnectionsDepartingFrom(LocalDate.now().atStartOfDay())
+                                                        .stream()
+                                                        .map(Connection::of)
+                                                        .toList();
+
+        Set<String> changes;
+
+        synchronized (missedLock) {
+            graph = JourneyGraph.of(connections);
+            changes = missed;
+            missed = null;
+        }
+
+        changes.forEach(this::reload);
+        log.info("Journey graph rebuilt with {} connections", connections.size());
+    }
+
+    public List<JourneyResponse> plan(SearchJourneyRequest request) {
+        validationService.validate(request);
+
+        Long originId = stationRepository.findIdByCode(request.getOrigin())
+                                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Origin station not found"));
+
+        Long destinationId = stationRepository.findIdByCode(request.getDestination())
+                                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Destination station not found"));
+
+        if (originId.equals(destinationId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Origin and destination must be different");
+        }
+
+        LocalDateTime departAfter = request.getDepartAfter() != null ? request.getDepartAfter() : LocalDateTime.now();
+        int transfers = request.getMaxTransfers() != null ? Math.min(request.getMaxTransfers(), maxTransfers) : maxTransfers;
+
+        List<List<Connection>> journeys = graph.search(originId, destinationId, departAfter, Duration.ofHours(departureWindowHours),
+                                                        transfers, Duration.ofMinutes(minConnectionMinutes));
+
+        Set<Long> stationIds = new HashSet<>();
+        Set<Long> trainIds = new HashSet<>();
+
+        journeys.forEach(legs -> legs.forEach(leg -> {
+            stationIds.add(leg.getOriginId());
+            stationIds.add(leg.getDestinationId());
+            trainIds.add(leg.getTrainId());
+        }));
+
+        Map<Long, String> stations = stationRepository.findAllById(stationIds)
+                                        .stream()
+                                        .collect(Collectors.toMap(StationEntity::getId, StationEntity::getName));
+
+        Map<Long, String> trains = trainRepository.findAllById(trainIds)
+                                        .stream()
+                                        .collect(Collectors.toMap(TrainEntity::getId, TrainEntity::getName));
+
+        return journeys.stream()
+                .map(legs -> toJourneyResponse(legs, stations::get, trains::get))
+                .collect(Collectors.toList());
+    }
+
+    public void refreshSchedule(Long scheduleId) {
+        AfterCommit.run(() -> {
+            change(SCHEDULE, scheduleId, () -> loadSchedule(scheduleId));
+            announce(SCHEDULE, scheduleId);
+        });
+    }
+
+    public void removeSchedule(Long scheduleId) {
+        AfterCommit.run(() -> {
+            change(SCHEDULE, scheduleId, () -> graph.remove(scheduleId));
+            announce(SCHEDULE, scheduleId);
+        });
+    }
+
+    public void refreshRoute(Long routeId) {
+        AfterCommit.run(() -> {
+            change(ROUTE, routeId, () -> loadRoute(routeId));
+            announce(ROUTE, routeId);
+        });
+    }
+
+    public void removeRoute(Long routeId) {
+        AfterCommit.run(() -> {
+            change(ROUTE, routeId, () -> graph.removeRoute(routeId));
+            announce(ROUTE, routeId);
+        });
+    }
+
+    public void removeTrain(Long trainId) {
+        AfterCommit.run(() -> {
+            change(TRAIN, trainId, () -> graph.removeTrain(trainId));
+            announce(TRAIN, trainId);
+        });
+    }
+
+    // searches never depart in the past, so the connections of earlier days are dead weight
+    @Scheduled(cron = "${journey.prune-cron:0 0 0 * * *}")
+    public void prune() {
+        int pruned = graph.prune(LocalDate.now().atStartOfDay());
+        log.info("Journey graph pruned {} past connections", pruned);
+    }
+
+    private void loadSchedule(Long scheduleId) {
+        scheduleRepository.findConnectionByScheduleId(scheduleId)
+            .map(Connection::of)
+            .ifPresentOrElse(graph::put, () -> graph.remove(scheduleId));
+    }
+
+    // a route that is gone has no connections left, so the reload removes it
+    private void loadRoute(Long routeId) {
+        graph.replaceRoute(routeId, scheduleRepository
+                                        .findConnectionsByRouteId(routeId, LocalDate.now().atStartOfDay())
+                                        .stream()
+                                        .map(Connection::of)
+                                        .toList());
+    }
+
+    private void announce(String kind, Long id) {
+        cacheInvalidationBus.publish(ReferenceCaches.JOURNEYS, kind + ":" + id);
+    }
+
+    private void change(String kind, Long id, Runnable update) {
+        synchronized (missedLock) {
+            if (missed != null) {
+                missed.add(kind + ":" + id);
+            }
+        }
+
+        update.run();
+    }
+
+    private void receive(String key) {
+        if (key == null) {
+            rebuild();
+            return;
+        }
+
+        String[] parts = key.split(":", 2);
+
+        change(parts[0], Long.valueOf(parts[1]), () -> reload(key));
+    }
+
+    // a change of a schedule or route is read again from its rows, whatever it was
+    private void reload(String key) {
+        String[] parts = key.split(":", 2);
+        Long id = Long.valueOf(parts[1]);
+
+        switch (parts[0]) {
+            case SCHEDULE -> loadSchedule(id);
+            case ROUTE -> loadRoute(id);
+            case TRAIN -> graph.removeTrain(id);
+            default -> log.warn("Unknown journey graph change {}", key);
+        }
+    }
+
+    private JourneyResponse toJourneyResponse(List<Connection> legs, Function<Long, String> stations, Function<Long, String> trains) {
+        Connection first = legs.get(0);
+        Connection last = legs.get(legs.size() - 1);
+
+        List<JourneyLegResponse> legResponses = legs.stream()
+                                                    .map(leg -> JourneyLegResponse.builder()
+                                                            .scheduleId(leg.getScheduleId())
+                                                            .routeId(leg.getRouteId())
+                                                            .trainName(trains.apply(leg.getTrainId()))
+                                                            .origin(stations.apply(leg.getOriginId()))
+                                                            .destination(stations.apply(leg.getDestinationId()))
+                                                            .departureDatetime(leg.getDeparture())
+                                                            .arrivalDatetime(leg.getArrival())
+                                                            .tripDistance(leg.getTripDistance())
+                                                            .build())
+                                                    .collect(Collectors.toList());
+
+        return JourneyResponse.builder()
+                .departureDatetime(first.getDeparture())
+                .arrivalDatetime(last.getArrival())
+                .transfers(legs.size() - 1)
+                .totalDistance(legs.stream().mapToDouble(Connection::getTripDistance).sum())
+                .totalDuration(Duration.between(first.getDeparture(), last.getArrival()).toMinutes())
+                .legs(legResponses)
+                .build();
+    }
+
+}
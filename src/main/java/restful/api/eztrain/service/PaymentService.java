@@ -0,0 +1,327 @@
+package restful.api.eztrain.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.eztrain.entity.BookingStatus;
+import restful.api.eztrain.entity.PaymentEntity;
+import restful.api.eztrain.entity.PaymentStatus;
+import restful.api.eztrain.entity.TicketEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.mapper.ResponseMapper;
+import restful.api.eztrain.model.PaymentResponse;
+import restful.api.eztrain.payment.PaymentDeclinedException;
+import restful.api.eztrain.payment.PaymentGateway;
+import restful.api.eztrain.repository.PaymentRepository;
+import restful.api.eztrain.repository.VoucherRepository;
+import restful.api.eztrain.transaction.AfterCommit;
+import restful.api.eztrain.voucher.VoucherRedemption;
+
+// Payments are driven through authorize, capture and settle by a pool of workers, off the
+// booking request. Every step is committed before the next one starts, so a payment that was
+// interrupted is picked up again from the last state it reached. A node claims a payment in the
+// database for payment.lease milliseconds before every gateway call, so two nodes never drive the
+// same payment; a payment is only resumed elsewhere once its claim has run out.
+@Service
+@Slf4j
+public class PaymentService {
+
+    private static final List<String> UNFINISHED = List.of(PaymentStatus.PENDING.name(),
+                                                        PaymentStatus.AUTHORIZED.name(),
+                                                        PaymentStatus.CAPTURED.name());
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private VoucherService voucherService;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${payment.workers:4}")
+    private Integer workerCount;
+
+    @Value("${payment.max-attempts:5}")
+    private Integer maxAttempts;
+
+    @Value("${payment.retry-backoff:1000}")
+    private Long retryBackoff;
+
+    @Value("${payment.lease:30000}")
+    private Long lease;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate transactionTemplate;
+
+    private ScheduledThreadPoolExecutor workers;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        workers = new ScheduledThreadPoolExecutor(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "payment-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    // the discount of a voucher is taken off the tickets of the booking in order
+    public List<PaymentEntity> open(UserEntity user, String bookingId, List<TicketEntity> tickets, VoucherRedemption redemption) {
+        List<PaymentEntity> payments = new ArrayList<>();
+
+        double discountLeft = redemption != null ? redemption.getDiscountAmount() : 0.0;
+
+        for (TicketEntity ticket : tickets) {
+            double discount = Math.min(discountLeft, ticket.getPrice());
+            discountLeft -= discount;
+
+            PaymentEntity payment = new PaymentEntity();
+            payment.setPaymentMethod(paymentGateway.getName());
+            payment.setOriginalAmount(ticket.getPrice());
+            payment.setDiscountAmount(discount);
+            payment.setFinalAmount(ticket.getPrice() - discount);
+            payment.setPaymentStatus(PaymentStatus.PENDING.name());
+            payment.setBookingId(bookingId);
+            payment.setTicket(ticket);
+            payment.setUserEntity(user);
+
+            if (redemption != null) {
+                payment.setVoucherEntity(voucherRepository.getReferenceById(redemption.getVoucherId()));
+            }
+
+            payments.add(payment);
+        }
+
+        paymentRepository.saveAll(payments);
+
+        List<Long> paymentIds = payments.stream().map(PaymentEntity::getId).toList();
+
+        AfterCommit.run(() -> paymentIds.forEach(this::submit));
+
+        return payments;
+    }
+
+    @Transactional(readOnly = true)
+    public PaymentResponse get(Authentication authentication, Long paymentId) {
+        PaymentEntity payment = paymentRepository.findById(paymentId)
+                            .filter(p -> p.getUserEntity().getEmail().equals(authentication.getName()))
+                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found"));
+
+        return ResponseMapper.ToPaymentResponseMapper(payment);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${payment.resume-interval:60000}", fixedDelayString = "${payment.resume-interval:60000}")
+    public void resumeUnfinished() {
+        paymentRepository.findUnclaimedIdsByPaymentStatusIn(UNFINISHED, LocalDateTime.now()).forEach(this::submit);
+    }
+
+    private void submit(Long paymentId) {
+        if (inFlight.add(paymentId)) {
+            workers.execute(() -> process(paymentId, 1));
+        }
+    }
+
+    private void process(Long paymentId, int attempt) {
+        try {
+            while (advance(paymentId)) {
+                // every pass commits one more step
+            }
+
+            inFlight.remove(paymentId);
+        } catch (PaymentDeclinedException e) {
+            log.info("Payment {} declined: {}", paymentId, e.getMessage());
+            fail(paymentId);
+            inFlight.remove(paymentId);
+        } catch (RuntimeException e) {
+            if (attempt < maxAttempts && !workers.isShutdown()) {
+                log.warn("Payment {} attempt {} failed, retrying", paymentId, attempt, e);
+                workers.schedule(() -> process(paymentId, attempt + 1), retryBackoff * attempt, TimeUnit.MILLISECONDS);
+            } else {
+                // left in its current state for the next resume, on any node
+                log.error("Payment {} gave up after {} attempts", paymentId, attempt, e);
+                unclaim(paymentId);
+                inFlight.remove(paymentId);
+            }
+        }
+    }
+
+    // one gateway call and the state it leads to; false once the payment is final
+    private boolean advance(Long paymentId) {
+        if (!claim(paymentId)) {
+            return false;
+        }
+
+        PaymentEntity payment = paymentRepository.findById(paymentId).orElse(null);
+
+        if (payment == null) {
+            return false;
+        }
+
+        PaymentStatus status = PaymentStatus.valueOf(payment.getPaymentStatus());
+
+        switch (status) {
+            case PENDING -> {
+                String authorizationId = paymentGateway.authorize("PAY-" + paymentId, payment.getFinalAmount());
+                transition(paymentId, status, PaymentStatus.AUTHORIZED, p -> p.setGatewayReference(authorizationId));
+            }
+            case AUTHORIZED -> {
+                paymentGateway.capture(payment.getGatewayReference(), payment.getFinalAmount());
+                transition(paymentId, status, PaymentStatus.CAPTURED, p -> {});
+            }
+            case CAPTURED -> {
+                paymentGateway.settle(payment.getGatewayReference());
+                transition(paymentId, status, PaymentStatus.SETTLED, p -> {
+                    p.setPaidAt(LocalDateTime.now());
+                    p.getTicket().setBookingStatus(BookingStatus.PAID.name());
+                });
+            }
+            default -> {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // the row lock makes a step land once even when two nodes resume the same payment
+    private void transition(Long paymentId, PaymentStatus from, PaymentStatus to, Consumer<PaymentEntity> update) {
+        transactionTemplate.executeWithoutResult(transaction -> {
+            PaymentEntity payment = paymentRepository.findForUpdateById(paymentId).orElse(null);
+
+            if (payment == null || !from.name().equals(payment.getPaymentStatus()) || !nodeId.equals(payment.getClaimedBy())) {
+                return;
+            }
+
+            payment.setPaymentStatus(to.name());
+            update.accept(payment);
+
+            recordStatusChange(payment);
+        });
+    }
+
+    // committed on its own; false when the payment is final or another node's claim is still running
+    private boolean claim(Long paymentId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer claimed = transactionTemplate.execute(transaction -> paymentRepository.claim(paymentId, UNFINISHED, nodeId,
+                                                                        now, now.plusNanos(lease * 1_000_000)));
+
+        return claimed != null && claimed == 1;
+    }
+
+    private void unclaim(Long paymentId) {
+        transactionTemplate.executeWithoutResult(transaction -> paymentRepository.unclaim(paymentId, nodeId));
+    }
+
+    // a decline fails the whole booking: the unfinished payments of its other tickets stop at
+    // their next step, every seat is released, and the voucher redemption is handed back unless
+    // one of the tickets has already been paid for
+    private void fail(Long paymentId) {
+        transactionTemplate.executeWithoutResult(transaction -> {
+            PaymentEntity declined = paymentRepository.findById(paymentId).orElse(null);
+
+            if (declined == null) {
+                return;
+            }
+
+            List<PaymentEntity> payments = declined.getBookingId() != null
+                                            ? paymentRepository.findForUpdateByBookingId(declined.getBookingId())
+                                            : paymentRepository.findForUpdateById(paymentId).stream().toList();
+
+            if (payments.stream().noneMatch(payment -> payment.getId().equals(paymentId)
+                                                    && UNFINISHED.contains(payment.getPaymentStatus()))) {
+                return;
+            }
+
+            boolean paid = false;
+
+            for (PaymentEntity payment : payments) {
+                if (!UNFINISHED.contains(payment.getPaymentStatus())) {
+                    paid |= PaymentStatus.SETTLED.name().equals(payment.getPaymentStatus());
+                    continue;
+                }
+
+                TicketEntity ticket = payment.getTicket();
+
+                payment.setPaymentStatus(PaymentStatus.FAILED.name());
+                ticket.setBookingStatus(BookingStatus.CANCELLED.name());
+
+                seatInventoryService.releaseAfterCommit(ticket.getScheduleEntity().getId(),
+                                                        ticket.getCoachEntity().getId(),
+                                                        ticket.getSeatEntity().getId());
+
+                recordStatusChange(payment);
+            }
+
+            if (!paid && declined.getVoucherEntity() != null) {
+                voucherService.unredeem(declined.getVoucherEntity().getId());
+            }
+        });
+    }
+
+    // on the ticket's aggregate, so consumers see them in order after its TicketBooked
+    private void recordStatusChange(PaymentEntity payment) {
+        String status = payment.getPaymentStatus();
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("paymentId", payment.getId());
+        event.put("paymentStatus", status);
+        event.put("finalAmount", payment.getFinalAmount());
+        event.put("bookingStatus", payment.getTicket().getBookingStatus());
+
+        outboxService.record("Ticket", payment.getTicket().getId(),
+                            "Payment" + status.charAt(0) + status.substring(1).toLowerCase(), event);
+    }
+
+}
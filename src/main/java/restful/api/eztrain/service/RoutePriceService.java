@@ -2,7 +2,6 @@ package restful.api.eztrain.service;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,8 +18,8 @@ import org.springframework.web.server.ResponseStatusException;
 import restful.api.eztrain.entity.CoachTypeEntity;
 import restful.api.eztrain.entity.RouteEntity;
 import restful.api.eztrain.entity.RoutePriceEntity;
-import restful.api.eztrain.entity.StationEntity;
 import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.fare.Fare;
 import restful.api.eztrain.mapper.ResponseMapper;
 import restful.api.eztrain.model.RegisterRoutePriceRequest;
 import restful.api.eztrain.model.RoutePriceResponse;
@@ -29,14 +28,13 @@ import restful.api.eztrain.model.UpdateRoutePriceRequest;
 import restful.api.eztrain.repository.CoachTypeRepository;
 import restful.api.eztrain.repository.RoutePriceRepository;
 import restful.api.eztrain.repository.RouteRepository;
-import restful.api.eztrain.repository.StationRepository;
-import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.UserReferences;
 
 @Service
 public class RoutePriceService {
 
     @Autowired
-    UserRepository userRepository;
+    UserReferences userReferences;
 
     @Autowired
     RouteRepository routeRepository;
@@ -48,16 +46,16 @@ public class RoutePriceService {
     RoutePriceRepository routePriceRepository;
 
     @Autowired
-    StationRepository stationRepository;
+    ValidationService validationService;
 
     @Autowired
-    ValidationService validationService;
+    FareService fareService;
 
     @Transactional
     public RoutePriceResponse register(Authentication authentication, RegisterRoutePriceRequest request) {
         validationService.validate(request);
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));        
 
         RouteEntity route = routeRepository.findById(request.getRouteId())
@@ -82,6 +80,8 @@ public class RoutePriceService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Register route price failed");
         }
 
+        fareService.invalidate(routePrice.getId());
+
         return ResponseMapper.ToRoutePriceResponseMapper(routePrice);
     }
 
@@ -109,7 +109,7 @@ public class RoutePriceService {
 
     @Transactional
     public RoutePriceResponse update(Authentication authentication, UpdateRoutePriceRequest request, Long routePriceId) {
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
                             
         RoutePriceEntity routePrice = routePriceRepository.findById(routePriceId)
@@ -141,6 +141,8 @@ public class RoutePriceService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Update route price failed");
         }
 
+        fareService.invalidate(routePrice.getId());
+
         return ResponseMapper.ToRoutePriceResponseMapper(routePrice);
     } 
 
@@ -153,24 +155,22 @@ public class RoutePriceService {
             routePriceRepository.delete(routePrice);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Delete route prices failed");
-        }                                        
+        }
+
+        fareService.invalidate(routePrice.getId());
     }
 
-    @Transactional(readOnly = true)
     public Page<RoutePriceResponse> search(SearchRoutePriceRequest request) {
-        Pageable pageable = PageRequest.of(request.getPage(), request.getSize());        
-        Optional<StationEntity> origin = stationRepository.findByCode(request.getOrigin());        
-        Optional<StationEntity> destination = stationRepository.findByCode(request.getDestination());
-        Optional<RouteEntity> route = routeRepository.findByOriginAndDestination(origin.get(), destination.get());   
-        Optional<CoachTypeEntity> coachType = coachTypeRepository.findByName(request.getCoachType());       
-    
-        Page<RoutePriceEntity> routePrices = routePriceRepository.findByRouteEntityOrCoachTypeEntity(route.get(), coachType.get(), pageable);
-        List<RoutePriceResponse> responses = routePrices
-                                                    .getContent()
-                                                    .stream()
-                                                    .map(p -> ResponseMapper.ToRoutePriceResponseMapper(p))
-                                                    .collect(Collectors.toList());
-
-        return new PageImpl<>(responses, pageable, routePrices.getTotalElements());
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
+        List<Fare> fares = fareService.find(request.getOrigin(), request.getDestination(), request.getCoachType());
+
+        List<RoutePriceResponse> responses = fares
+                                                .stream()
+                                                .skip(pageable.getOffset())
+                                                .limit(pageable.getPageSize())
+                                                .map(fare -> ResponseMapper.ToRoutePriceResponseMapper(fare))
+                                                .collect(Collectors.toList());
+
+        return new PageImpl<>(responses, pageable, fares.size());
     }
 }
@@ -1,5 +1,6 @@
 package restful.api.eztrain.service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -10,6 +11,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -24,15 +27,16 @@ import restful.api.eztrain.model.RegisterRouteRequest;
 import restful.api.eztrain.model.RouteResponse;
 import restful.api.eztrain.model.SearchRouteRequest;
 import restful.api.eztrain.model.UpdateRouteRequest;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.repository.RouteRepository;
 import restful.api.eztrain.repository.StationRepository;
-import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.UserReferences;
 
 @Service
 public class RouteService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserReferences userReferences;
 
     @Autowired
     private StationRepository stationRepository;
@@ -43,11 +47,20 @@ public class RouteService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private JourneyPlannerService journeyPlannerService;
+
+    @Autowired
+    private FareService fareService;
+
+    @Autowired
+    private DepartureService departureService;
+
     @Transactional
     public RouteResponse register(Authentication authentication, RegisterRouteRequest request) {
         validationService.validate(request);
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         StationEntity origin = stationRepository.findById(request.getOriginId())
@@ -106,12 +119,15 @@ public class RouteService {
 
     @Transactional
     public RouteResponse update(Authentication authentication, UpdateRouteRequest request, Long routeId) {        
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));                
 
         RouteEntity route = routeRepository.findById(routeId)
                                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Route not found"));
 
+        // the schedules of a route sit on the board of its origin, before and after the change
+        departureService.invalidateStation(route.getOrigin().getId());
+
         if (Objects.nonNull(request.getOriginId())) {
             StationEntity origin = stationRepository.findById(request.getOriginId())
                                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Origin station not found"));
@@ -142,6 +158,10 @@ public class RouteService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Update route failed");
         }
 
+        journeyPlannerService.refreshRoute(routeId);
+        fareService.invalidate();
+        departureService.invalidateStation(route.getOrigin().getId());
+
         return ResponseMapper.ToRouteResponseMapper(route);
     }
 
@@ -154,7 +174,11 @@ public class RouteService {
             routeRepository.delete(route);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Delete route failed");
-        }                                        
+        }
+
+        journeyPlannerService.removeRoute(routeId);
+        fareService.invalidate();
+        departureService.invalidateStation(route.getOrigin().getId());
     }
 
     @Transactional(readOnly = true)
@@ -178,4 +202,30 @@ public class RouteService {
 
     }
 
+    @Transactional(readOnly = true)
+    public Window<RouteResponse> scroll(SearchRouteRequest request) {
+        Specification<RouteEntity> specification = (root, query, builder) -> null;
+
+        if (Objects.nonNull(request.getOrigin()) || Objects.nonNull(request.getDestination())) {
+            Optional<StationEntity> origin = stationRepository.findByCode(request.getOrigin());
+            Optional<StationEntity> destination = stationRepository.findByCode(request.getDestination());
+
+            if (origin.isEmpty() || destination.isEmpty()) {
+                return Window.from(new ArrayList<>(), index -> null, false);
+            }
+
+            specification = (root, query, builder) -> builder.or(
+                builder.equal(root.get("origin"), origin.get()),
+                builder.equal(root.get("destination"), destination.get())
+            );
+        }
+
+        Window<RouteEntity> routes = routeRepository.findBy(specification, query -> query
+                                                        .sortBy(KeysetCursor.SORT)
+                                                        .limit(request.getSize())
+                                                        .scroll(KeysetCursor.decode(request.getAfter())));
+
+        return routes.map(route -> ResponseMapper.ToRouteResponseMapper(route));
+    }
+
 }
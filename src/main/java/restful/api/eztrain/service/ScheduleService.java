@@ -0,0 +1,281 @@
+package restful.api.eztrain.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import restful.api.eztrain.entity.RouteEntity;
+import restful.api.eztrain.entity.ScheduleEntity;
+import restful.api.eztrain.entity.ScheduleStatus;
+import restful.api.eztrain.entity.TrainEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.mapper.ResponseMapper;
+import restful.api.eztrain.model.BulkRegisterScheduleRequest;
+import restful.api.eztrain.model.RegisterScheduleRequest;
+import restful.api.eztrain.model.ScheduleResponse;
+import restful.api.eztrain.model.UpdateScheduleRequest;
+import restful.api.eztrain.repository.RouteRepository;
+import restful.api.eztrain.repository.ScheduleRepository;
+import restful.api.eztrain.repository.TicketRepository;
+import restful.api.eztrain.repository.TrainRepository;
+import restful.api.eztrain.security.UserReferences;
+import restful.api.eztrain.timetable.Departure;
+
+@Service
+public class ScheduleService {
+
+    @Autowired
+    private UserReferences userReferences;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TrainRepository trainRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private ValidationService validationService;
+
+    @Autowired
+    private JourneyPlannerService journeyPlannerService;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private DepartureService departureService;
+
+    @Transactional
+    public ScheduleResponse register(Authentication authentication, RegisterScheduleRequest request) {
+        validationService.validate(request);
+
+        UserEntity user = userReferences.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        TrainEntity train = trainRepository.findById(request.getTrainId())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Train not found"));
+
+        RouteEntity route = routeRepository.findById(request.getRouteId())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Route not found"));
+
+        ScheduleEntity schedule = toSchedule(request, train, route, user);
+
+        try {
+            scheduleRepository.save(schedule);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Register schedule failed");
+        }
+
+        journeyPlannerService.refreshSchedule(schedule.getId());
+        invalidateDepartures(schedule);
+
+        return ResponseMapper.ToScheduleResponseMapper(schedule);
+    }
+
+    // one statement per lookup for the whole import; the inserts are batched
+    @Transactional
+    public List<ScheduleResponse> registerBulk(Authentication authentication, BulkRegisterScheduleRequest request) {
+        validationService.validate(request);
+
+        UserEntity user = userReferences.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        Set<Long> trainIds = request.getSchedules().stream().map(RegisterScheduleRequest::getTrainId).collect(Collectors.toSet());
+        Map<Long, TrainEntity> trains = trainRepository.findAllById(trainIds)
+                                            .stream()
+                                            .collect(Collectors.toMap(TrainEntity::getId, Function.identity()));
+
+        if (trains.size() != trainIds.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Train not found");
+        }
+
+        Set<Long> routeIds = request.getSchedules().stream().map(RegisterScheduleRequest::getRouteId).collect(Collectors.toSet());
+        Map<Long, RouteEntity> routes = routeRepository.findAllById(routeIds)
+                                            .stream()
+                                            .collect(Collectors.toMap(RouteEntity::getId, Function.identity()));
+
+        if (routes.size() != routeIds.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Route not found");
+        }
+
+        List<ScheduleEntity> schedules = new ArrayList<>();
+
+        for (RegisterScheduleRequest scheduleRequest : request.getSchedules()) {
+            schedules.add(toSchedule(scheduleRequest, trains.get(scheduleRequest.getTrainId()), 
+                                    routes.get(scheduleRequest.getRouteId()), user));
+        }
+
+        try {
+            scheduleRepository.saveAll(schedules);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Register schedule failed");
+        }
+
+        routeIds.forEach(journeyPlannerService::refreshRoute);
+        schedules.stream()
+                .collect(Collectors.groupingBy(schedule -> schedule.getRouteEntity().getOrigin().getId(),
+                            Collectors.mapping(schedule -> schedule.getDepartureDatetime().toLocalDate(), Collectors.toSet())))
+                .forEach(departureService::invalidate);
+
+        return schedules.stream()
+                .map(ResponseMapper::ToScheduleResponseMapper)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public ScheduleResponse get(Long scheduleId) {
+        return scheduleRepository.findDepartureById(scheduleId)
+                .map(Departure::of)
+                .map(ResponseMapper::ToScheduleResponseMapper)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Schedule not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ScheduleResponse> getAllSchedules(int page, int size) {
+        return scheduleRepository.findAllDepartures(PageRequest.of(page, size))
+                .map(Departure::of)
+                .map(ResponseMapper::ToScheduleResponseMapper);
+    }
+
+    @Transactional
+    public ScheduleResponse update(Authentication authentication, UpdateScheduleRequest request, Long scheduleId) {
+        validationService.validate(request);
+
+        UserEntity user = userReferences.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        ScheduleEntity schedule = scheduleRepository.findById(scheduleId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Schedule not found"));
+
+        // the board the schedule leaves has to drop it as well
+        invalidateDepartures(schedule);
+
+        boolean trainChanged = false;
+
+        if (Objects.nonNull(request.getTrainId()) && !request.getTrainId().equals(schedule.getTrainEntity().getId())) {
+            TrainEntity train = trainRepository.findById(request.getTrainId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Train not found"));
+
+            schedule.setTrainEntity(train);
+            trainChanged = true;
+        }
+
+        if (Objects.nonNull(request.getRouteId())) {
+            RouteEntity route = routeRepository.findById(request.getRouteId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Route not found"));
+
+            schedule.setRouteEntity(route);
+        }
+
+        if (Objects.nonNull(request.getDepartureDatetime())) {
+            schedule.setDepartureDatetime(request.getDepartureDatetime());
+        }
+
+        if (Objects.nonNull(request.getArrivalDatetime())) {
+            schedule.setArrivalDatetime(request.getArrivalDatetime());
+        }
+
+        if (Objects.nonNull(request.getStatus())) {
+            schedule.setStatus(request.getStatus());
+        }
+
+        checkTimes(schedule.getDepartureDatetime(), schedule.getArrivalDatetime());
+
+        schedule.setUserEntity(user);
+
+        try {
+            scheduleRepository.save(schedule);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Update schedule failed");
+        }
+
+        // the seat map of a schedule is laid out from the coaches of its train
+        if (trainChanged) {
+            seatInventoryService.invalidateAll();
+        }
+
+        journeyPlannerService.refreshSchedule(scheduleId);
+        invalidateDepartures(schedule);
+
+        return ResponseMapper.ToScheduleResponseMapper(schedule);
+    }
+
+    @Transactional
+    public void delete(Long scheduleId) {
+        ScheduleEntity schedule = scheduleRepository.findById(scheduleId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Schedule not found"));
+
+        // tickets cascade with their schedule; a schedule that sold any is cancelled instead
+        if (ticketRepository.existsByScheduleEntityId(scheduleId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Schedule has tickets, cancel it instead");
+        }
+
+        try {
+            scheduleRepository.delete(schedule);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Delete schedule failed");
+        }
+
+        seatInventoryService.invalidateAll();
+        journeyPlannerService.removeSchedule(scheduleId);
+        invalidateDepartures(schedule);
+    }
+
+    private ScheduleEntity toSchedule(RegisterScheduleRequest request, TrainEntity train, RouteEntity route, UserEntity user) {
+        LocalDateTime arrival = request.getArrivalDatetime();
+
+        if (arrival == null) {
+            arrival = request.getDepartureDatetime().plusMinutes(Math.round(route.getTripDuration() * 60));
+        }
+
+        checkTimes(request.getDepartureDatetime(), arrival);
+
+        ScheduleEntity schedule = new ScheduleEntity();
+        schedule.setTrainEntity(train);
+        schedule.setRouteEntity(route);
+        schedule.setDepartureDatetime(request.getDepartureDatetime());
+        schedule.setArrivalDatetime(arrival);
+        schedule.setStatus(ScheduleStatus.SCHEDULED.name());
+        schedule.setUserEntity(user);
+
+        return schedule;
+    }
+
+    private void invalidateDepartures(ScheduleEntity schedule) {
+        Long originId = schedule.getRouteEntity().getOrigin().getId();
+
+        if (schedule.getDepartureDatetime() == null) {
+            departureService.invalidateStation(originId);
+            return;
+        }
+
+        departureService.invalidate(originId, List.of(schedule.getDepartureDatetime().toLocalDate()));
+    }
+
+    private void checkTimes(LocalDateTime departure, LocalDateTime arrival) {
+        if (departure != null && arrival != null && !arrival.isAfter(departure)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Arrival must be after departure");
+        }
+    }
+
+}
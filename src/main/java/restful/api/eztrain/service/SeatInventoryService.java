@@ -0,0 +1,414 @@
+package restful.api.eztrain.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.eztrain.cache.CacheInvalidationBus;
+import restful.api.eztrain.cache.ReferenceCaches;
+import restful.api.eztrain.entity.BookingStatus;
+import restful.api.eztrain.inventory.CoachSeatMap;
+import restful.api.eztrain.inventory.ScheduleSeatMap;
+import restful.api.eztrain.inventory.SeatHold;
+import restful.api.eztrain.model.AdjacentSeatsResponse;
+import restful.api.eztrain.model.CoachAvailabilityResponse;
+import restful.api.eztrain.model.ScheduleAvailabilityResponse;
+import restful.api.eztrain.model.SeatResponse;
+import restful.api.eztrain.repository.ScheduleRepository.SeatLayoutRow;
+import restful.api.eztrain.repository.ScheduleRepository;
+import restful.api.eztrain.repository.TicketRepository.BookedSeatRow;
+import restful.api.eztrain.repository.TicketRepository;
+import restful.api.eztrain.transaction.AfterCommit;
+
+// Every node keeps seat bitmaps of the schedules it has served. A node that changes a schedule's
+// seats announces it on the bus once committed, and the other nodes drop that schedule and load it
+// again on its next read. Holds are rows of seat_holds, so any node can confirm, cancel or sweep a
+// hold taken on another one; the tables stay the authority behind the bitmaps.
+@Service
+@Slf4j
+public class SeatInventoryService {
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate ownTransaction;
+
+    private final Map<Long, ScheduleSeatMap> inventories = new ConcurrentHashMap<>();
+
+    // bumped by every drop, so a load that raced one is handed out but not kept
+    private final AtomicLong versions = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        cacheInvalidationBus.subscribe(ReferenceCaches.SEAT_INVENTORY, this::receive);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long version = versions.incrementAndGet();
+        List<SeatLayoutRow> layout = scheduleRepository.findSeatLayoutDepartingFrom(LocalDate.now().atStartOfDay());
+        List<BookedSeatRow> bookedSeats = ticketRepository.findBookedSeatsDepartingFrom(LocalDate.now().atStartOfDay(), BookingStatus.CANCELLED.name());
+
+        Map<Long, ScheduleSeatMap> rebuilt = new ConcurrentHashMap<>();
+
+        layout.stream()
+            .collect(Collectors.groupingBy(SeatLayoutRow::getScheduleId))
+            .forEach((scheduleId, rows) -> rebuilt.put(scheduleId, ScheduleSeatMap.of(scheduleId, rows)));
+
+        for (BookedSeatRow bookedSeat : bookedSeats) {
+            ScheduleSeatMap seatMap = rebuilt.get(bookedSeat.getScheduleId());
+
+            if (seatMap != null) {
+                seatMap.book(bookedSeat.getCoachId(), bookedSeat.getSeatId());
+            }
+        }
+
+        jdbcTemplate.query("SELECT schedule_id, coach_id, seat_id FROM seat_holds", (RowCallbackHandler) row -> {
+            ScheduleSeatMap seatMap = rebuilt.get(row.getLong("schedule_id"));
+
+            if (seatMap != null) {
+                seatMap.hold(row.getLong("coach_id"), List.of(row.getLong("seat_id")));
+            }
+        });
+
+        synchronized (inventories) {
+            if (versions.get() == version) {
+                inventories.clear();
+                inventories.putAll(rebuilt);
+            }
+        }
+
+        log.info("Seat inventory rebuilt for {} schedules", rebuilt.size());
+    }
+
+    public ScheduleAvailabilityResponse getAvailability(Long scheduleId) {
+        ScheduleSeatMap seatMap = getSeatMap(scheduleId);
+
+        synchronized (seatMap) {
+            List<CoachAvailabilityResponse> coaches = seatMap.getCoaches()
+                                                        .stream()
+                                                        .map(coach -> CoachAvailabilityResponse.builder()
+                                                                .coachId(coach.getCoachId())
+                                                                .coachName(coach.getCoachName())
+                                                                .coachNumber(coach.getCoachNumber())
+                                                                .coachType(coach.getCoachType())
+                                                                .totalSeats(coach.getTotalSeats())
+                                                                .availableSeats(coach.getAvailableSeats())
+                                                                .build())
+                                                        .collect(Collectors.toList());
+
+            return ScheduleAvailabilityResponse.builder()
+                    .scheduleId(scheduleId)
+                    .availableSeatsByCoachType(seatMap.getAvailableSeatsByCoachType())
+                    .coaches(coaches)
+                    .build();
+        }
+    }
+
+    public AdjacentSeatsResponse findAdjacentSeats(Long scheduleId, Integer count, String coachType) {
+        if (count == null || count < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Seat count must be at least 1");
+        }
+
+        ScheduleSeatMap seatMap = getSeatMap(scheduleId);
+
+        synchronized (seatMap) {
+            for (CoachSeatMap coach : seatMap.getCoaches()) {
+                if (coachType != null && !coachType.equalsIgnoreCase(coach.getCoachType())) {
+                    continue;
+                }
+
+                int start = coach.findFreeRun(count);
+
+                if (start < 0) {
+                    continue;
+                }
+
+                List<SeatResponse> seats = new ArrayList<>(count);
+
+                for (int i = start; i < start + count; i++) {
+                    seats.add(SeatResponse.builder()
+                                .id(coach.getSeatId(i))
+                                .seatNumber(coach.getSeatNumber(i))
+                                .build());
+                }
+
+                return AdjacentSeatsResponse.builder()
+                        .scheduleId(scheduleId)
+                        .coachId(coach.getCoachId())
+                        .coachName(coach.getCoachName())
+                        .coachType(coach.getCoachType())
+                        .seats(seats)
+                        .build();
+            }
+        }
+
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No adjacent seats available");
+    }
+
+    public boolean isBooked(Long scheduleId, Long coachId, Long seatId) {
+        ScheduleSeatMap seatMap = getSeatMap(scheduleId);
+
+        synchronized (seatMap) {
+            CoachSeatMap coach = seatMap.getCoach(coachId);
+
+            return coach == null || coach.isBooked(seatId);
+        }
+    }
+
+    public boolean hasSeat(Long scheduleId, Long coachId, Long seatId) {
+        CoachSeatMap coach = getSeatMap(scheduleId).getCoach(coachId);
+
+        return coach != null && coach.hasSeat(seatId);
+    }
+
+    public boolean release(Long scheduleId, Long coachId, Long seatId) {
+        return getSeatMap(scheduleId).release(coachId, seatId);
+    }
+
+    // the bitmap turns most conflicts away without a round trip; the row insert decides the rest,
+    // including holds taken on other nodes that this one has not heard of yet
+    public boolean hold(SeatHold hold) {
+        ScheduleSeatMap seatMap = getSeatMap(hold.getScheduleId());
+
+        if (!seatMap.hold(hold.getCoachId(), hold.getSeatIds())) {
+            return false;
+        }
+
+        boolean stored = false;
+
+        try {
+            stored = store(hold);
+        } finally {
+            if (!stored) {
+                seatMap.releaseHold(hold.getCoachId(), hold.getSeatIds());
+            }
+        }
+
+        if (stored) {
+            announce(hold.getScheduleId());
+        }
+
+        return stored;
+    }
+
+    // deleting the rows is the single point that decides who owns the hold, so a confirm, a cancel
+    // and the sweepers of every node can never both act on it; inside a transaction that rolls
+    // back, the hold comes back with its rows
+    public SeatHold claimHold(String holdId, String email) {
+        return deleteHold("DELETE FROM seat_holds WHERE hold_id = ? AND email = ?", holdId, email);
+    }
+
+    // for a claimed hold
+    public void releaseHold(SeatHold hold) {
+        releaseHold(hold.getScheduleId(), hold.getCoachId(), hold.getSeatIds());
+    }
+
+    // for a hold claimed in the current transaction; a rollback puts its rows back, so the seats stay held
+    public void confirmHoldAfterCommit(SeatHold hold) {
+        AfterCommit.run(() -> {
+            ScheduleSeatMap seatMap = inventories.get(hold.getScheduleId());
+
+            if (seatMap != null) {
+                seatMap.confirmHold(hold.getCoachId(), hold.getSeatIds());
+            }
+
+            announce(hold.getScheduleId());
+        });
+    }
+
+    // every node sweeps, one hold per statement: its rows go together or not at all, and a sweep
+    // that meets a confirm of the same hold waits for it and then finds nothing left to delete
+    @Scheduled(fixedDelayString = "${booking.hold-sweep-interval:5000}")
+    public void releaseExpiredHolds() {
+        long now = System.currentTimeMillis();
+
+        for (String holdId : jdbcTemplate.queryForList("SELECT DISTINCT hold_id FROM seat_holds WHERE expired_at < ?", String.class, now)) {
+            SeatHold hold = deleteHold("DELETE FROM seat_holds WHERE hold_id = ? AND expired_at < ?", holdId, now);
+
+            if (hold != null) {
+                releaseHold(hold);
+            }
+        }
+    }
+
+    public void releaseAfterCommit(Long scheduleId, Long coachId, Long seatId) {
+        AfterCommit.run(() -> {
+            release(scheduleId, coachId, seatId);
+            announce(scheduleId);
+        });
+    }
+
+    public void invalidateAll() {
+        AfterCommit.run(() -> {
+            drop(null);
+            cacheInvalidationBus.publish(ReferenceCaches.SEAT_INVENTORY, null);
+        });
+    }
+
+    // committed on its own; a seat that is booked, or held by a live hold, leaves its row out and
+    // the whole hold is rolled back
+    private boolean store(SeatHold hold) {
+        Boolean stored = ownTransaction.execute(transaction -> {
+            int rows = jdbcTemplate.update("""
+                    INSERT INTO seat_holds (schedule_id, coach_id, seat_id, hold_id, email, voucher_code, expired_at)
+                    SELECT ?, ?, seat.id, ?, ?, ?, ?
+                    FROM unnest(?::bigint[]) AS seat(id)
+                    WHERE NOT EXISTS (
+                        SELECT 1 FROM tickets t
+                        WHERE t.schedule_id = ? AND t.coach_id = ? AND t.seat_id = seat.id
+                        AND (t.booking_status IS NULL OR t.booking_status <> ?)
+                    )
+                    ON CONFLICT (schedule_id, coach_id, seat_id) DO UPDATE
+                    SET hold_id = EXCLUDED.hold_id, email = EXCLUDED.email,
+                        voucher_code = EXCLUDED.voucher_code, expired_at = EXCLUDED.expired_at
+                    WHERE seat_holds.expired_at < ?
+                    """, hold.getScheduleId(), hold.getCoachId(), hold.getHoldId(), hold.getEmail(), hold.getVoucherCode(),
+                    hold.getExpiredAt(), hold.getSeatIds().toArray(Long[]::new), hold.getScheduleId(), hold.getCoachId(),
+                    BookingStatus.CANCELLED.name(), System.currentTimeMillis());
+
+            if (rows == hold.getSeatIds().size()) {
+                return true;
+            }
+
+            transaction.setRollbackOnly();
+            return false;
+        });
+
+        return Boolean.TRUE.equals(stored);
+    }
+
+    // all rows of a hold share its schedule, coach, owner and expiry
+    private SeatHold deleteHold(String delete, Object... args) {
+        return jdbcTemplate.query(delete + " RETURNING hold_id, schedule_id, coach_id, seat_id, email, voucher_code, expired_at", rows -> {
+            SeatHold.SeatHoldBuilder hold = null;
+            List<Long> seatIds = new ArrayList<>();
+
+            while (rows.next()) {
+                seatIds.add(rows.getLong("seat_id"));
+                hold = SeatHold.builder()
+                            .holdId(rows.getString("hold_id"))
+                            .scheduleId(rows.getLong("schedule_id"))
+                            .coachId(rows.getLong("coach_id"))
+                            .email(rows.getString("email"))
+                            .expiredAt(rows.getLong("expired_at"))
+                            .voucherCode(rows.getString("voucher_code"));
+            }
+
+            return hold == null ? null : hold.seatIds(seatIds).build();
+        }, args);
+    }
+
+    // a schedule this node has not loaded picks the change up from the tables when it does
+    private void releaseHold(Long scheduleId, Long coachId, List<Long> seatIds) {
+        ScheduleSeatMap seatMap = inventories.get(scheduleId);
+
+        if (seatMap != null) {
+            seatMap.releaseHold(coachId, seatIds);
+        }
+
+        announce(scheduleId);
+    }
+
+    private void announce(Long scheduleId) {
+        cacheInvalidationBus.publish(ReferenceCaches.SEAT_INVENTORY, scheduleId.toString());
+    }
+
+    private void receive(String key) {
+        drop(key == null ? null : Long.valueOf(key));
+    }
+
+    // null drops every schedule
+    private void drop(Long scheduleId) {
+        synchronized (inventories) {
+            versions.incrementAndGet();
+
+            if (scheduleId == null) {
+                inventories.clear();
+            } else {
+                inventories.remove(scheduleId);
+            }
+        }
+    }
+
+    // the queries run outside the map, so a slow load never blocks reads of other schedules
+    private ScheduleSeatMap getSeatMap(Long scheduleId) {
+        ScheduleSeatMap seatMap = inventories.get(scheduleId);
+
+        if (seatMap != null) {
+            return seatMap;
+        }
+
+        long version = versions.get();
+        ScheduleSeatMap loaded = load(scheduleId);
+
+        if (loaded == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Schedule not found");
+        }
+
+        synchronized (inventories) {
+            if (versions.get() != version) {
+                return loaded;
+            }
+
+            seatMap = inventories.putIfAbsent(scheduleId, loaded);
+        }
+
+        return seatMap != null ? seatMap : loaded;
+    }
+
+    private ScheduleSeatMap load(Long scheduleId) {
+        List<SeatLayoutRow> layout = scheduleRepository.findSeatLayoutByScheduleId(scheduleId);
+
+        if (layout.isEmpty() && !scheduleRepository.existsById(scheduleId)) {
+            return null;
+        }
+
+        ScheduleSeatMap seatMap = ScheduleSeatMap.of(scheduleId, layout);
+
+        for (BookedSeatRow bookedSeat : ticketRepository.findBookedSeatsByScheduleId(scheduleId, BookingStatus.CANCELLED.name())) {
+            seatMap.book(bookedSeat.getCoachId(), bookedSeat.getSeatId());
+        }
+
+        jdbcTemplate.query("SELECT coach_id, seat_id FROM seat_holds WHERE schedule_id = ?",
+                            (RowCallbackHandler) row -> seatMap.hold(row.getLong("coach_id"), List.of(row.getLong("seat_id"))),
+                            scheduleId);
+
+        return seatMap;
+    }
+
+}
@@ -2,7 +2,9 @@ package restful.api.eztrain.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +12,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
@@ -17,22 +20,24 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import jakarta.persistence.criteria.Predicate;
 import restful.api.eztrain.entity.SeatEntity;
 import restful.api.eztrain.entity.UserEntity;
 import restful.api.eztrain.mapper.ResponseMapper;
 import restful.api.eztrain.model.RegisterSeatRequest;
 import restful.api.eztrain.model.SearchSeatRequest;
+import restful.api.eztrain.model.SeatLayoutRequest;
 import restful.api.eztrain.model.SeatResponse;
 import restful.api.eztrain.model.UpdateSeatRequest;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.repository.SeatRepository;
-import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.search.TrigramSearch;
+import restful.api.eztrain.security.UserReferences;
 
 @Service
 public class SeatService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserReferences userReferences;
 
     @Autowired
     private SeatRepository seatRepository;
@@ -40,11 +45,14 @@ public class SeatService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
     @Transactional
     public SeatResponse register(Authentication authentication, RegisterSeatRequest request) {
         validationService.validate(request);
         
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         if (seatRepository.findBySeatNumber(request.getSeatNumber()).isPresent()) {
@@ -64,6 +72,57 @@ public class SeatService {
         return ResponseMapper.ToSeatResponseMapper(seat);
     }
 
+    @Transactional
+    public List<SeatResponse> registerLayout(Authentication authentication, SeatLayoutRequest request) {
+        validationService.validate(request);
+
+        UserEntity user = userReferences.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        return provisionLayout(user, request)
+                .stream()
+                .map(seat -> ResponseMapper.ToSeatResponseMapper(seat))
+                .collect(Collectors.toList());
+    }
+
+    // Returns the seats of the layout in row then column order, creating only the missing
+    // seat numbers; one lookup plus batched inserts regardless of the layout size.
+    @Transactional
+    public List<SeatEntity> provisionLayout(UserEntity user, SeatLayoutRequest request) {
+        List<String> seatNumbers = new ArrayList<>();
+
+        for (int row = 1; row <= request.getRows(); row++) {
+            for (char column : request.getColumns().toCharArray()) {
+                seatNumbers.add(row + String.valueOf(column));
+            }
+        }
+
+        Map<String, SeatEntity> seats = seatRepository.findAllBySeatNumberIn(seatNumbers)
+                                            .stream()
+                                            .collect(Collectors.toMap(SeatEntity::getSeatNumber, Function.identity(), (first, second) -> first));
+
+        List<SeatEntity> created = new ArrayList<>();
+
+        for (String seatNumber : seatNumbers) {
+            if (!seats.containsKey(seatNumber)) {
+                SeatEntity seat = new SeatEntity();
+                seat.setSeatNumber(seatNumber);
+                seat.setUserEntity(user);
+
+                seats.put(seatNumber, seat);
+                created.add(seat);
+            }
+        }
+
+        try {
+            seatRepository.saveAll(created);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Register seat layout failed");
+        }
+
+        return seatNumbers.stream().map(seats::get).collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public SeatResponse get(Long seatId) {        
         SeatEntity seat = seatRepository.findById(seatId)
@@ -88,7 +147,7 @@ public class SeatService {
     
     @Transactional
     public SeatResponse update(Authentication authentication, UpdateSeatRequest request, Long seatId) {        
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         SeatEntity seat = seatRepository.findById(seatId)
@@ -106,6 +165,8 @@ public class SeatService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Update seat failed");
         }
 
+        seatInventoryService.invalidateAll();
+
         return ResponseMapper.ToSeatResponseMapper(seat);
     }
 
@@ -119,22 +180,14 @@ public class SeatService {
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Delete seat failed");
         }
+
+        seatInventoryService.invalidateAll();
     }
 
     @SuppressWarnings("null")
     @Transactional(readOnly = true)
     public Page<SeatResponse> search(SearchSeatRequest request) {
-        Specification<SeatEntity> specification = (root, query, builder) -> {
-            List<Predicate> predicates = new ArrayList<>();                    
-
-            if (Objects.nonNull(request.getSeatNumber())) {
-                predicates.add(builder.or(                    
-                    builder.like(root.get("seatNumber"), "%"+request.getSeatNumber()+"%")
-                ));
-            }
-
-            return query.where(predicates.toArray(new Predicate[]{})).getRestriction();
-        };
+        Specification<SeatEntity> specification = searchSpecification(request);
 
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
         Page<SeatEntity> seats = seatRepository.findAll(specification, pageable);        
@@ -146,4 +199,20 @@ public class SeatService {
 
         return new PageImpl<>(seatResponses, pageable, seats.getTotalElements());
     }
+
+    @Transactional(readOnly = true)
+    public Window<SeatResponse> scroll(SearchSeatRequest request) {
+        Window<SeatEntity> seats = seatRepository.findBy(searchSpecification(request), query -> query
+                                                        .sortBy(KeysetCursor.SORT)
+                                                        .limit(request.getSize())
+                                                        .scroll(KeysetCursor.decode(request.getAfter())));
+
+        return seats.map(seat -> ResponseMapper.ToSeatResponseMapper(seat));
+    }
+
+    private Specification<SeatEntity> searchSpecification(SearchSeatRequest request) {
+        return (root, query, builder) -> TrigramSearch.of(root, query, builder)
+                .contains("seatNumber", request.getSeatNumber())
+                .toPredicate();
+    }
 }
@@ -0,0 +1,62 @@
+package restful.api.eztrain.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.eztrain.autocomplete.StationTrie;
+import restful.api.eztrain.cache.CacheInvalidationBus;
+import restful.api.eztrain.cache.ReferenceCaches;
+import restful.api.eztrain.model.StationResponse;
+import restful.api.eztrain.repository.StationRepository;
+import restful.api.eztrain.transaction.AfterCommit;
+
+@Service
+@Slf4j
+public class StationAutocompleteService {
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${autocomplete.max-results:10}")
+    private Integer maxResults;
+
+    private volatile StationTrie trie = StationTrie.empty();
+
+    // synchronized so that a rebuild triggered by a later commit never gets overwritten by an older one
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        StationTrie rebuilt = StationTrie.of(stationRepository.findAllStationResponses(), maxResults);
+
+        trie = rebuilt;
+        log.info("Station trie rebuilt with {} stations", rebuilt.size());
+    }
+
+    @PostConstruct
+    void subscribe() {
+        cacheInvalidationBus.subscribe(ReferenceCaches.STATION_AUTOCOMPLETE, key -> rebuild());
+    }
+
+    public void refresh() {
+        AfterCommit.run(() -> {
+            rebuild();
+            cacheInvalidationBus.publish(ReferenceCaches.STATION_AUTOCOMPLETE, null);
+        });
+    }
+
+    public List<StationResponse> complete(String query, Integer limit) {
+        int size = limit != null ? Math.min(limit, maxResults) : maxResults;
+
+        return trie.complete(query, size);
+    }
+
+}
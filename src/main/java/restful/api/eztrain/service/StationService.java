@@ -1,6 +1,5 @@
 package restful.api.eztrain.service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -10,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
@@ -17,7 +17,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import jakarta.persistence.criteria.Predicate;
 import restful.api.eztrain.entity.StationEntity;
 import restful.api.eztrain.entity.UserEntity;
 import restful.api.eztrain.mapper.ResponseMapper;
@@ -25,14 +24,16 @@ import restful.api.eztrain.model.RegisterStationRequest;
 import restful.api.eztrain.model.SearchStationRequest;
 import restful.api.eztrain.model.StationResponse;
 import restful.api.eztrain.model.UpdateStationRequest;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.repository.StationRepository;
-import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.search.TrigramSearch;
+import restful.api.eztrain.security.UserReferences;
 
 @Service
 public class StationService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserReferences userReferences;
 
     @Autowired
     private StationRepository stationRepository;
@@ -40,11 +41,20 @@ public class StationService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private FareService fareService;
+
+    @Autowired
+    private StationAutocompleteService stationAutocompleteService;
+
+    @Autowired
+    private DepartureService departureService;
+
     @Transactional
     public StationResponse register(Authentication authentication, RegisterStationRequest request) {
         validationService.validate(request);
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));        
 
         if (stationRepository.findByCode(request.getCode()).isPresent()) {
@@ -65,6 +75,8 @@ public class StationService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Register station failed");
         }
 
+        stationAutocompleteService.refresh();
+
         return ResponseMapper.ToStationResponseMapper(station);
     }
 
@@ -92,7 +104,7 @@ public class StationService {
 
     @Transactional
     public StationResponse update(Authentication authentication, UpdateStationRequest request, Long stationId) {
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         StationEntity station = stationRepository.findById(stationId)
@@ -120,7 +132,11 @@ public class StationService {
             stationRepository.save(station);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Update station failed");
-        }        
+        }
+
+        fareService.invalidate();
+        stationAutocompleteService.refresh();
+        departureService.invalidate();
 
         return ResponseMapper.ToStationResponseMapper(station);
     }
@@ -134,41 +150,17 @@ public class StationService {
             stationRepository.delete(station);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Delete station failed");
-        }        
+        }
+
+        fareService.invalidate();
+        stationAutocompleteService.refresh();
+        departureService.invalidate();
     }
 
     @SuppressWarnings("null")
     @Transactional(readOnly = true)
     public Page<StationResponse> search(SearchStationRequest request) {        
-        Specification<StationEntity> specification = (root, query, builder) -> {
-            List<Predicate> predicates = new ArrayList<>();            
-
-            if (Objects.nonNull(request.getCode())) {
-                predicates.add(builder.or(
-                    builder.like(root.get("code"), "%"+request.getCode()+"%")                    
-                ));
-            }
-            
-            if (Objects.nonNull(request.getName())) {
-                predicates.add(builder.or(                    
-                    builder.like(root.get("name"), "%"+request.getName()+"%")
-                ));
-            }
-
-            if (Objects.nonNull(request.getCity())) {
-                predicates.add(builder.or(                    
-                    builder.like(root.get("city"), "%"+request.getCity()+"%")
-                ));
-            }
-
-            if (Objects.nonNull(request.getProvince())) {
-                predicates.add(builder.or(                    
-                    builder.like(root.get("province"), "%"+request.getProvince()+"%")
-                ));
-            }
-
-            return query.where(predicates.toArray(new Predicate[]{})).getRestriction();
-        };
+        Specification<StationEntity> specification = searchSpecification(request);
 
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
         Page<StationEntity> stations = stationRepository.findAll(specification, pageable);
@@ -180,4 +172,23 @@ public class StationService {
 
         return new PageImpl<>(stationResponses, pageable, stations.getTotalElements());
     }
+
+    @Transactional(readOnly = true)
+    public Window<StationResponse> scroll(SearchStationRequest request) {
+        Window<StationEntity> stations = stationRepository.findBy(searchSpecification(request), query -> query
+                                                        .sortBy(KeysetCursor.SORT)
+                                                        .limit(request.getSize())
+                                                        .scroll(KeysetCursor.decode(request.getAfter())));
+
+        return stations.map(station -> ResponseMapper.ToStationResponseMapper(station));
+    }
+
+    private Specification<StationEntity> searchSpecification(SearchStationRequest request) {
+        return (root, query, builder) -> TrigramSearch.of(root, query, builder)
+                .contains("code", request.getCode())
+                .contains("name", request.getName())
+                .contains("city", request.getCity())
+                .contains("province", request.getProvince())
+                .toPredicate();
+    }
 }
@@ -2,6 +2,7 @@ package restful.api.eztrain.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -10,6 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
@@ -17,7 +19,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import jakarta.persistence.criteria.Predicate;
 import restful.api.eztrain.entity.CoachEntity;
 import restful.api.eztrain.entity.TrainEntity;
 import restful.api.eztrain.entity.UserEntity;
@@ -26,15 +27,18 @@ import restful.api.eztrain.model.RegisterTrainRequest;
 import restful.api.eztrain.model.SearchTrainRequest;
 import restful.api.eztrain.model.TrainResponse;
 import restful.api.eztrain.model.UpdateTrainRequest;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.repository.CoachRepository;
+import restful.api.eztrain.repository.TrainRepository.TrainCoachRow;
 import restful.api.eztrain.repository.TrainRepository;
-import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.search.TrigramSearch;
+import restful.api.eztrain.security.UserReferences;
 
 @Service
 public class TrainService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserReferences userReferences;
 
     @Autowired
     private TrainRepository trainRepository;
@@ -45,11 +49,20 @@ public class TrainService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private JourneyPlannerService journeyPlannerService;
+
+    @Autowired
+    private DepartureService departureService;
+
     @Transactional
     public TrainResponse register(Authentication authentication, RegisterTrainRequest request) {
         validationService.validate(request);
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));        
 
         if (trainRepository.findByName(request.getName()).isPresent()) {
@@ -85,18 +98,14 @@ public class TrainService {
         Pageable pageable = PageRequest.of(page, size);
         Page<TrainEntity> trains = trainRepository.findAll(pageable);
 
-        List<TrainResponse> trainResponses = trains
-                                            .getContent()
-                                            .stream()
-                                            .map(p -> ResponseMapper.ToTrainResponseMapper(p))
-                                            .collect(Collectors.toList()); 
+        List<TrainResponse> trainResponses = toTrainResponses(trains.getContent());
 
         return new PageImpl<>(trainResponses, pageable, trains.getTotalElements());
     }
 
     @Transactional
     public TrainResponse update(Authentication authentication, UpdateTrainRequest request, Long trainId) {
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userReferences.findByEmail(authentication.getName())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         TrainEntity train = trainRepository.findById(trainId)
@@ -126,6 +135,8 @@ public class TrainService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Update train failed");
         }        
 
+        departureService.invalidate();
+
         return ResponseMapper.ToTrainResponseMapper(train);
     }
 
@@ -139,46 +150,42 @@ public class TrainService {
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Delete train failed");
         }
+
+        seatInventoryService.invalidateAll();
+        journeyPlannerService.removeTrain(trainId);
+        departureService.invalidate();
     }
 
     @SuppressWarnings("null")
     @Transactional(readOnly = true)
     public Page<TrainResponse> search(SearchTrainRequest request) {
-        Specification<TrainEntity> specification = (root, query, builder) -> {
-            List<Predicate> predicates = new ArrayList<>();            
-            
-            if (Objects.nonNull(request.getName())) {
-                predicates.add(builder.or(                    
-                    builder.like(root.get("name"), "%"+request.getName()+"%")
-                ));
-            }
-
-            if (Objects.nonNull(request.getTrainType())) {
-                predicates.add(builder.or(                    
-                    builder.like(root.get("trainType"), "%"+request.getTrainType()+"%")
-                ));
-            }
-
-            if (Objects.nonNull(request.getOperator())) {
-                predicates.add(builder.or(                    
-                    builder.like(root.get("operator"), "%"+request.getOperator()+"%")
-                ));
-            }
-
-            return query.where(predicates.toArray(new Predicate[]{})).getRestriction();
-        };
+        Specification<TrainEntity> specification = searchSpecification(request);
 
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
         Page<TrainEntity> trains = trainRepository.findAll(specification, pageable);
-        List<TrainResponse> trainResponses = trains
-                                                    .getContent()
-                                                    .stream()
-                                                    .map(train -> ResponseMapper.ToTrainResponseMapper(train))
-                                                    .collect(Collectors.toList());
+        List<TrainResponse> trainResponses = toTrainResponses(trains.getContent());
 
         return new PageImpl<>(trainResponses, pageable, trains.getTotalElements());
     }
 
+    @Transactional(readOnly = true)
+    public Window<TrainResponse> scroll(SearchTrainRequest request) {
+        Window<TrainEntity> trains = trainRepository.findBy(searchSpecification(request), query -> query
+                                                        .sortBy(KeysetCursor.SORT)
+                                                        .limit(request.getSize())
+                                                        .scroll(KeysetCursor.decode(request.getAfter())));
+
+        return KeysetCursor.map(trains, toTrainResponses(trains.getContent()));
+    }
+
+    private Specification<TrainEntity> searchSpecification(SearchTrainRequest request) {
+        return (root, query, builder) -> TrigramSearch.of(root, query, builder)
+                .contains("name", request.getName())
+                .contains("trainType", request.getTrainType())
+                .contains("operator", request.getOperator())
+                .toPredicate();
+    }
+
     @Transactional
     public TrainResponse assignCoach(Long trainId, Long coachId) {        
         TrainEntity train = trainRepository.findById(trainId)
@@ -195,6 +202,8 @@ public class TrainService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Assigning coach to train failed");
         }
 
+        seatInventoryService.invalidateAll();
+
         return ResponseMapper.ToTrainResponseMapper(train);
     }
 
@@ -208,6 +217,26 @@ public class TrainService {
         
         train.getCoaches().remove(coach);        
 
+        seatInventoryService.invalidateAll();
+
         return ResponseMapper.ToTrainResponseMapper(train);
     }
+
+    // coach names for the whole page come from one projection query instead of a lazy load per train
+    private List<TrainResponse> toTrainResponses(List<TrainEntity> trains) {
+        if (trains.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, List<String>> coaches = trainRepository.findCoachNamesByTrainIds(trains.stream().map(TrainEntity::getId).toList())
+                                            .stream()
+                                            .collect(Collectors.groupingBy(
+                                                TrainCoachRow::getTrainId, 
+                                                Collectors.mapping(TrainCoachRow::getCoachName, Collectors.toList())));
+
+        return trains.stream()
+                .map(train -> ResponseMapper.ToTrainResponseMapper(train, coaches.getOrDefault(train.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
 }
@@ -1,7 +1,11 @@
 package restful.api.eztrain.service;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -10,6 +14,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -23,8 +29,11 @@ import restful.api.eztrain.mapper.ResponseMapper;
 import restful.api.eztrain.model.RegisterUserRequest;
 import restful.api.eztrain.model.UpdateUserRequest;
 import restful.api.eztrain.model.UserResponse;
+import restful.api.eztrain.pagination.KeysetCursor;
 import restful.api.eztrain.repository.RoleRepository;
 import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.repository.UserRepository.UserRoleRow;
+import restful.api.eztrain.repository.UserRepository.UserRow;
 
 @Service
 public class UserService {
@@ -41,6 +50,9 @@ public class UserService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private OutboxService outboxService;
+
     @Transactional
     public UserResponse register(RegisterUserRequest request) {
         validationService.validate(request);
@@ -61,6 +73,12 @@ public class UserService {
 
         userRepository.save(user);        
 
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("email", user.getEmail());
+        event.put("role", role.getName());
+
+        outboxService.record("User", user.getId(), "UserRegistered", event);
+
         return ResponseMapper.ToUserResponseMapper(user);
     }
 
@@ -107,15 +125,35 @@ public class UserService {
     @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<UserEntity> users = userRepository.findAll(pageable);
+        Page<UserRow> users = userRepository.findAllUserRows(pageable);
+
+        Map<Long, List<String>> roles = users.isEmpty() 
+                                            ? new HashMap<>()
+                                            : userRepository.findRoleNamesByUserIds(users.getContent().stream().map(UserRow::getId).toList())
+                                                .stream()
+                                                .collect(Collectors.groupingBy(
+                                                    UserRoleRow::getUserId, 
+                                                    Collectors.mapping(UserRoleRow::getRoleName, Collectors.toList())));
 
         List<UserResponse> userResponses = users
                                             .getContent()
                                             .stream()
-                                            .map(p -> ResponseMapper.ToUserResponseMapper(p))
+                                            .map(p -> ResponseMapper.ToUserResponseMapper(p, roles.getOrDefault(p.getId(), new ArrayList<>())))
                                             .collect(Collectors.toList()); 
 
         return new PageImpl<>(userResponses, pageable, users.getTotalElements());
     }
+
+    @Transactional(readOnly = true)
+    public Window<UserResponse> scrollUsers(String after, int size) {
+        Specification<UserEntity> specification = (root, query, builder) -> null;
+
+        Window<UserEntity> users = userRepository.findBy(specification, query -> query
+                                                        .sortBy(KeysetCursor.SORT)
+                                                        .limit(size)
+                                                        .scroll(KeysetCursor.decode(after)));
+
+        return users.map(user -> ResponseMapper.ToUserResponseMapper(user));
+    }
     
 }
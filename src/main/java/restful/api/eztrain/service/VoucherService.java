@@ -0,0 +1,269 @@
+package restful.api.eztrain.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.entity.VoucherEntity;
+import restful.api.eztrain.mapper.ResponseMapper;
+import restful.api.eztrain.model.RegisterVoucherRequest;
+import restful.api.eztrain.model.VoucherResponse;
+import restful.api.eztrain.repository.VoucherRepository;
+import restful.api.eztrain.security.UserReferences;
+import restful.api.eztrain.voucher.VoucherCounter;
+import restful.api.eztrain.voucher.VoucherRedemption;
+import restful.api.eztrain.voucher.VoucherRule;
+
+// Vouchers are validated against the cached voucher rule. A capped voucher can only be redeemed
+// with a permit this node has leased from reserved_count, and reserved_count never passes
+// max_redemptions, so the nodes together cannot over-redeem. Permits of a node that dies are lost.
+@Service
+@Slf4j
+public class VoucherService {
+
+    @Autowired
+    private UserReferences userReferences;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private ValidationService validationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${voucher.lease-size:50}")
+    private Integer leaseSize;
+
+    private final Map<Long, VoucherCounter> counters = new ConcurrentHashMap<>();
+
+    private TransactionTemplate ownTransaction;
+
+    @PostConstruct
+    public void init() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public VoucherResponse register(Authentication authentication, RegisterVoucherRequest request) {
+        validationService.validate(request);
+
+        UserEntity user = userReferences.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        if (voucherRepository.findByCode(request.getCode()).isPresent()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Voucher already registered");
+        }
+
+        if (request.getValidFrom() != null && request.getValidUntil() != null && request.getValidUntil().isBefore(request.getValidFrom())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Voucher validity ends before it starts");
+        }
+
+        VoucherEntity voucher = new VoucherEntity();
+        voucher.setCode(request.getCode());
+        voucher.setDiscountAmount(request.getDiscountAmount());
+        voucher.setMinimumAmount(request.getMinimumAmount());
+        voucher.setValidFrom(request.getValidFrom());
+        voucher.setValidUntil(request.getValidUntil());
+        voucher.setMaxRedemptions(request.getMaxRedemptions());
+        voucher.setReservedCount(0);
+        voucher.setRedeemedCount(0);
+        voucher.setIsActive(true);
+        voucher.setUserEntity(user);
+
+        try {
+            voucherRepository.save(voucher);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Register voucher failed");
+        }
+
+        return ResponseMapper.ToVoucherResponseMapper(voucher);
+    }
+
+    public VoucherResponse get(String code) {
+        return ResponseMapper.ToVoucherResponseMapper(findUsable(code));
+    }
+
+    // rejects unknown, inactive and expired codes early, before anything is reserved
+    public void check(String code) {
+        findUsable(code);
+    }
+
+    // the redemption is handed back if the surrounding transaction rolls back
+    public VoucherRedemption redeem(String code, Double amount) {
+        VoucherRule voucher = findUsable(code);
+
+        if (amount < voucher.getMinimumAmount()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Voucher requires a minimum amount of " + voucher.getMinimumAmount());
+        }
+
+        VoucherCounter counter = null;
+
+        if (voucher.getMaxRedemptions() != null) {
+            counter = counters.computeIfAbsent(voucher.getId(), VoucherCounter::new);
+
+            if (!acquire(counter)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Voucher fully redeemed");
+            }
+
+            releaseOnRollback(counter);
+        }
+
+        return new VoucherRedemption(voucher.getId(), voucher.getCode(), Math.min(voucher.getDiscountAmount(), amount));
+    }
+
+    // in the caller's transaction; the permit goes back to the voucher row rather than to a node,
+    // since the booking may have been redeemed on another one
+    public void unredeem(Long voucherId) {
+        jdbcTemplate.update("""
+                UPDATE vouchers SET redeemed_count = COALESCE(redeemed_count, 0) - 1, reserved_count = reserved_count - 1
+                WHERE id = ? AND max_redemptions IS NOT NULL
+                """, voucherId);
+    }
+
+    @Scheduled(fixedDelayString = "${voucher.flush-interval:1000}")
+    public void flush() {
+        List<Object[]> updates = new ArrayList<>();
+        List<VoucherCounter> flushed = new ArrayList<>();
+
+        for (VoucherCounter counter : counters.values()) {
+            int redemptions = counter.drainUnflushed();
+
+            if (redemptions != 0) {
+                updates.add(new Object[] { redemptions, counter.getVoucherId() });
+                flushed.add(counter);
+            }
+        }
+
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate("UPDATE vouchers SET redeemed_count = COALESCE(redeemed_count, 0) + ? WHERE id = ?", updates);
+        } catch (RuntimeException e) {
+            log.warn("Could not flush {} voucher counters, retrying on the next flush", updates.size(), e);
+
+            for (int i = 0; i < flushed.size(); i++) {
+                flushed.get(i).restoreUnflushed((Integer) updates.get(i)[0]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+
+        List<Object[]> returns = new ArrayList<>();
+
+        for (VoucherCounter counter : counters.values()) {
+            int permits = counter.drainAvailable();
+
+            if (permits > 0) {
+                returns.add(new Object[] { permits, counter.getVoucherId() });
+            }
+        }
+
+        if (!returns.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate("UPDATE vouchers SET reserved_count = reserved_count - ? WHERE id = ?", returns);
+            } catch (RuntimeException e) {
+                log.warn("Could not return leased voucher permits", e);
+            }
+        }
+    }
+
+    private VoucherRule findUsable(String code) {
+        VoucherRule voucher = voucherRepository.findRuleByCode(code)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Voucher not found"));
+
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!Boolean.TRUE.equals(voucher.getIsActive())
+                || (voucher.getValidFrom() != null && now.isBefore(voucher.getValidFrom()))
+                || (voucher.getValidUntil() != null && now.isAfter(voucher.getValidUntil()))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Voucher is not valid");
+        }
+
+        return voucher;
+    }
+
+    private boolean acquire(VoucherCounter counter) {
+        if (counter.tryAcquire()) {
+            return true;
+        }
+
+        // one lease per node at a time; the others wait for its permits instead of queueing on the row
+        synchronized (counter) {
+            while (!counter.tryAcquire()) {
+                int leased = lease(counter.getVoucherId());
+
+                if (leased == 0) {
+                    return false;
+                }
+
+                counter.lease(leased);
+            }
+
+            return true;
+        }
+    }
+
+    // committed on its own, so permits stay reserved even if the booking that needed them rolls back
+    private int lease(Long voucherId) {
+        List<Integer> leased = ownTransaction.execute(transaction -> jdbcTemplate.queryForList("""
+                WITH claim AS (
+                    SELECT id, LEAST(?, max_redemptions - COALESCE(reserved_count, 0)) AS permits
+                    FROM vouchers WHERE id = ? FOR UPDATE
+                )
+                UPDATE vouchers v SET reserved_count = COALESCE(v.reserved_count, 0) + claim.permits
+                FROM claim
+                WHERE v.id = claim.id AND claim.permits > 0
+                RETURNING claim.permits
+                """, Integer.class, leaseSize, voucherId));
+
+        return leased == null || leased.isEmpty() ? 0 : leased.get(0);
+    }
+
+    private void releaseOnRollback(VoucherCounter counter) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    counter.release();
+                }
+            }
+        });
+    }
+
+}
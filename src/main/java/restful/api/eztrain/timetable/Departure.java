@@ -0,0 +1,65 @@
+package restful.api.eztrain.timetable;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import restful.api.eztrain.repository.ScheduleRepository.DepartureRow;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class Departure {
+
+    private final Long scheduleId;
+
+    private final Long trainId;
+
+    private final String trainName;
+
+    private final Long routeId;
+
+    private final Long originId;
+
+    private final String originCode;
+
+    private final String origin;
+
+    private final Long destinationId;
+
+    private final String destinationCode;
+
+    private final String destination;
+
+    private final LocalDateTime departure;
+
+    private final LocalDateTime arrival;
+
+    private final String status;
+
+    public static Departure of(DepartureRow row) {
+        LocalDateTime arrival = row.getArrivalDatetime();
+
+        if (arrival == null && row.getDepartureDatetime() != null) {
+            arrival = row.getDepartureDatetime().plusMinutes(Math.round(row.getTripDuration() * 60));
+        }
+
+        return Departure.builder()
+                .scheduleId(row.getScheduleId())
+                .trainId(row.getTrainId())
+                .trainName(row.getTrainName())
+                .routeId(row.getRouteId())
+                .originId(row.getOriginId())
+                .originCode(row.getOriginCode())
+                .origin(row.getOrigin())
+                .destinationId(row.getDestinationId())
+                .destinationCode(row.getDestinationCode())
+                .destination(row.getDestination())
+                .departure(row.getDepartureDatetime())
+                .arrival(arrival)
+                .status(row.getStatus())
+                .build();
+    }
+
+}
@@ -0,0 +1,76 @@
+package restful.api.eztrain.timetable;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Day buckets of departures per origin station. Every station is an immutable snapshot that is
+// swapped as a whole, so reads take no locks, and loads and invalidations only touch the station
+// and days involved. Every invalidation takes a version; a load that started before an
+// invalidation of its station is handed back to its caller but not kept, because its rows may
+// already be stale.
+public class DepartureIndex {
+
+    private final Map<Long, StationDepartures> stations = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private volatile long clearedAt;
+
+    public StationDepartures get(Long stationId) {
+        return stations.getOrDefault(stationId, StationDepartures.EMPTY);
+    }
+
+    // taken before the rows of a load are read
+    public long version() {
+        return versions.get();
+    }
+
+    public StationDepartures put(Long stationId, long version, LocalDate from, LocalDate to, List<Departure> departures) {
+        StationDepartures[] loaded = new StationDepartures[1];
+
+        stations.compute(stationId, (id, current) -> {
+            StationDepartures base = current != null ? current : StationDepartures.EMPTY;
+            loaded[0] = base.with(from, to, departures);
+
+            return isStale(stationId, version) ? current : loaded[0];
+        });
+
+        return loaded[0];
+    }
+
+    // null days drop the whole station
+    public void invalidate(Long stationId, Collection<LocalDate> days) {
+        invalidatedAt.put(stationId, versions.incrementAndGet());
+
+        stations.computeIfPresent(stationId, (id, current) -> {
+            StationDepartures kept = days == null ? StationDepartures.EMPTY : current.without(days);
+
+            return kept.isEmpty() ? null : kept;
+        });
+    }
+
+    public void invalidateAll() {
+        clearedAt = versions.incrementAndGet();
+        stations.clear();
+    }
+
+    public void prune(LocalDate today) {
+        stations.replaceAll((id, current) -> current.from(today));
+        stations.values().removeIf(StationDepartures::isEmpty);
+    }
+
+    public int size() {
+        return stations.values().stream().mapToInt(StationDepartures::size).sum();
+    }
+
+    private boolean isStale(Long stationId, long version) {
+        return clearedAt > version || invalidatedAt.getOrDefault(stationId, 0L) > version;
+    }
+
+}
@@ -0,0 +1,134 @@
+package restful.api.eztrain.timetable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// The departures of one origin station, one bucket per loaded day, sorted by time inside a bucket.
+// A day that was loaded without departures has an empty bucket, a day that was never loaded has
+// none. Never changed once built; loads and invalidations build a new one.
+public class StationDepartures {
+
+    private static final Comparator<Departure> DEPARTURE_ORDER = Comparator
+                                                                    .comparing(Departure::getDeparture)
+                                                                    .thenComparing(Departure::getScheduleId);
+
+    static final StationDepartures EMPTY = new StationDepartures(Collections.emptyNavigableMap());
+
+    private final NavigableMap<LocalDate, List<Departure>> days;
+
+    private StationDepartures(NavigableMap<LocalDate, List<Departure>> days) {
+        this.days = days;
+    }
+
+    // the days in [from, to) that have no bucket yet
+    public List<LocalDate> missing(LocalDate from, LocalDate to) {
+        List<LocalDate> missing = new ArrayList<>();
+
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            if (!days.containsKey(day)) {
+                missing.add(day);
+            }
+        }
+
+        return missing;
+    }
+
+    // every departure in [from, to) must be in the list
+    StationDepartures with(LocalDate from, LocalDate to, List<Departure> departures) {
+        NavigableMap<LocalDate, List<Departure>> loaded = new TreeMap<>(days);
+
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            loaded.put(day, new ArrayList<>());
+        }
+
+        for (Departure departure : departures) {
+            loaded.get(departure.getDeparture().toLocalDate()).add(departure);
+        }
+
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            List<Departure> bucket = loaded.get(day);
+            bucket.sort(DEPARTURE_ORDER);
+            loaded.put(day, Collections.unmodifiableList(bucket));
+        }
+
+        return new StationDepartures(loaded);
+    }
+
+    StationDepartures without(Collection<LocalDate> dropped) {
+        NavigableMap<LocalDate, List<Departure>> kept = new TreeMap<>(days);
+        kept.keySet().removeAll(dropped);
+
+        return new StationDepartures(kept);
+    }
+
+    StationDepartures from(LocalDate first) {
+        return new StationDepartures(new TreeMap<>(days.tailMap(first, true)));
+    }
+
+    boolean isEmpty() {
+        return days.isEmpty();
+    }
+
+    int size() {
+        return days.values().stream().mapToInt(List::size).sum();
+    }
+
+    // departures in [from, to); the days in between must be loaded
+    public List<Departure> between(LocalDateTime from, LocalDateTime to) {
+        List<Departure> result = new ArrayList<>();
+
+        for (List<Departure> bucket : days.subMap(from.toLocalDate(), true, to.toLocalDate(), true).values()) {
+            for (int i = firstAtOrAfter(bucket, from); i < bucket.size() && bucket.get(i).getDeparture().isBefore(to); i++) {
+                result.add(bucket.get(i));
+            }
+        }
+
+        return result;
+    }
+
+    // at most limit departures at or after after and before until
+    public List<Departure> next(LocalDateTime after, LocalDateTime until, int limit) {
+        List<Departure> result = new ArrayList<>(limit);
+
+        for (List<Departure> bucket : days.subMap(after.toLocalDate(), true, until.toLocalDate(), true).values()) {
+            for (int i = firstAtOrAfter(bucket, after); i < bucket.size() && result.size() < limit; i++) {
+                if (!bucket.get(i).getDeparture().isBefore(until)) {
+                    return result;
+                }
+
+                result.add(bucket.get(i));
+            }
+
+            if (result.size() == limit) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    private int firstAtOrAfter(List<Departure> bucket, LocalDateTime time) {
+        int low = 0;
+        int high = bucket.size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (bucket.get(middle).getDeparture().isBefore(time)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+}
@@ -0,0 +1,60 @@
+package restful.api.eztrain.voucher;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+
+// Redemptions of one capped voucher on this node. Permits are leased from the reserved_count of
+// the voucher row in blocks, so a redemption is a compare-and-set here instead of a row lock in
+// Postgres; redemptions are written back as one relative update per flush.
+public class VoucherCounter {
+
+    @Getter
+    private final Long voucherId;
+
+    private final AtomicInteger available = new AtomicInteger();
+
+    private final AtomicInteger unflushed = new AtomicInteger();
+
+    public VoucherCounter(Long voucherId) {
+        this.voucherId = voucherId;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int permits = available.get();
+
+            if (permits <= 0) {
+                return false;
+            }
+
+            if (available.compareAndSet(permits, permits - 1)) {
+                unflushed.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        unflushed.decrementAndGet();
+        available.incrementAndGet();
+    }
+
+    public void lease(int permits) {
+        available.addAndGet(permits);
+    }
+
+    // the permits handed back to the voucher row when this node stops
+    public int drainAvailable() {
+        return available.getAndSet(0);
+    }
+
+    public int drainUnflushed() {
+        return unflushed.getAndSet(0);
+    }
+
+    public void restoreUnflushed(int redemptions) {
+        unflushed.addAndGet(redemptions);
+    }
+
+}
@@ -0,0 +1,16 @@
+package restful.api.eztrain.voucher;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VoucherRedemption {
+
+    private final Long voucherId;
+
+    private final String code;
+
+    private final Double discountAmount;
+
+}
@@ -0,0 +1,28 @@
+package restful.api.eztrain.voucher;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VoucherRule {
+
+    private final Long id;
+
+    private final String code;
+
+    private final Double discountAmount;
+
+    private final Double minimumAmount;
+
+    private final LocalDateTime validFrom;
+
+    private final LocalDateTime validUntil;
+
+    private final Boolean isActive;
+
+    private final Integer maxRedemptions;
+
+}
@@ -0,0 +1,112 @@
+-- Executed after Hibernate has updated the schema (spring.jpa.defer-datasource-initialization).
+-- Every statement must be idempotent.
+
+-- A seat of a coach can only have one live ticket per schedule.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_tickets_schedule_coach_seat_active
+    ON tickets (schedule_id, coach_id, seat_id)
+    WHERE booking_status IS NULL OR booking_status <> 'CANCELLED';
+
+-- Seat holds, one row per held seat, so that any node can confirm, cancel or sweep a hold.
+-- Written with plain SQL by SeatInventoryService; expired_at is in epoch milliseconds.
+CREATE TABLE IF NOT EXISTS seat_holds (
+    schedule_id bigint NOT NULL,
+    coach_id bigint NOT NULL,
+    seat_id bigint NOT NULL,
+    hold_id varchar(36) NOT NULL,
+    email varchar(255) NOT NULL,
+    voucher_code varchar(255),
+    expired_at bigint NOT NULL,
+    PRIMARY KEY (schedule_id, coach_id, seat_id)
+);
+CREATE INDEX IF NOT EXISTS idx_seat_holds_hold_id ON seat_holds (hold_id);
+CREATE INDEX IF NOT EXISTS idx_seat_holds_expired_at ON seat_holds (expired_at);
+
+-- Revoked JWTs by token id, and revoke-before times by email, so that every node rejects them.
+-- Written with plain SQL by TokenRevocationStore; times are in epoch milliseconds.
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id varchar(255) PRIMARY KEY,
+    expired_at bigint NOT NULL
+);
+CREATE TABLE IF NOT EXISTS revoked_subjects (
+    email varchar(255) PRIMARY KEY,
+    revoked_at bigint NOT NULL
+);
+
+-- Idempotency keys by caller and key, so that a retry is recognised on any node. Written with
+-- plain SQL by IdempotencyFilter; status is null while the first request runs, times are in
+-- epoch milliseconds.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    store_key text PRIMARY KEY,
+    fingerprint varchar(64) NOT NULL,
+    status integer,
+    content_type varchar(255),
+    body bytea,
+    updated_at bigint NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_updated_at ON idempotency_keys (updated_at);
+
+-- Payments without a voucher are the common case; ddl-auto=update never drops a NOT NULL.
+ALTER TABLE payments ALTER COLUMN voucher_id DROP NOT NULL;
+
+-- The payment workers resume unfinished payments by status.
+CREATE INDEX IF NOT EXISTS idx_payments_payment_status ON payments (payment_status);
+
+-- A declined payment fails the other payments of its booking.
+CREATE INDEX IF NOT EXISTS idx_payments_booking_id ON payments (booking_id);
+
+-- The outbox relay reads the unpublished events in id order.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unpublished ON outbox_events (id) WHERE published_at IS NULL;
+
+-- Departure boards and the journey planner read schedules by route and departure time; the
+-- board resolves a station to its routes first. Windows before the in-memory index hit these.
+CREATE INDEX IF NOT EXISTS idx_schedules_route_departure ON schedules (route_id, departure_datetime);
+CREATE INDEX IF NOT EXISTS idx_schedules_departure ON schedules (departure_datetime);
+CREATE INDEX IF NOT EXISTS idx_schedules_train ON schedules (train_id);
+CREATE INDEX IF NOT EXISTS idx_routes_origin_station ON routes (origin_station_id);
+
+-- Trigram indexes serving the case-insensitive '%term%' search filters (see TrigramSearch).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_stations_code_trgm ON stations USING gin (lower(code) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_stations_name_trgm ON stations USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_stations_city_trgm ON stations USING gin (lower(city) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_stations_province_trgm ON stations USING gin (lower(province) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_trains_name_trgm ON trains USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_trains_train_type_trgm ON trains USING gin (lower(train_type) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_trains_operator_trgm ON trains USING gin (lower(operator) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_coaches_coach_name_trgm ON coaches USING gin (lower(coach_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_seats_seat_number_trgm ON seats USING gin (lower(seat_number) gin_trgm_ops);
+
+-- Prefix indexes serving the 'te%' filters of search terms shorter than a trigram.
+CREATE INDEX IF NOT EXISTS idx_stations_code_prefix ON stations (lower(code) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_stations_name_prefix ON stations (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_stations_city_prefix ON stations (lower(city) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_stations_province_prefix ON stations (lower(province) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_trains_name_prefix ON trains (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_trains_train_type_prefix ON trains (lower(train_type) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_trains_operator_prefix ON trains (lower(operator) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_coaches_coach_name_prefix ON coaches (lower(coach_name) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_seats_seat_number_prefix ON seats (lower(seat_number) text_pattern_ops);
+
+-- Ids come from pooled sequences (allocationSize 50) so that inserts can be batched.
+-- Move every sequence past the ids already in its table, e.g. rows written while the
+-- columns were still IDENTITY; GREATEST keeps a sequence from ever moving backwards.
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT last_value FROM users_seq)));
+SELECT setval('roles_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM roles), (SELECT last_value FROM roles_seq)));
+SELECT setval('stations_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM stations), (SELECT last_value FROM stations_seq)));
+SELECT setval('trains_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM trains), (SELECT last_value FROM trains_seq)));
+SELECT setval('coach_types_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM coach_types), (SELECT last_value FROM coach_types_seq)));
+SELECT setval('coaches_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM coaches), (SELECT last_value FROM coaches_seq)));
+SELECT setval('seats_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM seats), (SELECT last_value FROM seats_seq)));
+SELECT setval('routes_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM routes), (SELECT last_value FROM routes_seq)));
+SELECT setval('route_prices_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM route_prices), (SELECT last_value FROM route_prices_seq)));
+SELECT setval('schedules_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM schedules), (SELECT last_value FROM schedules_seq)));
+SELECT setval('tickets_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM tickets), (SELECT last_value FROM tickets_seq)));
+SELECT setval('payments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM payments), (SELECT last_value FROM payments_seq)));
+SELECT setval('vouchers_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM vouchers), (SELECT last_value FROM vouchers_seq)));
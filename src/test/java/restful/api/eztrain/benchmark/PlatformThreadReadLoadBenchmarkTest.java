@@ -0,0 +1,28 @@
+package restful.api.eztrain.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Run with: mvn test -P benchmark -Dtest=PlatformThreadReadLoadBenchmarkTest
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.threads.virtual.enabled=false",
+        "database.bulkhead.enabled=false"
+})
+public class PlatformThreadReadLoadBenchmarkTest extends ReadLoadBenchmark {
+
+    @Test
+    void benchmarkReadsOnPlatformThreads() throws Exception {
+        Map<String, Object> result = run("platform");
+
+        assertEquals(0L, result.get("errors"));
+    }
+
+}
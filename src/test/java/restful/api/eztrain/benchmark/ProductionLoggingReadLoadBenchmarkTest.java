@@ -0,0 +1,32 @@
+package restful.api.eztrain.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// Run with: mvn test -P benchmark -Dtest=ProductionLoggingReadLoadBenchmarkTest
+// Async JSON logging with one masked line per request and only slow or sampled SQL.
+@Tag("benchmark")
+@ActiveProfiles("production")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.requests.enabled=true",
+        "spring.threads.virtual.enabled=false",
+        "database.bulkhead.enabled=false"
+})
+public class ProductionLoggingReadLoadBenchmarkTest extends ReadLoadBenchmark {
+
+    @Test
+    void benchmarkReadsWithProductionLogging() throws Exception {
+        Map<String, Object> result = run("logging-production");
+
+        assertEquals(0L, result.get("errors"));
+    }
+
+}
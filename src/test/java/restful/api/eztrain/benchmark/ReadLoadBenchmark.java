@@ -0,0 +1,206 @@
+package restful.api.eztrain.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+
+// Drives the Station and RoutePrice list endpoints with more concurrent clients than the
+// connection pool has connections, so request threads queue for the database
+abstract class ReadLoadBenchmark {
+
+    private static final int CLIENTS = 400;
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    private static final List<String> PATHS = List.of(
+            "/api/stations?page=0&size=10",
+            "/api/routeprices?page=0&size=10");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    protected Map<String, Object> run(String mode) throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElseThrow();
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String token = jwtUtil.generateToken(authentication);
+
+        user.setToken(token);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        // the client has no close() before Java 21, so its executor is shut down directly
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(16);
+        HttpClient client = HttpClient.newBuilder()
+                                .executor(clientExecutor)
+                                .build();
+
+        List<long[]> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+        double seconds;
+
+        try {
+            drive(client, token, WARMUP, new ArrayList<>(), new AtomicLong());
+
+            long start = System.nanoTime();
+            drive(client, token, MEASUREMENT, latencies, errors);
+            seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long total = 0;
+
+        for (int i = 0; i < PATHS.size(); i++) {
+            int path = i;
+            long[] samples = latencies.stream()
+                                .filter(sample -> sample[0] == path)
+                                .mapToLong(sample -> sample[1])
+                                .sorted()
+                                .toArray();
+
+            total += samples.length;
+            endpoints.put(PATHS.get(i), summarize(samples, seconds));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", "read-load");
+        result.put("mode", mode);
+        result.put("javaVersion", Runtime.version().feature());
+        result.put("clients", CLIENTS);
+        result.put("seconds", MEASUREMENT.toSeconds());
+        result.put("requestsPerSecond", Math.round(total / seconds));
+        result.put("errors", errors.get());
+        result.put("endpoints", endpoints);
+
+        File output = new File("target/benchmarks/read-load-" + mode + ".json");
+        output.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, result);
+
+        System.out.println("Read load benchmark: " + objectMapper.writeValueAsString(result));
+
+        return result;
+    }
+
+    private void drive(HttpClient client, String token, Duration duration, List<long[]> latencies, AtomicLong errors) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+        for (int c = 0; c < CLIENTS; c++) {
+            int offset = c;
+
+            clients.execute(() -> {
+                try {
+                    for (int n = offset; System.nanoTime() < deadline; n++) {
+                        int path = n % PATHS.size();
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATHS.get(path)))
+                                                .header("Authorization", "Bearer " + token)
+                                                .header("Accept", "application/json")
+                                                .GET()
+                                                .build();
+
+                        long begin = System.nanoTime();
+
+                        // a failed request is counted and the client keeps going, so every client is measured to the end
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            long elapsed = System.nanoTime() - begin;
+
+                            if (response.statusCode() == 200) {
+                                latencies.add(new long[] { path, elapsed });
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        try {
+            done.await();
+        } finally {
+            clients.shutdownNow();
+            clients.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static Map<String, Object> summarize(long[] sorted, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", sorted.length);
+        summary.put("requestsPerSecond", Math.round(sorted.length / seconds));
+        summary.put("p50Millis", percentile(sorted, 0.50));
+        summary.put("p99Millis", percentile(sorted, 0.99));
+        summary.put("maxMillis", sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = Math.max((int) Math.ceil(quantile * sorted.length) - 1, 0);
+        return sorted[index] / 1_000_000.0;
+    }
+
+}
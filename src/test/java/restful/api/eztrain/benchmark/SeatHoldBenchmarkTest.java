@@ -0,0 +1,133 @@
+package restful.api.eztrain.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.fixture.TestFixtures;
+import restful.api.eztrain.fixture.TestFixtures.BookableSchedule;
+import restful.api.eztrain.inventory.SeatHold;
+import restful.api.eztrain.service.SeatInventoryService;
+
+// Run with: mvn test -P benchmark -Dtest=SeatHoldBenchmarkTest
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class SeatHoldBenchmarkTest {
+
+    private static final int WARMUP = 500;
+
+    private static final int HOLDS = 5_000;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    private final String email = "admin@gmail.com";
+
+    private final String trainName = "Hold Benchmark Express";
+
+    private final String eksCoachName = "Eksekutif 1";
+
+    private BookableSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = testFixtures.admin(email);
+
+        schedule = testFixtures.bookableSchedule(user, trainName, eksCoachName, 2);
+    }
+
+    @Test
+    void benchmarkSeatHolds() throws Exception {
+        measure(WARMUP);
+
+        long[][] latencies = measure(HOLDS);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", "seat-hold");
+        result.put("holds", HOLDS);
+        // a hold that the bitmap turns away never reaches the database
+        result.put("conflict", percentiles(latencies[0]));
+        // an accepted hold is acknowledged once its rows are committed
+        result.put("accepted", percentiles(latencies[1]));
+
+        File output = new File("target/benchmarks/seat-hold.json");
+        output.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, result);
+
+        System.out.println("Seat hold benchmark: " + objectMapper.writeValueAsString(result));
+    }
+
+    private long[][] measure(int holds) {
+        long[] conflicts = new long[holds];
+        long[] accepted = new long[holds];
+        Long seatId = schedule.seatIds().get(0);
+
+        SeatHold blocking = hold(seatId);
+        assertTrue(seatInventoryService.hold(blocking));
+
+        for (int i = 0; i < holds; i++) {
+            long start = System.nanoTime();
+            assertFalse(seatInventoryService.hold(hold(seatId)));
+            conflicts[i] = System.nanoTime() - start;
+        }
+
+        seatInventoryService.releaseHold(seatInventoryService.claimHold(blocking.getHoldId(), email));
+
+        for (int i = 0; i < holds; i++) {
+            SeatHold hold = hold(seatId);
+
+            long start = System.nanoTime();
+            assertTrue(seatInventoryService.hold(hold));
+            accepted[i] = System.nanoTime() - start;
+
+            seatInventoryService.releaseHold(seatInventoryService.claimHold(hold.getHoldId(), email));
+        }
+
+        return new long[][] { conflicts, accepted };
+    }
+
+    private SeatHold hold(Long seatId) {
+        return SeatHold.builder()
+                    .holdId(UUID.randomUUID().toString())
+                    .scheduleId(schedule.scheduleId())
+                    .coachId(schedule.coachId())
+                    .seatIds(List.of(seatId))
+                    .email(email)
+                    .expiredAt(System.currentTimeMillis() + 600_000)
+                    .build();
+    }
+
+    private Map<String, Object> percentiles(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("p50Micros", sorted[sorted.length / 2] / 1_000);
+        result.put("p99Micros", sorted[sorted.length * 99 / 100] / 1_000);
+        result.put("maxMicros", sorted[sorted.length - 1] / 1_000);
+
+        return result;
+    }
+
+}
@@ -0,0 +1,193 @@
+package restful.api.eztrain.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import restful.api.eztrain.entity.BookingStatus;
+import restful.api.eztrain.entity.CoachEntity;
+import restful.api.eztrain.entity.RouteEntity;
+import restful.api.eztrain.entity.RoutePriceEntity;
+import restful.api.eztrain.entity.ScheduleEntity;
+import restful.api.eztrain.entity.SeatEntity;
+import restful.api.eztrain.entity.TicketEntity;
+import restful.api.eztrain.entity.TrainEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.fixture.TestFixtures;
+import restful.api.eztrain.repository.CoachRepository;
+import restful.api.eztrain.repository.RouteRepository;
+import restful.api.eztrain.repository.ScheduleRepository;
+import restful.api.eztrain.repository.SeatRepository;
+import restful.api.eztrain.repository.TrainRepository;
+import restful.api.eztrain.repository.UserRepository;
+
+// Run with: mvn test -P benchmark -Dtest=TicketInsertBenchmarkTest
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class TicketInsertBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+
+    private static final int ROWS_PER_TRANSACTION = 1_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CoachRepository coachRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private TrainRepository trainRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private Integer batchSize;
+
+    private final String email = "admin@gmail.com";
+
+    private final String trainName = "Benchmark Express";
+
+    private Long userId;
+
+    private Long trainId;
+
+    private Long scheduleId;
+
+    private Long coachId;
+
+    private Long seatId;
+
+    private Long routeId;
+
+    private Long routePriceId;
+
+    @BeforeEach
+    void setUp() {
+        testFixtures.seedAll();
+
+        UserEntity user = userRepository.findByEmail(email).orElseThrow();
+        CoachEntity coach = coachRepository.findAll().get(0);
+        SeatEntity seat = seatRepository.findAll().get(0);
+        RouteEntity route = routeRepository.findAll().get(0);
+
+        TrainEntity train = testFixtures.train(trainName, user, List.of());
+        RoutePriceEntity routePrice = testFixtures.routePrice(route, coach, user);
+        ScheduleEntity schedule = testFixtures.scheduleTomorrow(train, route, user);
+
+        userId = user.getId();
+        trainId = train.getId();
+        scheduleId = schedule.getId();
+        coachId = coach.getId();
+        seatId = seat.getId();
+        routeId = route.getId();
+        routePriceId = routePrice.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteTickets();
+        scheduleRepository.deleteById(scheduleId);
+        trainRepository.deleteById(trainId);
+    }
+
+    @Test
+    void benchmarkTicketInserts() throws Exception {
+        // IDENTITY columns cannot be switched at runtime, so "before" is approximated by a
+        // JDBC batch size of 1: one round-trip per row, which is what IDENTITY forced
+        double before = insertTickets(1);
+        deleteTickets();
+        double after = insertTickets(batchSize);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", "ticket-insert");
+        result.put("rows", ROWS);
+        result.put("before", Map.of("batchSize", 1, "rowsPerSecond", Math.round(before)));
+        result.put("after", Map.of("batchSize", batchSize, "rowsPerSecond", Math.round(after)));
+
+        File output = new File("target/benchmarks/ticket-insert.json");
+        output.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, result);
+
+        System.out.println("Ticket insert benchmark: " + objectMapper.writeValueAsString(result));
+
+        assertTrue(after > before);
+    }
+
+    private double insertTickets(int jdbcBatchSize) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+
+        for (int offset = 0; offset < ROWS; offset += ROWS_PER_TRANSACTION) {
+            int first = offset;
+
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+                for (int i = first; i < first + ROWS_PER_TRANSACTION; i++) {
+                    // cancelled tickets stay out of the one-live-ticket-per-seat index
+                    TicketEntity ticket = new TicketEntity();
+                    ticket.setBookingReference("BENCH-" + i);
+                    ticket.setBookingStatus(BookingStatus.CANCELLED.name());
+                    ticket.setPrice(150000.0);
+                    ticket.setUserEntity(entityManager.getReference(UserEntity.class, userId));
+                    ticket.setTrainEntity(entityManager.getReference(TrainEntity.class, trainId));
+                    ticket.setScheduleEntity(entityManager.getReference(ScheduleEntity.class, scheduleId));
+                    ticket.setCoachEntity(entityManager.getReference(CoachEntity.class, coachId));
+                    ticket.setSeatEntity(entityManager.getReference(SeatEntity.class, seatId));
+                    ticket.setRouteEntity(entityManager.getReference(RouteEntity.class, routeId));
+                    ticket.setRoutePriceEntity(entityManager.getReference(RoutePriceEntity.class, routePriceId));
+                    entityManager.persist(ticket);
+                }
+            });
+        }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        return ROWS / seconds;
+    }
+
+    private void deleteTickets() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager
+                .createQuery("delete from TicketEntity t where t.scheduleEntity.id = :scheduleId")
+                .setParameter("scheduleId", scheduleId)
+                .executeUpdate());
+    }
+
+}
@@ -0,0 +1,30 @@
+package restful.api.eztrain.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Run with: mvn test -P benchmark -Dtest=VerboseLoggingReadLoadBenchmarkTest
+// The logging the application used to ship with: every statement formatted and printed to stdout.
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=true",
+        "spring.jpa.properties.hibernate.format_sql=true",
+        "logging.requests.enabled=false",
+        "spring.threads.virtual.enabled=false",
+        "database.bulkhead.enabled=false"
+})
+public class VerboseLoggingReadLoadBenchmarkTest extends ReadLoadBenchmark {
+
+    @Test
+    void benchmarkReadsWithVerboseLogging() throws Exception {
+        Map<String, Object> result = run("logging-verbose");
+
+        assertEquals(0L, result.get("errors"));
+    }
+
+}
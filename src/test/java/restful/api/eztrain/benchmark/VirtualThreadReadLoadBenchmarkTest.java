@@ -0,0 +1,32 @@
+package restful.api.eztrain.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Run with: mvn test -P benchmark,java21 -Dtest=VirtualThreadReadLoadBenchmarkTest
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.threads.virtual.enabled=true",
+        "database.bulkhead.enabled=true"
+})
+public class VirtualThreadReadLoadBenchmarkTest extends ReadLoadBenchmark {
+
+    @Test
+    void benchmarkReadsOnVirtualThreads() throws Exception {
+        // spring.threads.virtual.enabled is ignored below Java 21
+        assumeTrue(Runtime.version().feature() >= 21);
+
+        Map<String, Object> result = run("virtual");
+
+        assertEquals(0L, result.get("errors"));
+    }
+
+}
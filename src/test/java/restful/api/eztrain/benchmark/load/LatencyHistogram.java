@@ -0,0 +1,126 @@
+package restful.api.eztrain.benchmark.load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear buckets over microseconds: every power of two is split into 16 linear
+// sub-buckets, so a bucket is at most ~6% wide up to about a minute
+class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 16;
+
+    private static final int MAGNITUDES = 27;
+
+    private final AtomicLongArray counts = new AtomicLongArray(MAGNITUDES * SUB_BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        long micros = Math.max(nanos / 1_000, 0);
+
+        counts.incrementAndGet(index(micros));
+        count.increment();
+        sum.add(micros);
+        max.accumulate(micros);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    Map<String, Object> summary(double seconds) {
+        long total = count();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", total);
+        summary.put("requestsPerSecond", Math.round(total / seconds));
+        summary.put("meanMillis", total == 0 ? 0 : round(sum.sum() / (double) total / 1_000));
+        summary.put("p50Millis", percentile(0.50));
+        summary.put("p90Millis", percentile(0.90));
+        summary.put("p99Millis", percentile(0.99));
+        summary.put("p999Millis", percentile(0.999));
+        summary.put("maxMillis", round(max.get() / 1_000.0));
+        summary.put("histogram", buckets());
+        return summary;
+    }
+
+    private double percentile(double quantile) {
+        long total = count();
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+
+            if (seen >= rank) {
+                return round(Math.min(upperBound(i), max.get()) / 1_000.0);
+            }
+        }
+
+        return round(max.get() / 1_000.0);
+    }
+
+    // non-empty buckets only, as upper bound in milliseconds -> count
+    private List<Map<String, Object>> buckets() {
+        List<Map<String, Object>> buckets = new ArrayList<>();
+
+        for (int i = 0; i < counts.length(); i++) {
+            long bucketCount = counts.get(i);
+
+            if (bucketCount > 0) {
+                Map<String, Object> bucket = new LinkedHashMap<>();
+                bucket.put("upToMillis", round(upperBound(i) / 1_000.0));
+                bucket.put("count", bucketCount);
+                buckets.add(bucket);
+            }
+        }
+
+        return buckets;
+    }
+
+    private static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - 4;
+        int magnitude = shift + 1;
+
+        if (magnitude >= MAGNITUDES) {
+            return MAGNITUDES * SUB_BUCKETS - 1;
+        }
+
+        int subBucket = (int) (micros >>> shift) - SUB_BUCKETS;
+        return magnitude * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int index) {
+        int magnitude = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+
+        if (magnitude == 0) {
+            return subBucket;
+        }
+
+        return ((long) (subBucket + SUB_BUCKETS + 1) << (magnitude - 1)) - 1;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1_000) / 1_000.0;
+    }
+
+}
@@ -0,0 +1,205 @@
+package restful.api.eztrain.benchmark.load;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Synthetic national-scale network generated inside Postgres with generate_series. Every
+// generated row is recognisable by its LT prefix so that it can be dropped again without
+// touching the seeded reference data. Ids come from nextval on the pooled sequences; each
+// call hands out a whole block of 50, so Hibernate never reuses one of them.
+class LoadTestDataset {
+
+    static final String PREFIX = "LT";
+
+    private static final int COACHES_PER_TRAIN = 8;
+
+    private static final int SEATS_PER_COACH = 40;
+
+    private static final int ROUTES_PER_STATION = 4;
+
+    private static final int TICKETS_PER_STATEMENT = 250_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Long adminId;
+
+    LoadTestDataset(JdbcTemplate jdbcTemplate, Long adminId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.adminId = adminId;
+    }
+
+    boolean isSeeded(int stations) {
+        Integer seeded = jdbcTemplate.queryForObject("SELECT count(*) FROM stations WHERE code LIKE 'LT%'", Integer.class);
+
+        return seeded != null && seeded >= stations;
+    }
+
+    void seed(int stations, int users, int trains, int schedules, long tickets) {
+        clear();
+
+        jdbcTemplate.update("""
+                INSERT INTO stations (id, code, name, city, province, is_active, user_id, created_at, updated_at)
+                SELECT nextval('stations_seq'), 'LT' || lpad(g::text, 5, '0'), 'Load Station ' || g,
+                       'Load City ' || (g % 500), 'Load Province ' || (g % 38), true, ?, now(), now()
+                FROM generate_series(1, ?) g
+                """, adminId, stations);
+
+        // a ring of stations where every station reaches its next few neighbours, so journeys
+        // between distant stations need transfers
+        jdbcTemplate.update("""
+                WITH s AS (
+                    SELECT id, row_number() OVER (ORDER BY code) - 1 AS rn, count(*) OVER () AS n
+                    FROM stations WHERE code LIKE 'LT%'
+                )
+                INSERT INTO routes (id, origin_station_id, destination_station_id, trip_distance, trip_duration, user_id, created_at, updated_at)
+                SELECT nextval('routes_seq'), a.id, b.id, 25.0 * k, 30.0 * k, ?, now(), now()
+                FROM s a
+                CROSS JOIN generate_series(1, ?) k
+                JOIN s b ON b.rn = (a.rn + k) % a.n
+                """, adminId, ROUTES_PER_STATION);
+
+        jdbcTemplate.update("""
+                INSERT INTO route_prices (id, price, route_id, coach_type_id, user_id, created_at, updated_at)
+                SELECT nextval('route_prices_seq'), 20000.0 * r.trip_distance / 25.0 + 25000.0 * ct.rn, r.id, ct.id, ?, now(), now()
+                FROM routes r
+                JOIN stations o ON o.id = r.origin_station_id AND o.code LIKE 'LT%'
+                CROSS JOIN (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM coach_types) ct
+                ON CONFLICT DO NOTHING
+                """, adminId);
+
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, password, full_name, phone_number, is_verified, is_active, created_at, updated_at)
+                SELECT nextval('users_seq'), 'lt-user-' || g || '@load.test', (SELECT password FROM users WHERE id = ?),
+                       'Load User ' || g, '0812' || lpad(g::text, 8, '0'), true, true, now(), now()
+                FROM generate_series(1, ?) g
+                """, adminId, users);
+
+        jdbcTemplate.update("""
+                INSERT INTO users_roles (user_id, role_id)
+                SELECT u.id, r.id FROM users u, roles r
+                WHERE u.email LIKE 'lt-user-%@load.test' AND r.name = 'ROLE_USER'
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO trains (id, name, train_type, operator, is_active, user_id, created_at, updated_at)
+                SELECT nextval('trains_seq'), 'LT Train ' || lpad(g::text, 5, '0'),
+                       (ARRAY['Intercity', 'Commuter', 'Express'])[1 + g % 3], 'KAI', true, ?, now(), now()
+                FROM generate_series(1, ?) g
+                """, adminId, trains);
+
+        jdbcTemplate.update("""
+                INSERT INTO coaches (id, coach_name, coach_number, coach_type_id, is_active, user_id, created_at, updated_at)
+                SELECT nextval('coaches_seq'), t.name || ' Coach ' || c, c, ct.id, true, ?, now(), now()
+                FROM trains t
+                CROSS JOIN generate_series(1, ?) c
+                JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn, count(*) OVER () AS n FROM coach_types) ct ON ct.rn = c % ct.n
+                WHERE t.name LIKE 'LT Train %'
+                """, adminId, COACHES_PER_TRAIN);
+
+        jdbcTemplate.update("""
+                INSERT INTO trains_coaches (train_id, coach_id)
+                SELECT t.id, c.id FROM trains t JOIN coaches c ON c.coach_name LIKE t.name || ' Coach %'
+                WHERE t.name LIKE 'LT Train %'
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO coaches_seats (coach_id, seat_id)
+                SELECT c.id, s.id FROM coaches c
+                CROSS JOIN (SELECT id FROM seats ORDER BY id LIMIT ?) s
+                WHERE c.coach_name LIKE 'LT Train %'
+                """, SEATS_PER_COACH);
+
+        jdbcTemplate.update("""
+                WITH t AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn, count(*) OVER () AS n FROM trains WHERE name LIKE 'LT Train %'),
+                     r AS (SELECT r.id, r.trip_duration, row_number() OVER (ORDER BY r.id) - 1 AS rn, count(*) OVER () AS n
+                           FROM routes r JOIN stations o ON o.id = r.origin_station_id WHERE o.code LIKE 'LT%')
+                INSERT INTO schedules (id, train_id, route_id, departure_datetime, arrival_datetime, status, user_id)
+                SELECT nextval('schedules_seq'), t.id, r.id,
+                       date_trunc('hour', now()) + make_interval(hours => 1 + g % (24 * 30)),
+                       date_trunc('hour', now()) + make_interval(hours => 1 + g % (24 * 30), mins => r.trip_duration::int),
+                       'SCHEDULED', ?
+                FROM generate_series(0, ? - 1) g
+                JOIN t ON t.rn = g % t.n
+                JOIN r ON r.rn = (g::bigint * 7919) % r.n
+                """, adminId, schedules);
+
+        // every ticket gets its own (schedule, coach, seat) slot so the live ticket index holds
+        seedTickets(tickets);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void seedTickets(long tickets) {
+        for (long from = 0; from < tickets; from += TICKETS_PER_STATEMENT) {
+            long to = Math.min(from + TICKETS_PER_STATEMENT, tickets) - 1;
+
+            // ticket g goes to schedule g % S, then walks the coaches and seats of that schedule's train
+            jdbcTemplate.update("""
+                    WITH sl AS (SELECT sc.id AS schedule_id, sc.train_id, sc.route_id, row_number() OVER (ORDER BY sc.id) - 1 AS rn, count(*) OVER () AS n
+                                FROM schedules sc JOIN trains t ON t.id = sc.train_id WHERE t.name LIKE 'LT Train %'),
+                         u AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn, count(*) OVER () AS n
+                               FROM users WHERE email LIKE 'lt-user-%@load.test'),
+                         tc AS (SELECT tc.train_id, tc.coach_id, c.coach_type_id, row_number() OVER (PARTITION BY tc.train_id ORDER BY tc.coach_id) - 1 AS rn
+                                FROM trains_coaches tc JOIN coaches c ON c.id = tc.coach_id WHERE c.coach_name LIKE 'LT Train %'),
+                         st AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn FROM seats ORDER BY id LIMIT ?)
+                    INSERT INTO tickets (id, booking_reference, booking_status, price, booked_at, user_id, train_id, schedule_id, coach_id, seat_id, route_id, route_price_id)
+                    SELECT nextval('tickets_seq'), 'LT-' || lpad(g::text, 9, '0'),
+                           (ARRAY['PAID', 'PAID', 'PAID', 'BOOKED', 'CANCELLED'])[1 + g % 5],
+                           rp.price, now() - make_interval(days => (g % 365)::int), u.id, sl.train_id, sl.schedule_id, tc.coach_id, st.id, sl.route_id, rp.id
+                    FROM generate_series(?::bigint, ?::bigint) g
+                    JOIN sl ON sl.rn = g % sl.n
+                    JOIN tc ON tc.train_id = sl.train_id AND tc.rn = (g / sl.n) % ?
+                    JOIN st ON st.rn = (g / sl.n / ?) % ?
+                    JOIN u ON u.rn = g % u.n
+                    JOIN route_prices rp ON rp.route_id = sl.route_id AND rp.coach_type_id = tc.coach_type_id
+                    """, SEATS_PER_COACH, from, to, COACHES_PER_TRAIN, COACHES_PER_TRAIN, SEATS_PER_COACH);
+        }
+    }
+
+    void clear() {
+        String ltSchedules = "SELECT sc.id FROM schedules sc JOIN trains t ON t.id = sc.train_id WHERE t.name LIKE 'LT Train %'";
+
+        jdbcTemplate.update("DELETE FROM payments WHERE ticket_id IN (SELECT id FROM tickets WHERE schedule_id IN (" + ltSchedules + "))");
+        jdbcTemplate.update("DELETE FROM tickets WHERE schedule_id IN (" + ltSchedules + ")");
+        jdbcTemplate.update("DELETE FROM schedules WHERE id IN (" + ltSchedules + ")");
+        jdbcTemplate.update("DELETE FROM coaches_seats WHERE coach_id IN (SELECT id FROM coaches WHERE coach_name LIKE 'LT Train %')");
+        jdbcTemplate.update("DELETE FROM trains_coaches WHERE train_id IN (SELECT id FROM trains WHERE name LIKE 'LT Train %')");
+        jdbcTemplate.update("DELETE FROM coaches WHERE coach_name LIKE 'LT Train %'");
+        jdbcTemplate.update("DELETE FROM trains WHERE name LIKE 'LT Train %'");
+        jdbcTemplate.update("DELETE FROM route_prices WHERE route_id IN (SELECT r.id FROM routes r JOIN stations o ON o.id = r.origin_station_id WHERE o.code LIKE 'LT%')");
+        jdbcTemplate.update("DELETE FROM routes WHERE origin_station_id IN (SELECT id FROM stations WHERE code LIKE 'LT%')");
+        jdbcTemplate.update("DELETE FROM stations WHERE code LIKE 'LT%'");
+        jdbcTemplate.update("DELETE FROM users_roles WHERE user_id IN (SELECT id FROM users WHERE email LIKE 'lt-user-%@load.test')");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'lt-user-%@load.test'");
+    }
+
+    Map<String, Object> counts() {
+        Map<String, Object> counts = new LinkedHashMap<>();
+
+        for (String table : List.of("stations", "routes", "route_prices", "users", "trains", "coaches", "schedules", "tickets")) {
+            counts.put(table, jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class));
+        }
+
+        return counts;
+    }
+
+    List<Map<String, Object>> sampleSlots(int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT sc.id AS schedule_id, tc.coach_id, cs.seat_id
+                FROM schedules sc
+                JOIN trains t ON t.id = sc.train_id AND t.name LIKE 'LT Train %'
+                JOIN trains_coaches tc ON tc.train_id = t.id
+                JOIN coaches_seats cs ON cs.coach_id = tc.coach_id
+                ORDER BY random()
+                LIMIT ?
+                """, limit);
+    }
+
+    List<String> sampleStationCodes(int limit) {
+        return jdbcTemplate.queryForList("SELECT code FROM stations WHERE code LIKE 'LT%' ORDER BY random() LIMIT ?", String.class, limit);
+    }
+
+}
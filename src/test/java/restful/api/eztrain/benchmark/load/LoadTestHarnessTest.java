@@ -0,0 +1,403 @@
+package restful.api.eztrain.benchmark.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.cache.ReferenceCacheInvalidator;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.model.SeatHoldRequest;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+import restful.api.eztrain.service.FareService;
+import restful.api.eztrain.service.JourneyPlannerService;
+import restful.api.eztrain.service.SeatInventoryService;
+import restful.api.eztrain.service.StationAutocompleteService;
+
+// Run with: mvn test -P benchmark -Dtest=LoadTestHarnessTest
+// Scale with -Dload.stations, -Dload.users, -Dload.trains, -Dload.schedules, -Dload.tickets,
+// -Dload.clients and -Dload.duration (seconds); -Dload.keep-data=true reuses the dataset next run
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+public class LoadTestHarnessTest {
+
+    private static final int STATIONS = Integer.getInteger("load.stations", 3_000);
+
+    private static final int USERS = Integer.getInteger("load.users", 10_000);
+
+    private static final int TRAINS = Integer.getInteger("load.trains", 600);
+
+    private static final int SCHEDULES = Integer.getInteger("load.schedules", 20_000);
+
+    private static final long TICKETS = Long.getLong("load.tickets", 2_000_000L);
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup", 10));
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Integer.getInteger("load.duration", 60));
+
+    private static final boolean KEEP_DATA = Boolean.getBoolean("load.keep-data");
+
+    private static final int BOOKING_USERS = 20;
+
+    private static final String PASSWORD = "rahasia";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StationAutocompleteService stationAutocompleteService;
+
+    @Autowired
+    private JourneyPlannerService journeyPlannerService;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private FareService fareService;
+
+    @Autowired
+    private ReferenceCacheInvalidator referenceCacheInvalidator;
+
+    private final String email = "admin@gmail.com";
+
+    private LoadTestDataset dataset;
+
+    private double seedSeconds;
+
+    private String adminToken;
+
+    private List<String> userTokens;
+
+    private List<Map<String, Object>> slots;
+
+    private List<String> stationCodes;
+
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity admin = userRepository.findByEmail(email).orElseThrow();
+        dataset = new LoadTestDataset(jdbcTemplate, admin.getId());
+
+        long start = System.nanoTime();
+
+        if (!KEEP_DATA || !dataset.isSeeded(STATIONS)) {
+            // each train seats 8 coaches x 40 seats per schedule, so spread the tickets far
+            // enough that no two live tickets share a seat
+            int schedules = (int) Math.max(SCHEDULES, (TICKETS + 319) / 320);
+            dataset.seed(STATIONS, USERS, TRAINS, schedules, TICKETS);
+        }
+
+        seedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        stationAutocompleteService.rebuild();
+        journeyPlannerService.rebuild();
+        seatInventoryService.rebuild();
+        fareService.invalidate();
+        referenceCacheInvalidator.clearAll();
+
+        adminToken = login(email);
+        userTokens = new ArrayList<>();
+
+        for (int i = 1; i <= BOOKING_USERS; i++) {
+            userTokens.add(login("lt-user-" + i + "@load.test"));
+        }
+
+        slots = dataset.sampleSlots(20_000);
+        stationCodes = dataset.sampleStationCodes(500);
+        client = HttpClient.newBuilder()
+                    .executor(Executors.newFixedThreadPool(16))
+                    .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!KEEP_DATA) {
+            dataset.clear();
+            seatInventoryService.rebuild();
+            journeyPlannerService.rebuild();
+            stationAutocompleteService.rebuild();
+            fareService.invalidate();
+            referenceCacheInvalidator.clearAll();
+        }
+    }
+
+    @Test
+    void loadTestMixedTraffic() throws Exception {
+        Map<String, Object> counts = dataset.counts();
+
+        drive(WARMUP, new ConcurrentHashMap<>());
+
+        Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        drive(MEASUREMENT, endpoints);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long requests = 0;
+        long serverErrors = 0;
+        Map<String, Object> perEndpoint = new TreeMap<>();
+
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            Map<String, Long> statuses = new TreeMap<>();
+
+            endpoint.statuses.forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+            summary.put("statuses", statuses);
+            summary.putAll(endpoint.latency.summary(seconds));
+
+            requests += endpoint.latency.count();
+            serverErrors += endpoint.statuses.entrySet().stream()
+                                .filter(status -> status.getKey() >= 500 || status.getKey() < 0)
+                                .mapToLong(status -> status.getValue().sum())
+                                .sum();
+            perEndpoint.put(entry.getKey(), summary);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", "load-test");
+        result.put("dataset", counts);
+        result.put("seedSeconds", Math.round(seedSeconds));
+        result.put("clients", CLIENTS);
+        result.put("seconds", MEASUREMENT.toSeconds());
+        result.put("requests", requests);
+        result.put("requestsPerSecond", Math.round(requests / seconds));
+        result.put("serverErrors", serverErrors);
+        result.put("endpoints", perEndpoint);
+
+        File output = new File("target/benchmarks/load-test.json");
+        output.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, result);
+
+        System.out.printf("Load test: %d requests, %d req/s, %d server errors%n", requests, Math.round(requests / seconds), serverErrors);
+        System.out.printf("%-44s %9s %8s %9s %9s %9s %9s%n", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        perEndpoint.forEach((name, value) -> {
+            Map<?, ?> summary = (Map<?, ?>) value;
+            System.out.printf("%-44s %9s %8s %9s %9s %9s %9s%n", name, summary.get("requests"), summary.get("requestsPerSecond"),
+                    summary.get("p50Millis"), summary.get("p99Millis"), summary.get("p999Millis"), summary.get("maxMillis"));
+        });
+
+        assertTrue(requests > 0);
+        assertTrue(serverErrors == 0, "Load test produced " + serverErrors + " server errors, see " + output);
+    }
+
+    private void drive(Duration duration, Map<String, Endpoint> endpoints) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.execute(() -> {
+                try {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                    while (System.nanoTime() < deadline) {
+                        next(random, endpoints);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    // roughly the mix of a booking front end: mostly browsing, one in five requests books
+    private void next(ThreadLocalRandom random, Map<String, Endpoint> endpoints) {
+        int roll = random.nextInt(100);
+
+        if (roll < 20) {
+            get(endpoints, "GET /api/stations", "/api/stations?page=" + random.nextInt(100) + "&size=10");
+        } else if (roll < 35) {
+            String code = pick(random, stationCodes);
+            get(endpoints, "GET /api/stations/autocomplete", "/api/stations/autocomplete?q=" + code.substring(0, 3 + random.nextInt(code.length() - 2)) + "&limit=10");
+        } else if (roll < 40) {
+            get(endpoints, "GET /api/stations/search", "/api/stations/search?city=" + encode("Load City " + random.nextInt(500)) + "&size=10");
+        } else if (roll < 50) {
+            get(endpoints, "GET /api/routeprices", "/api/routeprices?page=" + random.nextInt(100) + "&size=10");
+        } else if (roll < 55) {
+            get(endpoints, "GET /api/trains", "/api/trains?page=" + random.nextInt(30) + "&size=10");
+        } else if (roll < 65) {
+            int origin = random.nextInt(STATIONS) + 1;
+            int destination = (origin + 1 + random.nextInt(12)) % STATIONS + 1;
+            get(endpoints, "GET /api/journeys", "/api/journeys?originCode=" + code(origin) + "&destCode=" + code(destination));
+        } else if (roll < 80) {
+            get(endpoints, "GET /api/schedules/{id}/availability", "/api/schedules/" + pick(random, slots).get("schedule_id") + "/availability");
+        } else {
+            book(random, endpoints);
+        }
+    }
+
+    private void book(ThreadLocalRandom random, Map<String, Endpoint> endpoints) {
+        Map<String, Object> slot = pick(random, slots);
+        String token = pick(random, userTokens);
+
+        SeatHoldRequest request = SeatHoldRequest.builder()
+                                    .scheduleId(((Number) slot.get("schedule_id")).longValue())
+                                    .coachId(((Number) slot.get("coach_id")).longValue())
+                                    .seatIds(List.of(((Number) slot.get("seat_id")).longValue()))
+                                    .build();
+
+        HttpResponse<String> held;
+
+        try {
+            held = send(endpoints, "POST /api/bookings/holds", request("/api/bookings/holds", token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(request)))
+                        .build());
+        } catch (Exception e) {
+            return;
+        }
+
+        if (held == null || held.statusCode() != 200) {
+            return;
+        }
+
+        String holdId;
+
+        try {
+            holdId = objectMapper.readTree(held.body()).path("data").path("holdId").asText();
+        } catch (Exception e) {
+            return;
+        }
+
+        if (random.nextBoolean()) {
+            send(endpoints, "POST /api/bookings/holds/{id}/confirm", request("/api/bookings/holds/" + holdId + "/confirm", token)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build());
+        } else {
+            send(endpoints, "DELETE /api/bookings/holds/{id}", request("/api/bookings/holds/" + holdId, token)
+                    .DELETE()
+                    .build());
+        }
+    }
+
+    private void get(Map<String, Endpoint> endpoints, String name, String path) {
+        send(endpoints, name, request(path, adminToken).GET().build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept", "application/json");
+    }
+
+    private HttpResponse<String> send(Map<String, Endpoint> endpoints, String name, HttpRequest request) {
+        Endpoint endpoint = endpoints.computeIfAbsent(name, key -> new Endpoint());
+        long begin = System.nanoTime();
+
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            endpoint.record(response.statusCode(), System.nanoTime() - begin);
+            return response;
+        } catch (Exception e) {
+            // transport failures are counted under status -1
+            endpoint.record(-1, System.nanoTime() - begin);
+            return null;
+        }
+    }
+
+    private String login(String email) {
+        UserEntity user = userRepository.findByEmail(email).orElseThrow();
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, PASSWORD)
+                                            );
+
+        String token = jwtUtil.generateToken(authentication);
+
+        user.setToken(token);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        return token;
+    }
+
+    private static String code(int station) {
+        return LoadTestDataset.PREFIX + String.format("%05d", station);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static <T> T pick(ThreadLocalRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static class Endpoint {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(int status, long nanos) {
+            latency.record(nanos);
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+    }
+
+}
@@ -0,0 +1,224 @@
+package restful.api.eztrain.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import io.jsonwebtoken.Claims;
+
+import restful.api.eztrain.EztrainApplication;
+import restful.api.eztrain.entity.CoachTypeEntity;
+import restful.api.eztrain.entity.RouteEntity;
+import restful.api.eztrain.entity.RoutePriceEntity;
+import restful.api.eztrain.entity.StationEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.fare.Fare;
+import restful.api.eztrain.repository.CoachTypeRepository;
+import restful.api.eztrain.repository.RoutePriceRepository;
+import restful.api.eztrain.repository.RouteRepository;
+import restful.api.eztrain.repository.StationRepository;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.TokenRevocationStore;
+import restful.api.eztrain.service.FareService;
+
+// Two nodes against one database: this test's context writes, a second application context
+// started next to it has to see its caches evicted, and its revocations applied, through
+// LISTEN/NOTIFY.
+@SpringBootTest
+public class CacheInvalidationBusTest {
+
+    private static ConfigurableApplicationContext otherNode;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RoutePriceRepository routePriceRepository;
+
+    @Autowired
+    private CoachTypeRepository coachTypeRepository;
+
+    @Autowired
+    private FareService fareService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    @BeforeAll
+    static void startOtherNode() {
+        otherNode = new SpringApplicationBuilder(EztrainApplication.class).run("--server.port=0");
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+        otherNode.close();
+    }
+
+    @Test
+    void testStationUpdateEvictsOtherNode() {
+        StationRepository otherStations = otherNode.getBean(StationRepository.class);
+        CacheManager otherCaches = otherNode.getBean(CacheManager.class);
+
+        Long stationId = otherStations.findIdByCode("GMR").orElseThrow();
+        assertNotNull(otherCaches.getCache(ReferenceCaches.STATIONS).get("GMR"));
+
+        StationEntity station = stationRepository.findById(stationId).orElseThrow();
+        String name = station.getName();
+        station.setName(name + " Renamed");
+        stationRepository.save(station);
+
+        try {
+            await(() -> otherCaches.getCache(ReferenceCaches.STATIONS).get("GMR") == null);
+            assertEquals(stationId, otherStations.findIdByCode("GMR").orElseThrow());
+        } finally {
+            station.setName(name);
+            stationRepository.save(station);
+        }
+    }
+
+    @Test
+    void testUserUpdateEvictsOtherNode() {
+        UserRepository otherUsers = otherNode.getBean(UserRepository.class);
+        CacheManager otherCaches = otherNode.getBean(CacheManager.class);
+
+        otherUsers.findCredentialsByEmail(email).orElseThrow();
+        assertNotNull(otherCaches.getCache(ReferenceCaches.USERS).get(email));
+
+        UserEntity user = userRepository.findByEmail(email).orElseThrow();
+        String password = user.getPassword();
+        user.setPassword(password + "-rotated");
+        userRepository.save(user);
+
+        try {
+            await(() -> otherCaches.getCache(ReferenceCaches.USERS).get(email) == null);
+            assertEquals(password + "-rotated", otherUsers.findCredentialsByEmail(email).orElseThrow().getPassword());
+        } finally {
+            user.setPassword(password);
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void testRoutePriceUpdateRefreshesOtherNodeFares() {
+        FareService otherFares = otherNode.getBean(FareService.class);
+
+        StationEntity origin = stationRepository.findByCode("GMR").orElseThrow();
+        StationEntity destination = stationRepository.findByCode("BD").orElseThrow();
+        RouteEntity route = routeRepository.findByOriginAndDestination(origin, destination).orElseThrow();
+        CoachTypeEntity coachType = coachTypeRepository.findByName("Premium").orElseThrow();
+
+        RoutePriceEntity routePrice = routePriceRepository.findByRouteEntityAndCoachTypeEntity(route, coachType).orElse(null);
+        boolean created = routePrice == null;
+
+        if (created) {
+            routePrice = new RoutePriceEntity();
+            routePrice.setRouteEntity(route);
+            routePrice.setCoachTypeEntity(coachType);
+            routePrice.setUserEntity(userRepository.findByEmail(email).orElseThrow());
+        }
+
+        Double price = routePrice.getPrice();
+        routePrice.setPrice(150000.0);
+        routePrice = routePriceRepository.save(routePrice);
+        fareService.invalidate(routePrice.getId());
+
+        try {
+            await(() -> priceOf(otherFares.find("GMR", "BD", "Premium")) == 150000.0);
+
+            routePrice.setPrice(175000.0);
+            routePrice = routePriceRepository.save(routePrice);
+            fareService.invalidate(routePrice.getId());
+
+            await(() -> priceOf(otherFares.find("GMR", "BD", "Premium")) == 175000.0);
+        } finally {
+            if (created) {
+                routePriceRepository.delete(routePrice);
+            } else {
+                routePrice.setPrice(price);
+                routePriceRepository.save(routePrice);
+            }
+
+            fareService.invalidate();
+        }
+    }
+
+    @Test
+    void testTokenRevocationReachesOtherNode() throws Exception {
+        TokenRevocationStore otherRevocations = otherNode.getBean(TokenRevocationStore.class);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        Claims loggedOut = jwtUtil.parseClaims(jwtUtil.generateToken(authentication));
+        Claims issuedBefore = jwtUtil.parseClaims(jwtUtil.generateToken(authentication));
+
+        assertFalse(otherRevocations.isRevoked(loggedOut));
+
+        tokenRevocationStore.revoke(loggedOut);
+
+        await(() -> otherRevocations.isRevoked(loggedOut));
+        assertFalse(otherRevocations.isRevoked(issuedBefore));
+
+        Thread.sleep(2);
+        tokenRevocationStore.revokeAll(email);
+
+        await(() -> otherRevocations.isRevoked(issuedBefore));
+
+        Thread.sleep(2);
+        assertFalse(otherRevocations.isRevoked(jwtUtil.parseClaims(jwtUtil.generateToken(authentication))));
+    }
+
+    private double priceOf(List<Fare> fares) {
+        return fares.isEmpty() ? 0.0 : fares.get(0).getPrice();
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "invalidation did not reach the other node");
+
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+}
@@ -161,6 +161,47 @@ public class AuthControllerTest {
         });
     }
 
+    @Test
+    void testLogoutRevokesToken() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+        
+        mockMvc.perform(
+            delete("/api/auth/logout")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)   
+                        .header("Authorization", mockBearerToken)                                            
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+            delete("/api/auth/logout")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)   
+                        .header("Authorization", mockBearerToken)                                            
+        ).andExpectAll(
+                status().isUnauthorized()
+        ).andDo(result -> {
+                WebResponse<TokenResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
     @Test
     void testLogoutInvalidToken() throws Exception {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
@@ -0,0 +1,476 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static restful.api.eztrain.controller.QueryBudget.statementsAtMost;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.fixture.TestFixtures.BookableSchedule;
+import restful.api.eztrain.fixture.TestFixtures;
+import restful.api.eztrain.model.SeatHoldRequest;
+import restful.api.eztrain.model.SeatHoldResponse;
+import restful.api.eztrain.model.TicketResponse;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+import restful.api.eztrain.service.SeatInventoryService;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    private final String trainName = "Booking Express";
+    private final String eksCoachName = "Eksekutif 1";
+    private final String eksCoachType = "Eksekutif";
+    private final Integer seatCount = 8;
+
+    private Long scheduleId;
+
+    private Long coachId;
+
+    private List<Long> seatIds;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = testFixtures.admin(email);
+
+        BookableSchedule schedule = testFixtures.bookableSchedule(user, trainName, eksCoachName, seatCount);
+
+        scheduleId = schedule.scheduleId();
+        coachId = schedule.coachId();
+        seatIds = schedule.seatIds();
+    }
+
+    @Test
+    void testHoldSeatSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seatIds.subList(0, 2));
+
+        mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(8)
+        ).andDo(result -> {
+                WebResponse<SeatHoldResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertNotNull(response.getData().getHoldId());
+            assertEquals(request.getSeatIds(), response.getData().getSeatIds());
+        });
+    }
+
+    @Test
+    void testHoldSeatTaken() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seatIds.subList(0, 2));
+
+        mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        request.setSeatIds(seatIds.subList(1, 3));
+
+        mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isConflict()
+        ).andDo(result -> {
+                WebResponse<SeatHoldResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testHoldSeatBlank() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(null);
+        request.setSeatIds(List.of());
+
+        mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isBadRequest()
+        ).andDo(result -> {
+                WebResponse<SeatHoldResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testHoldSeatConcurrent() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seatIds.subList(0, 1));
+
+        String content = objectMapper.writeValueAsString(request);
+
+        Callable<Integer> attempt = () -> mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content)
+                        .header("Authorization", mockBearerToken)
+        ).andReturn().getResponse().getStatus();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < 32; i++) {
+            results.add(executor.submit(attempt));
+        }
+
+        int succeeded = 0;
+
+        for (Future<Integer> result : results) {
+            if (result.get() == 200) {
+                succeeded++;
+            }
+        }
+
+        executor.shutdown();
+
+        assertEquals(1, succeeded);
+    }
+
+    @Test
+    void testConfirmHoldSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seatIds.subList(0, 2));
+
+        String holdResult = mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<SeatHoldResponse> hold = objectMapper.readValue(holdResult, new TypeReference<>() {
+        });
+
+        mockMvc.perform(
+                post("/api/bookings/holds/" + hold.getData().getHoldId() + "/confirm")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(14)
+        ).andDo(result -> {
+                WebResponse<List<TicketResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(2, response.getData().size());
+            assertEquals("BOOKED", response.getData().get(0).getBookingStatus());
+            assertEquals(trainName, response.getData().get(0).getTrainName());
+        });
+
+        mockMvc.perform(
+                post("/api/bookings/holds/" + hold.getData().getHoldId() + "/confirm")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isNotFound()
+        );
+    }
+
+    @Test
+    void testCancelHoldSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seatIds.subList(0, 2));
+
+        String holdResult = mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<SeatHoldResponse> hold = objectMapper.readValue(holdResult, new TypeReference<>() {
+        });
+
+        mockMvc.perform(
+                delete("/api/bookings/holds/" + hold.getData().getHoldId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(4)
+        );
+
+        mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(4)
+        );
+    }
+
+    @Test
+    void testConfirmHoldFromAnotherNode() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seatIds.subList(0, 2));
+
+        String holdResult = mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<SeatHoldResponse> hold = objectMapper.readValue(holdResult, new TypeReference<>() {
+        });
+
+        // a node that never saw the hold starts with nothing in memory
+        seatInventoryService.invalidateAll();
+
+        request.setSeatIds(seatIds.subList(1, 3));
+
+        mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isConflict()
+        );
+
+        mockMvc.perform(
+                post("/api/bookings/holds/" + hold.getData().getHoldId() + "/confirm")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<TicketResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(2, response.getData().size());
+        });
+    }
+
+    @Test
+    void testHoldSeatNoToken() throws Exception {
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seatIds.subList(0, 2));
+
+        mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+        ).andExpectAll(
+                status().isUnauthorized()
+        ).andDo(result -> {
+                WebResponse<SeatHoldResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+}
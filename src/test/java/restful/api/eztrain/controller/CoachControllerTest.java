@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static restful.api.eztrain.controller.QueryBudget.statementsAtMost;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -27,8 +29,11 @@ import restful.api.eztrain.entity.CoachTypeEntity;
 import restful.api.eztrain.entity.RoleEntity;
 import restful.api.eztrain.entity.SeatEntity;
 import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.model.AssignSeatsRequest;
+import restful.api.eztrain.model.BulkRegisterCoachRequest;
 import restful.api.eztrain.model.CoachResponse;
 import restful.api.eztrain.model.RegisterCoachRequest;
+import restful.api.eztrain.model.SeatLayoutRequest;
 import restful.api.eztrain.model.UpdateCoachRequest;
 import restful.api.eztrain.model.WebResponse;
 import restful.api.eztrain.repository.CoachRepository;
@@ -144,7 +149,8 @@ public class CoachControllerTest {
                         .content(objectMapper.writeValueAsString(request))
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<CoachResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -419,7 +425,8 @@ public class CoachControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(8)
         ).andDo(result -> {
                 WebResponse<CoachResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -670,7 +677,8 @@ public class CoachControllerTest {
                         .content(objectMapper.writeValueAsString(request))
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<CoachResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1002,7 +1010,8 @@ public class CoachControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(10)
         ).andDo(result -> {
                 WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1238,7 +1247,8 @@ public class CoachControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(11)
         ).andDo(result -> {
                 WebResponse<List<CoachResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1616,7 +1626,8 @@ public class CoachControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(10)
         ).andDo(result -> {
                 WebResponse<CoachResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1947,7 +1958,8 @@ public class CoachControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<CoachResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -2275,4 +2287,221 @@ public class CoachControllerTest {
             assertEquals(false, response.getStatus());
         });        
     }
+
+    @Test
+    void testRegisterCoachBulkSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        CoachTypeEntity coachType = coachTypeRepository.findByName(eksCoachType).orElse(null);
+
+        List<RegisterCoachRequest> coaches = new ArrayList<>();
+
+        for (int i = 6; i <= 8; i++) {
+            coaches.add(RegisterCoachRequest.builder()
+                            .coachName("Eksekutif " + i)
+                            .coachNumber(i)
+                            .coachTypeId(coachType.getId())
+                            .build());
+        }
+
+        BulkRegisterCoachRequest request = BulkRegisterCoachRequest.builder()
+                                            .coaches(coaches)
+                                            .layout(SeatLayoutRequest.builder().rows(20).columns("ABCD").build())
+                                            .build();
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/coaches/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(16)
+        ).andDo(result -> {
+                WebResponse<List<CoachResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(3, response.getData().size());
+            assertEquals("Eksekutif 6", response.getData().get(0).getCoachName());
+            assertEquals(coachType.getName(), response.getData().get(0).getCoachTypeName());
+
+            for (CoachResponse coach : response.getData()) {
+                assertEquals(80, coach.getSeats().size());
+            }
+        });        
+
+        // seat numbers that already exist are reused rather than duplicated
+        assertEquals(1, seatRepository.findAllBySeatNumberIn(List.of("1A")).size());
+    }
+
+    @Test
+    void testRegisterCoachBulkDuplicate() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        CoachTypeEntity coachType = coachTypeRepository.findByName(eksCoachType).orElse(null);
+
+        BulkRegisterCoachRequest request = BulkRegisterCoachRequest.builder()
+                                            .coaches(List.of(
+                                                RegisterCoachRequest.builder().coachName("Eksekutif 6").coachNumber(6).coachTypeId(coachType.getId()).build(),
+                                                RegisterCoachRequest.builder().coachName(eksCoachName).coachNumber(eksCoachNumber).coachTypeId(coachType.getId()).build()))
+                                            .build();
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/coaches/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isBadRequest()
+        ).andDo(result -> {
+                WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });        
+
+        assertEquals(true, coachRepository.findByCoachName("Eksekutif 6").isEmpty());
+    }
+
+    @Test
+    void testRegisterCoachBulkBlank() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        BulkRegisterCoachRequest request = BulkRegisterCoachRequest.builder()
+                                            .coaches(List.of())
+                                            .build();
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/coaches/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isBadRequest()
+        );
+    }
+
+    @Test
+    void testAssignSeatsToCoachSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);        
+
+        CoachEntity coach = coachRepository.findByCoachName(eksCoachName).orElse(null);
+
+        List<Long> seatIds = seatRepository.findAll().stream().map(SeatEntity::getId).toList();
+
+        AssignSeatsRequest request = AssignSeatsRequest.builder().seatIds(seatIds).build();
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(
+                    post("/api/coaches/" + coach.getId() + "/seats")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+                            .header("Authorization", mockBearerToken)                        
+            ).andExpectAll(
+                    status().isOk(),
+                    statementsAtMost(13)
+            ).andDo(result -> {
+                    WebResponse<CoachResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                });
+
+                assertEquals(true, response.getStatus());
+                assertEquals(coach.getId(), response.getData().getId());
+                assertEquals(seatIds.size(), response.getData().getSeats().size());
+            });
+        }
+    }
+
+    @Test
+    void testAssignSeatsNotFoundToCoach() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);        
+
+        CoachEntity coach = coachRepository.findByCoachName(eksCoachName).orElse(null);
+
+        SeatEntity seat = seatRepository.findBySeatNumber("1A").orElse(null);
+
+        AssignSeatsRequest request = AssignSeatsRequest.builder().seatIds(List.of(seat.getId(), 9999999L)).build();
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/coaches/" + coach.getId() + "/seats")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isNotFound()
+        ).andDo(result -> {
+                WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
 }
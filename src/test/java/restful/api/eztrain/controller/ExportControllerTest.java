@@ -0,0 +1,286 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.RoleEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.repository.RoleRepository;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+    }
+
+    @Test
+    void testExportUsersNdjson() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/exports/users")
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                content().contentTypeCompatibleWith("application/x-ndjson"),
+                header().string("Content-Disposition", "attachment; filename=\"users.ndjson\"")
+        ).andDo(result -> {
+            String[] lines = result.getResponse().getContentAsString().split("\n");
+
+            assertEquals(userRepository.count(), lines.length);
+
+            for (String line : lines) {
+                JsonNode row = objectMapper.readTree(line);
+
+                assertFalse(row.path("email").isMissingNode());
+                assertFalse(row.has("password"));
+                assertFalse(row.has("token"));
+            }
+        });
+    }
+
+    @Test
+    void testExportUsersCsv() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/exports/users")
+                        .queryParam("format", "csv")
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                content().contentTypeCompatibleWith("text/csv")
+        ).andDo(result -> {
+            String[] lines = result.getResponse().getContentAsString().split("\r\n");
+
+            assertEquals("id,email,fullName,phoneNumber,isVerified,isActive,createdAt", lines[0]);
+            assertEquals(userRepository.count() + 1, lines.length);
+        });
+    }
+
+    @Test
+    void testExportUsersCsvNeutralisesFormulas() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        String fullName = user.getFullName();
+
+        user.setFullName("=HYPERLINK(\"http://example.com\")");
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        try {
+            mockMvc.perform(
+                    get("/api/exports/users")
+                            .queryParam("format", "csv")
+                            .header("Authorization", mockBearerToken)
+            ).andExpectAll(
+                    status().isOk()
+            ).andDo(result -> {
+                String line = Arrays.stream(result.getResponse().getContentAsString().split("\r\n"))
+                                    .filter(row -> row.contains("," + email + ","))
+                                    .findFirst()
+                                    .orElse(null);
+
+                assertTrue(line.contains("," + email + ",\"'=HYPERLINK(\"\"http://example.com\"\")\","));
+            });
+        } finally {
+            user.setFullName(fullName);
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void testExportSchedulesCsv() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/exports/schedules")
+                        .queryParam("format", "CSV")
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+            String[] lines = result.getResponse().getContentAsString().split("\r\n");
+
+            assertEquals("id,trainName,origin,destination,departureDatetime,arrivalDatetime,status", lines[0]);
+        });
+    }
+
+    @Test
+    void testExportTicketsBadFormat() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/exports/tickets")
+                        .queryParam("format", "xml")
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isBadRequest()
+        ).andDo(result -> {
+                WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testExportPaymentsBadRole() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        RoleEntity role = roleRepository.findByName("ROLE_USER").orElse(null);
+
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/exports/payments")
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isForbidden()
+        );
+    }
+
+    @Test
+    void testExportTicketsNoToken() throws Exception {
+        mockMvc.perform(
+                get("/api/exports/tickets")
+        ).andExpectAll(
+                status().isUnauthorized()
+        );
+    }
+
+}
@@ -0,0 +1,388 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static restful.api.eztrain.controller.QueryBudget.statementsAtMost;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.RouteEntity;
+import restful.api.eztrain.entity.ScheduleEntity;
+import restful.api.eztrain.entity.StationEntity;
+import restful.api.eztrain.entity.TrainEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.fixture.TestFixtures;
+import restful.api.eztrain.model.JourneyResponse;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.repository.ScheduleRepository;
+import restful.api.eztrain.repository.StationRepository;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+import restful.api.eztrain.service.JourneyPlannerService;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JourneyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private JourneyPlannerService journeyPlannerService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    private final String trainName = "Journey Express";
+
+    private final LocalDateTime departAfter = LocalDate.now().plusDays(2).atStartOfDay();
+
+    private String originCode;
+
+    private String destCode;
+
+    private Long firstLegId;
+
+    private Long secondLegId;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = testFixtures.admin(email);
+
+        testFixtures.seedStations();
+
+        List<StationEntity> stations = stationRepository.findAll();
+
+        RouteEntity firstRoute = testFixtures.route(stations.get(0), stations.get(1), user);
+        RouteEntity secondRoute = testFixtures.route(stations.get(1), stations.get(2), user);
+
+        TrainEntity train = testFixtures.train(trainName, user, List.of());
+
+        firstLegId = createSchedule(train, firstRoute, departAfter.plusHours(8), departAfter.plusHours(11), user);
+        secondLegId = createSchedule(train, secondRoute, departAfter.plusHours(11).plusMinutes(30), departAfter.plusHours(14), user);
+
+        originCode = stations.get(0).getCode();
+        destCode = stations.get(2).getCode();
+    }
+
+    @Test
+    void testPlanJourneySuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/journeys")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", originCode)
+                        .param("destCode", destCode)
+                        .param("departAfter", departAfter.toString())
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(11)
+        ).andDo(result -> {
+                WebResponse<List<JourneyResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(1, response.getData().size());
+            assertEquals(1, response.getData().get(0).getTransfers());
+            assertEquals(2, response.getData().get(0).getLegs().size());
+            assertEquals(firstLegId, response.getData().get(0).getLegs().get(0).getScheduleId());
+            assertEquals(secondLegId, response.getData().get(0).getLegs().get(1).getScheduleId());
+            assertEquals(trainName, response.getData().get(0).getLegs().get(0).getTrainName());
+            assertEquals(departAfter.plusHours(14), response.getData().get(0).getArrivalDatetime());
+        });
+    }
+
+    @Test
+    void testPlanJourneyTransferCap() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/journeys")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", originCode)
+                        .param("destCode", destCode)
+                        .param("departAfter", departAfter.toString())
+                        .param("maxTransfers", "0")
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<JourneyResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertTrue(response.getData().isEmpty());
+        });
+    }
+
+    @Test
+    void testPlanJourneyMissedConnection() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        ScheduleEntity secondLeg = scheduleRepository.findById(secondLegId).orElse(null);
+        secondLeg.setDepartureDatetime(departAfter.plusHours(11).plusMinutes(5));
+        scheduleRepository.save(secondLeg);
+        journeyPlannerService.refreshSchedule(secondLegId);
+
+        mockMvc.perform(
+                get("/api/journeys")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", originCode)
+                        .param("destCode", destCode)
+                        .param("departAfter", departAfter.toString())
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<JourneyResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertTrue(response.getData().isEmpty());
+        });
+    }
+
+    @Test
+    void testPlanJourneyDepartureWindow() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        // the first leg leaves 8 hours after departAfter, so 12 hours earlier it is still within
+        // the default 24 hour window and 20 hours earlier it is not
+        mockMvc.perform(
+                get("/api/journeys")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", originCode)
+                        .param("destCode", destCode)
+                        .param("departAfter", departAfter.minusHours(12).toString())
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.data.length()").value(1)
+        );
+
+        mockMvc.perform(
+                get("/api/journeys")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", originCode)
+                        .param("destCode", destCode)
+                        .param("departAfter", departAfter.minusHours(20).toString())
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.data.length()").value(0)
+        );
+    }
+
+    @Test
+    void testPlanJourneyStationNotFound() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/journeys")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", "NOT_FOUND")
+                        .param("destCode", destCode)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isNotFound()
+        ).andDo(result -> {
+                WebResponse<List<JourneyResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testPlanJourneyNoToken() throws Exception {
+        mockMvc.perform(
+                get("/api/journeys")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", originCode)
+                        .param("destCode", destCode)
+                        .param("departAfter", departAfter.toString())
+        ).andExpectAll(
+                status().isUnauthorized()
+        ).andDo(result -> {
+                WebResponse<List<JourneyResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testPastConnectionsPruned() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atStartOfDay();
+
+        for (Long scheduleId : List.of(firstLegId, secondLegId)) {
+            ScheduleEntity schedule = scheduleRepository.findById(scheduleId).orElse(null);
+            schedule.setDepartureDatetime(schedule.getDepartureDatetime().minusDays(3));
+            schedule.setArrivalDatetime(schedule.getArrivalDatetime().minusDays(3));
+            scheduleRepository.save(schedule);
+            journeyPlannerService.refreshSchedule(scheduleId);
+        }
+
+        mockMvc.perform(
+                get("/api/journeys")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", originCode)
+                        .param("destCode", destCode)
+                        .param("departAfter", yesterday.toString())
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.data.length()").value(1)
+        );
+
+        journeyPlannerService.prune();
+
+        mockMvc.perform(
+                get("/api/journeys")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", originCode)
+                        .param("destCode", destCode)
+                        .param("departAfter", yesterday.toString())
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.data.length()").value(0)
+        );
+    }
+
+    private Long createSchedule(TrainEntity train, RouteEntity route, LocalDateTime departure, LocalDateTime arrival, UserEntity user) {
+        ScheduleEntity schedule = testFixtures.schedule(train, route, departure, arrival, user);
+
+        journeyPlannerService.refreshSchedule(schedule.getId());
+
+        return schedule.getId();
+    }
+
+}
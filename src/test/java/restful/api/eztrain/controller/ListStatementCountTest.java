@@ -0,0 +1,227 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+import restful.api.eztrain.entity.CoachEntity;
+import restful.api.eztrain.entity.RoleEntity;
+import restful.api.eztrain.entity.TrainEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.repository.CoachRepository;
+import restful.api.eztrain.repository.RoleRepository;
+import restful.api.eztrain.repository.TrainRepository;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+import restful.api.eztrain.seeder.CoachSeeder;
+import restful.api.eztrain.seeder.SeatSeeder;
+
+@EnableWebMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class ListStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CoachRepository coachRepository;
+
+    @Autowired
+    private TrainRepository trainRepository;
+
+    @Autowired
+    private SeatSeeder seatSeeder;
+
+    @Autowired
+    private CoachSeeder coachSeeder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    private static final long TRAINS = 6;
+
+    private static final long COACHES = 5;
+
+    private static final long COACH_SEARCH = 7;
+
+    private static final long USERS = 5;
+
+    private final String trainPrefix = "Statement Count Train";
+    private final String coachPrefix = "Statement Count Coach";
+    private final String userPrefix = "statementcount";
+    private final Integer rowCount = 12;
+
+    @BeforeEach
+    void setUp() {
+
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+
+        try {
+            seatSeeder.run();
+            coachSeeder.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        RoleEntity userRole = roleRepository.findByName("ROLE_USER").orElse(null);
+        List<CoachEntity> coaches = coachRepository.findAll();
+
+        for (int i = 0; i < rowCount; i++) {
+            if (trainRepository.findByName(trainPrefix + " " + i).isEmpty()) {
+                TrainEntity train = new TrainEntity();
+                train.setName(trainPrefix + " " + i);
+                train.setTrainType("Intercity");
+                train.setOperator("KAI");
+                train.setIsActive(true);
+                train.setUserEntity(user);
+                train.setCoaches(new ArrayList<>(List.of(coaches.get(i % coaches.size()))));
+                trainRepository.save(train);
+            }
+
+            if (coachRepository.findByCoachName(coachPrefix + " " + i).isEmpty()) {
+                CoachEntity coach = new CoachEntity();
+                coach.setCoachName(coachPrefix + " " + i);
+                coach.setCoachNumber(i);
+                coach.setCoachTypeEntity(coaches.get(i % coaches.size()).getCoachTypeEntity());
+                coach.setIsActive(true);
+                coach.setUserEntity(user);
+                coach.setSeats(new ArrayList<>(coaches.get(i % coaches.size()).getSeats()));
+                coachRepository.save(coach);
+            }
+
+            if (userRepository.findByEmail(userPrefix + i + "@gmail.com").isEmpty()) {
+                UserEntity listedUser = new UserEntity();
+                listedUser.setEmail(userPrefix + i + "@gmail.com");
+                listedUser.setPassword(password);
+                listedUser.setIsVerified(true);
+                listedUser.setIsActive(true);
+                listedUser.setRoles(Collections.singletonList(userRole));
+                userRepository.save(listedUser);
+            }
+        }
+    }
+
+    // every count below is for a full page of rowCount rows and includes the token lookup of the
+    // JWT filter, so a query per row shows up as a jump of at least ten
+
+    @Test
+    void testGetAllTrainsStatementCount() throws Exception {
+        String mockBearerToken = login();
+
+        // the page, its count and the coach names of its trains
+        assertEquals(TRAINS, countStatements("/api/trains", rowCount, mockBearerToken));
+    }
+
+    @Test
+    void testSearchTrainsStatementCount() throws Exception {
+        String mockBearerToken = login();
+
+        assertEquals(TRAINS, countStatements("/api/trains/search?name=" + trainPrefix, rowCount, mockBearerToken));
+    }
+
+    @Test
+    void testGetAllCoachesStatementCount() throws Exception {
+        String mockBearerToken = login();
+
+        // the page, its count and the seat numbers of its coaches
+        assertEquals(COACHES, countStatements("/api/coaches", rowCount, mockBearerToken));
+    }
+
+    @Test
+    void testSearchCoachesStatementCount() throws Exception {
+        String mockBearerToken = login();
+
+        // the page, its count, and the seats and coach types of its coaches fetched in one batch each
+        assertEquals(COACH_SEARCH, countStatements("/api/coaches/search?coachName=" + coachPrefix, rowCount, mockBearerToken));
+    }
+
+    @Test
+    void testGetAllUsersStatementCount() throws Exception {
+        String mockBearerToken = login();
+
+        // the page, its count and the roles of its users
+        assertEquals(USERS, countStatements("/api/users/list", rowCount, mockBearerToken));
+    }
+
+    private long countStatements(String path, int size, String mockBearerToken) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(
+                get(path)
+                        .param("page", "0")
+                        .param("size", String.valueOf(size))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private String login() {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        // warm the credentials cache so that both measured requests resolve the caller the same way
+        userRepository.findCredentialsByEmail(email);
+
+        return "Bearer " + mockToken;
+    }
+
+}
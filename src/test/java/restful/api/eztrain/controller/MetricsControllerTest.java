@@ -0,0 +1,108 @@
+package restful.api.eztrain.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+
+@EnableWebMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    @Test
+    void testPrometheusSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/stations")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/actuator/prometheus")
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                content().string(containsString("http_server_requests_seconds_bucket{")),
+                content().string(containsString("eztrain_service_seconds_bucket{class=\"StationService\"")),
+                content().string(containsString("eztrain_request_statements_count{method=\"GET\",uri=\"/api/stations\"}")),
+                content().string(not(containsString("eztrain_request_statements_sum{method=\"GET\",uri=\"/api/stations\"} 0.0"))),
+                content().string(containsString("eztrain_request_entity_loads_count{method=\"GET\",uri=\"/api/stations\"}")),
+                content().string(containsString("eztrain_request_collection_fetches_count{method=\"GET\",uri=\"/api/stations\"}")),
+                content().string(containsString("hibernate_statements_total")),
+                content().string(containsString("hikaricp_connections_active"))
+        );
+    }
+
+    @Test
+    void testPrometheusNoToken() throws Exception {
+        mockMvc.perform(
+                get("/actuator/prometheus")
+        ).andExpectAll(
+                status().isUnauthorized()
+        );
+    }
+
+    @Test
+    void testMetricsNoToken() throws Exception {
+        mockMvc.perform(
+                get("/actuator/metrics")
+        ).andExpectAll(
+                status().isUnauthorized()
+        );
+    }
+
+}
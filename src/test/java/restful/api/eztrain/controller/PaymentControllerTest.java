@@ -0,0 +1,414 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.PaymentEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.entity.VoucherEntity;
+import restful.api.eztrain.fixture.TestFixtures.BookableSchedule;
+import restful.api.eztrain.fixture.TestFixtures;
+import restful.api.eztrain.model.PaymentResponse;
+import restful.api.eztrain.model.SeatHoldRequest;
+import restful.api.eztrain.model.SeatHoldResponse;
+import restful.api.eztrain.model.TicketResponse;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.outbox.InMemoryOutboxSink;
+import restful.api.eztrain.outbox.OutboxMessage;
+import restful.api.eztrain.payment.SimulatedPaymentGateway;
+import restful.api.eztrain.repository.PaymentRepository;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.repository.VoucherRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+import restful.api.eztrain.service.PaymentService;
+import restful.api.eztrain.service.VoucherService;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PaymentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private SimulatedPaymentGateway simulatedPaymentGateway;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private VoucherService voucherService;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    private final String trainName = "Payment Express";
+    private final String eksCoachName = "Eksekutif 1";
+    private final String eksCoachType = "Eksekutif";
+    private final Integer seatCount = 8;
+
+    private Long scheduleId;
+
+    private Long coachId;
+
+    private List<Long> seatIds;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = testFixtures.admin(email);
+
+        BookableSchedule schedule = testFixtures.bookableSchedule(user, trainName, eksCoachName, seatCount);
+
+        scheduleId = schedule.scheduleId();
+        coachId = schedule.coachId();
+        seatIds = schedule.seatIds();
+    }
+
+    @Test
+    void testPaymentSettlesAfterConfirm() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        List<TicketResponse> tickets = confirm(mockBearerToken, seatIds.subList(0, 2));
+
+        assertEquals(2, tickets.size());
+        assertEquals("BOOKED", tickets.get(0).getBookingStatus());
+        assertNotNull(tickets.get(0).getPaymentId());
+
+        for (TicketResponse ticket : tickets) {
+            PaymentResponse payment = awaitPayment(mockBearerToken, ticket.getPaymentId(), "SETTLED");
+
+            assertEquals(ticket.getId(), payment.getTicketId());
+            assertEquals("PAID", payment.getBookingStatus());
+            assertEquals("SIMULATED", payment.getPaymentMethod());
+            assertEquals(ticket.getPrice(), payment.getFinalAmount());
+            assertNotNull(payment.getPaidAt());
+
+            assertEquals(List.of("TicketBooked", "PaymentAuthorized", "PaymentCaptured", "PaymentSettled"),
+                        awaitEvents(ticket.getId(), 4));
+        }
+    }
+
+    @Test
+    void testPaymentDeclinedReleasesSeat() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        Double maxAmount = (Double) ReflectionTestUtils.getField(simulatedPaymentGateway, "maxAmount");
+        ReflectionTestUtils.setField(simulatedPaymentGateway, "maxAmount", 1.0);
+
+        try {
+            List<TicketResponse> tickets = confirm(mockBearerToken, seatIds.subList(0, 1));
+
+            PaymentResponse payment = awaitPayment(mockBearerToken, tickets.get(0).getPaymentId(), "FAILED");
+
+            assertEquals("CANCELLED", payment.getBookingStatus());
+            assertEquals(null, payment.getPaidAt());
+        } finally {
+            ReflectionTestUtils.setField(simulatedPaymentGateway, "maxAmount", maxAmount);
+        }
+
+        assertEquals(1, confirm(mockBearerToken, seatIds.subList(0, 1)).size());
+    }
+
+    @Test
+    void testPaymentDeclinedFailsBookingAndReturnsVoucher() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        VoucherEntity voucher = new VoucherEntity();
+        voucher.setCode("DECLINE-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        voucher.setDiscountAmount(100000.0);
+        voucher.setMinimumAmount(0.0);
+        voucher.setMaxRedemptions(1);
+        voucher.setReservedCount(0);
+        voucher.setRedeemedCount(0);
+        voucher.setIsActive(true);
+        voucher.setUserEntity(user);
+        voucherRepository.save(voucher);
+
+        Double maxAmount = (Double) ReflectionTestUtils.getField(simulatedPaymentGateway, "maxAmount");
+
+        // the discount goes to the first ticket, so only the second one is declined
+        ReflectionTestUtils.setField(simulatedPaymentGateway, "maxAmount", 100000.0);
+
+        try {
+            List<TicketResponse> tickets = confirm(mockBearerToken, seatIds.subList(0, 2), voucher.getCode());
+
+            assertTrue(tickets.get(1).getPrice() > 100000.0);
+
+            for (TicketResponse ticket : tickets) {
+                PaymentResponse payment = awaitPayment(mockBearerToken, ticket.getPaymentId(), "FAILED");
+
+                assertEquals("CANCELLED", payment.getBookingStatus());
+            }
+        } finally {
+            ReflectionTestUtils.setField(simulatedPaymentGateway, "maxAmount", maxAmount);
+        }
+
+        voucherService.flush();
+
+        VoucherEntity returned = voucherRepository.findById(voucher.getId()).orElseThrow();
+
+        assertEquals(0, returned.getRedeemedCount());
+        assertEquals(0, returned.getReservedCount());
+
+        // the seats and the only redemption of the voucher can be booked again
+        assertEquals(2, confirm(mockBearerToken, seatIds.subList(0, 2), voucher.getCode()).size());
+    }
+
+    @Test
+    void testPaymentClaimedByAnotherNodeNotResumed() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        Long paymentId = confirm(mockBearerToken, seatIds.subList(0, 1)).get(0).getPaymentId();
+
+        awaitPayment(mockBearerToken, paymentId, "SETTLED");
+
+        // back to pending, in the middle of another node's claim
+        PaymentEntity payment = paymentRepository.findById(paymentId).orElseThrow();
+        payment.setPaymentStatus("PENDING");
+        payment.setPaidAt(null);
+        payment.setClaimedBy("another-node");
+        payment.setClaimedUntil(LocalDateTime.now().plusMinutes(1));
+        paymentRepository.save(payment);
+
+        paymentService.resumeUnfinished();
+        Thread.sleep(1_000);
+
+        assertEquals("PENDING", paymentRepository.findById(paymentId).orElseThrow().getPaymentStatus());
+
+        payment = paymentRepository.findById(paymentId).orElseThrow();
+        payment.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        paymentRepository.save(payment);
+
+        paymentService.resumeUnfinished();
+
+        awaitPayment(mockBearerToken, paymentId, "SETTLED");
+    }
+
+    @Test
+    void testGetPaymentNotFound() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/payments/0")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isNotFound()
+        ).andDo(result -> {
+                WebResponse<PaymentResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testGetPaymentNoToken() throws Exception {
+        mockMvc.perform(
+                get("/api/payments/1")
+                        .accept(MediaType.APPLICATION_JSON)
+        ).andExpectAll(
+                status().isUnauthorized()
+        );
+    }
+
+    private List<TicketResponse> confirm(String bearerToken, List<Long> seats) throws Exception {
+        return confirm(bearerToken, seats, null);
+    }
+
+    private List<TicketResponse> confirm(String bearerToken, List<Long> seats, String voucherCode) throws Exception {
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seats);
+        request.setVoucherCode(voucherCode);
+
+        String holdResult = mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<SeatHoldResponse> hold = objectMapper.readValue(holdResult, new TypeReference<>() {
+        });
+
+        String confirmResult = mockMvc.perform(
+                post("/api/bookings/holds/" + hold.getData().getHoldId() + "/confirm")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<List<TicketResponse>> tickets = objectMapper.readValue(confirmResult, new TypeReference<>() {
+        });
+
+        return tickets.getData();
+    }
+
+    private PaymentResponse awaitPayment(String bearerToken, Long paymentId, String paymentStatus) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (true) {
+            String result = mockMvc.perform(
+                    get("/api/payments/" + paymentId)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("Authorization", bearerToken)
+            ).andExpectAll(
+                    status().isOk()
+            ).andReturn().getResponse().getContentAsString();
+
+            WebResponse<PaymentResponse> response = objectMapper.readValue(result, new TypeReference<>() {
+            });
+
+            if (paymentStatus.equals(response.getData().getPaymentStatus())) {
+                return response.getData();
+            }
+
+            assertTrue(System.currentTimeMillis() < deadline, "payment did not reach " + paymentStatus);
+
+            Thread.sleep(50);
+        }
+    }
+
+    private List<String> awaitEvents(Long ticketId, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (true) {
+            List<String> events = outboxSink.getMessages().stream()
+                    .filter(message -> message.getAggregateType().equals("Ticket") && message.getAggregateId().equals(ticketId.toString()))
+                    .map(OutboxMessage::getEventType)
+                    .toList();
+
+            if (events.size() >= count) {
+                return events;
+            }
+
+            assertTrue(System.currentTimeMillis() < deadline, "ticket events were not published");
+
+            Thread.sleep(50);
+        }
+    }
+
+}
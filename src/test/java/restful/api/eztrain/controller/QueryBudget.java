@@ -0,0 +1,32 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import restful.api.eztrain.metrics.QueryCounter;
+import restful.api.eztrain.metrics.RequestQueryMetricsFilter;
+
+// Fails a MockMvc call that prepared more SQL statements than its budget, counting everything
+// from the JWT user lookup to the rendered response. Used next to status() in andExpectAll so an
+// N+1 regression in a list or search endpoint breaks the build instead of slowing production.
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher statementsAtMost(long budget) {
+        return result -> {
+            MockHttpServletRequest request = result.getRequest();
+            QueryCounter.Counts counts = (QueryCounter.Counts) request.getAttribute(RequestQueryMetricsFilter.COUNTS_ATTRIBUTE);
+
+            assertNotNull(counts, "statements of " + request.getRequestURI() + " were not counted");
+            assertTrue(counts.getStatements() <= budget, () -> request.getMethod() + " " + request.getRequestURI()
+                                                                + " prepared " + counts.getStatements()
+                                                                + " statements, the budget is " + budget);
+        };
+    }
+
+}
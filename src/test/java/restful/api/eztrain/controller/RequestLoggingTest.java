@@ -0,0 +1,88 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+public class RequestLoggingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    @Test
+    void testRequestLoggedMasked(CapturedOutput output) throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        mockMvc.perform(
+                get("/api/stations/search")
+                        .queryParam("name", "Gambir")
+                        .queryParam("token", "leaked-secret")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + mockToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        String line = "GET /api/stations/search?name=Gambir&token=**** 200";
+
+        // the console appender writes from its own thread
+        for (int i = 0; i < 100 && !output.getOut().contains(line); i++) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(output.getOut().contains(line));
+        assertFalse(output.getOut().contains("leaked-secret"));
+        assertFalse(output.getOut().contains(mockToken));
+    }
+
+}
@@ -3,6 +3,7 @@ package restful.api.eztrain.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static restful.api.eztrain.controller.QueryBudget.statementsAtMost;
 
 import java.util.Collections;
 import java.util.List;
@@ -128,7 +129,8 @@ public class RouteControllerTest {
                         .content(objectMapper.writeValueAsString(request))
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(10)
         ).andDo(result -> {
                 WebResponse<RouteResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -420,7 +422,8 @@ public class RouteControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<RouteResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -607,7 +610,8 @@ public class RouteControllerTest {
                         .content(objectMapper.writeValueAsString(request))
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(10)
         ).andDo(result -> {
                 WebResponse<RouteResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -781,7 +785,8 @@ public class RouteControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<List<RouteResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -822,7 +827,8 @@ public class RouteControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(11)
         ).andDo(result -> {
                 WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -856,7 +862,8 @@ public class RouteControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(10)
         ).andDo(result -> {
                 WebResponse<List<RouteResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -3,7 +3,9 @@ package restful.api.eztrain.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static restful.api.eztrain.controller.QueryBudget.statementsAtMost;
 import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +16,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -36,6 +39,7 @@ import restful.api.eztrain.repository.StationRepository;
 import restful.api.eztrain.repository.UserRepository;
 import restful.api.eztrain.security.JwtUtil;
 import restful.api.eztrain.security.SecurityConstants;
+import restful.api.eztrain.service.FareService;
 
 @EnableWebMvc
 @SpringBootTest
@@ -63,6 +67,9 @@ public class RoutePriceControllerTest {
     @Autowired
     private CoachTypeRepository coachTypeRepository;
 
+    @Autowired
+    private FareService fareService;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -81,6 +88,7 @@ public class RoutePriceControllerTest {
     @BeforeEach
     void setUp() {             
         routePriceRepository.deleteAll();
+        fareService.invalidate();
         
         UserEntity user = userRepository.findByEmail(email).orElse(null);
 
@@ -126,7 +134,8 @@ public class RoutePriceControllerTest {
                         .content(objectMapper.writeValueAsString(request))
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(11)
         ).andDo(result -> {
                 WebResponse<RoutePriceResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -230,4 +239,202 @@ public class RoutePriceControllerTest {
             assertEquals(false, response.getStatus());
         });        
     }
+
+    @Test
+    void testSearchRoutePriceSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);        
+
+        StationEntity origin = stationRepository.findByCode("GMR").orElse(null);
+        StationEntity destination = stationRepository.findByCode("BD").orElse(null);
+
+        RouteEntity route = routeRepository.findByOriginAndDestination(origin, destination).orElse(null);
+
+        CoachTypeEntity coachType = coachTypeRepository.findByName("Premium").orElse(null);
+
+        RegisterRoutePriceRequest request = new RegisterRoutePriceRequest();        
+        request.setRouteId(route.getId());
+        request.setCoachTypeId(coachType.getId());  
+        request.setPrice(150000.0);        
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/routeprices/search")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", "GMR")
+                        .param("destination", "BD")
+                        .param("coachType", "Premium")
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(7)
+        ).andDo(result -> {
+                WebResponse<List<RoutePriceResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(0, response.getData().size());
+        });
+
+        mockMvc.perform(
+                post("/api/routeprices")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(8)
+        );
+
+        mockMvc.perform(
+                get("/api/routeprices/search")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", "GMR")
+                        .param("destination", "BD")
+                        .param("coachType", "Premium")
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(5)
+        ).andDo(result -> {
+                WebResponse<List<RoutePriceResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(1, response.getData().size());
+            assertEquals(request.getPrice(), response.getData().get(0).getPrice());
+            assertEquals(coachType.getName(), response.getData().get(0).getCoachType());
+            assertEquals(route.getId(), response.getData().get(0).getRouteId());
+            assertEquals(origin.getName(), response.getData().get(0).getOrigin());
+            assertEquals(destination.getName(), response.getData().get(0).getDestination());
+        });
+    }
+
+    @Test
+    void testSearchRoutePriceMatchesRouteOrCoachType() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        StationEntity origin = stationRepository.findByCode("GMR").orElse(null);
+        StationEntity destination = stationRepository.findByCode("BD").orElse(null);
+
+        RouteEntity route = routeRepository.findByOriginAndDestination(origin, destination).orElse(null);
+        RouteEntity otherRoute = routeRepository.findAll().stream()
+                                    .filter(r -> !r.getId().equals(route.getId()))
+                                    .findFirst()
+                                    .orElse(null);
+
+        CoachTypeEntity premium = coachTypeRepository.findByName("Premium").orElse(null);
+        CoachTypeEntity eksekutif = coachTypeRepository.findByName("Eksekutif").orElse(null);
+
+        createRoutePrice(route, premium, user);
+        createRoutePrice(otherRoute, eksekutif, user);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        // the first by its route, the second by its coach type
+        assertEquals(2, search(mockBearerToken, "GMR", "BD", "Eksekutif").size());
+        assertEquals(1, search(mockBearerToken, "GMR", "BD", null).size());
+        assertEquals(1, search(mockBearerToken, null, null, "Eksekutif").size());
+        assertEquals(1, search(mockBearerToken, "NOT_FOUND", "BD", "Premium").size());
+        assertEquals(2, search(mockBearerToken, null, null, null).size());
+    }
+
+    @Test
+    void testSearchRoutePriceUnknownStation() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);        
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/routeprices/search")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("originCode", "NOT_FOUND")
+                        .param("destination", "BD")
+                        .param("coachType", "Premium")
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<RoutePriceResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(0, response.getData().size());
+        });
+    }
+
+    private void createRoutePrice(RouteEntity route, CoachTypeEntity coachType, UserEntity user) {
+        RoutePriceEntity routePrice = new RoutePriceEntity();
+        routePrice.setPrice(150000.0);
+        routePrice.setRouteEntity(route);
+        routePrice.setCoachTypeEntity(coachType);
+        routePrice.setUserEntity(user);
+        routePriceRepository.save(routePrice);
+
+        fareService.invalidate(routePrice.getId());
+    }
+
+    // a null filter is left out of the request
+    private List<RoutePriceResponse> search(String bearerToken, String originCode, String destination, String coachType) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/routeprices/search")
+                                                    .accept(MediaType.APPLICATION_JSON)
+                                                    .header("Authorization", bearerToken);
+
+        if (originCode != null) {
+            request.param("originCode", originCode);
+        }
+
+        if (destination != null) {
+            request.param("destination", destination);
+        }
+
+        if (coachType != null) {
+            request.param("coachType", coachType);
+        }
+
+        String result = mockMvc.perform(
+                request
+        ).andExpectAll(
+                status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<List<RoutePriceResponse>> response = objectMapper.readValue(result, new TypeReference<>() {
+        });
+
+        return response.getData();
+    }
 }
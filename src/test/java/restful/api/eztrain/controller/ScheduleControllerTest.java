@@ -0,0 +1,480 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static restful.api.eztrain.controller.QueryBudget.statementsAtMost;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.RoleEntity;
+import restful.api.eztrain.entity.RouteEntity;
+import restful.api.eztrain.entity.ScheduleEntity;
+import restful.api.eztrain.entity.StationEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.fixture.TestFixtures;
+import restful.api.eztrain.model.BulkRegisterScheduleRequest;
+import restful.api.eztrain.model.RegisterScheduleRequest;
+import restful.api.eztrain.model.ScheduleResponse;
+import restful.api.eztrain.model.UpdateScheduleRequest;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.repository.RoleRepository;
+import restful.api.eztrain.repository.RouteRepository;
+import restful.api.eztrain.repository.StationRepository;
+import restful.api.eztrain.repository.TrainRepository;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+import restful.api.eztrain.service.DepartureService;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ScheduleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private TrainRepository trainRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private DepartureService departureService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    private final String trainName = "Timetable Express";
+
+    private final LocalDate day = LocalDate.now().plusDays(40);
+
+    private String stationCode;
+
+    private Long trainId;
+
+    private Long routeId;
+
+    private Long otherRouteId;
+
+    private Double tripDuration;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = testFixtures.admin(email);
+
+        testFixtures.seedStations();
+
+        List<StationEntity> stations = stationRepository.findAll();
+
+        RouteEntity route = testFixtures.route(stations.get(0), stations.get(1), user);
+
+        routeId = route.getId();
+        tripDuration = route.getTripDuration();
+        otherRouteId = testFixtures.route(stations.get(0), stations.get(2), user).getId();
+        stationCode = stations.get(0).getCode();
+
+        trainId = testFixtures.train(trainName, user, List.of()).getId();
+
+        departureService.invalidate();
+    }
+
+    @Test
+    void testRegisterScheduleSuccess() throws Exception {
+        String mockBearerToken = login();
+
+        RegisterScheduleRequest request = new RegisterScheduleRequest(trainId, routeId, day.atTime(9, 0), null);
+
+        mockMvc.perform(
+                post("/api/schedules")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<ScheduleResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(trainName, response.getData().getTrainName());
+            assertEquals(stationCode, response.getData().getOriginCode());
+            assertEquals(day.atTime(9, 0).plusMinutes(Math.round(tripDuration * 60)), response.getData().getArrivalDatetime());
+            assertEquals("SCHEDULED", response.getData().getStatus());
+        });
+
+        List<ScheduleResponse> departures = getDepartures(day, mockBearerToken);
+
+        assertEquals(1, departures.size());
+        assertEquals(day.atTime(9, 0), departures.get(0).getDepartureDatetime());
+    }
+
+    @Test
+    void testRegisterScheduleRouteNotFound() throws Exception {
+        String mockBearerToken = login();
+
+        RegisterScheduleRequest request = new RegisterScheduleRequest(trainId, -1L, day.atTime(9, 0), null);
+
+        mockMvc.perform(
+                post("/api/schedules")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isNotFound()
+        );
+    }
+
+    @Test
+    void testRegisterScheduleArrivalBeforeDeparture() throws Exception {
+        String mockBearerToken = login();
+
+        RegisterScheduleRequest request = new RegisterScheduleRequest(trainId, routeId, day.atTime(9, 0), day.atTime(8, 0));
+
+        mockMvc.perform(
+                post("/api/schedules")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isBadRequest()
+        );
+    }
+
+    @Test
+    void testBulkRegisterDeparturesFromIndex() throws Exception {
+        String mockBearerToken = login();
+
+        bulkRegister(mockBearerToken, List.of(
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(10, 0), null),
+            new RegisterScheduleRequest(trainId, otherRouteId, day.atTime(8, 0), null),
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(14, 0), null),
+            new RegisterScheduleRequest(trainId, routeId, day.plusDays(1).atTime(6, 0), null)
+        ));
+
+        // the first board loads the index, the second one is answered from it and only the
+        // token and user lookups of the JWT filter reach the database
+        getDepartures(day, mockBearerToken);
+
+        mockMvc.perform(
+                get("/api/departures")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("stationCode", stationCode)
+                        .param("date", day.toString())
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(2)
+        ).andDo(result -> {
+                WebResponse<List<ScheduleResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(3, response.getData().size());
+            assertEquals(day.atTime(8, 0), response.getData().get(0).getDepartureDatetime());
+            assertEquals(day.atTime(10, 0), response.getData().get(1).getDepartureDatetime());
+            assertEquals(day.atTime(14, 0), response.getData().get(2).getDepartureDatetime());
+        });
+    }
+
+    @Test
+    void testScheduleWriteKeepsOtherDays() throws Exception {
+        String mockBearerToken = login();
+
+        bulkRegister(mockBearerToken, List.of(
+            new RegisterScheduleRequest(trainId, routeId, day.plusDays(1).atTime(6, 0), null)
+        ));
+
+        getDepartures(day, mockBearerToken);
+        getDepartures(day.plusDays(1), mockBearerToken);
+
+        bulkRegister(mockBearerToken, List.of(
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(9, 0), null)
+        ));
+
+        // only the day of the new schedule is dropped, the next one is still answered from the index
+        mockMvc.perform(
+                get("/api/departures")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("stationCode", stationCode)
+                        .param("date", day.plusDays(1).toString())
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                statementsAtMost(2),
+                jsonPath("$.data.length()").value(1)
+        );
+
+        List<ScheduleResponse> departures = getDepartures(day, mockBearerToken);
+
+        assertEquals(1, departures.size());
+        assertEquals(day.atTime(9, 0), departures.get(0).getDepartureDatetime());
+    }
+
+    @Test
+    void testNextDepartures() throws Exception {
+        String mockBearerToken = login();
+
+        bulkRegister(mockBearerToken, List.of(
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(8, 0), null),
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(10, 0), null),
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(14, 0), null),
+            new RegisterScheduleRequest(trainId, routeId, day.plusDays(1).atTime(6, 0), null)
+        ));
+
+        List<ScheduleResponse> next = getNextDepartures(day.atTime(9, 0), 2, mockBearerToken);
+
+        assertEquals(2, next.size());
+        assertEquals(day.atTime(10, 0), next.get(0).getDepartureDatetime());
+        assertEquals(day.atTime(14, 0), next.get(1).getDepartureDatetime());
+
+        next = getNextDepartures(day.atTime(9, 0), 3, mockBearerToken);
+
+        assertEquals(3, next.size());
+        assertEquals(day.plusDays(1).atTime(6, 0), next.get(2).getDepartureDatetime());
+    }
+
+    @Test
+    void testNextDeparturesLoadOnlyTheDaysNeeded() throws Exception {
+        String mockBearerToken = login();
+
+        bulkRegister(mockBearerToken, List.of(
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(8, 0), null),
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(10, 0), null),
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(14, 0), null)
+        ));
+
+        List<ScheduleResponse> next = getNextDepartures(day.atTime(9, 0), 2, mockBearerToken);
+
+        assertEquals(2, next.size());
+
+        // written behind the index's back: the next day was never loaded, so its board still sees it
+        testFixtures.schedule(trainRepository.findById(trainId).orElse(null),
+                                routeRepository.findById(routeId).orElse(null),
+                                day.plusDays(1).atTime(6, 0),
+                                day.plusDays(1).atTime(9, 0),
+                                testFixtures.admin(email));
+
+        List<ScheduleResponse> departures = getDepartures(day.plusDays(1), mockBearerToken);
+
+        assertEquals(1, departures.size());
+        assertEquals(day.plusDays(1).atTime(6, 0), departures.get(0).getDepartureDatetime());
+    }
+
+    @Test
+    void testCancelledScheduleLeavesBoard() throws Exception {
+        String mockBearerToken = login();
+
+        List<ScheduleResponse> schedules = bulkRegister(mockBearerToken, List.of(
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(8, 0), null),
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(10, 0), null)
+        ));
+
+        assertEquals(2, getDepartures(day, mockBearerToken).size());
+
+        UpdateScheduleRequest request = new UpdateScheduleRequest();
+        request.setStatus("CANCELLED");
+
+        mockMvc.perform(
+                patch("/api/schedules/" + schedules.get(0).getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.data.status").value("CANCELLED")
+        );
+
+        List<ScheduleResponse> departures = getDepartures(day, mockBearerToken);
+
+        assertEquals(1, departures.size());
+        assertEquals(schedules.get(1).getId(), departures.get(0).getId());
+    }
+
+    @Test
+    void testDeleteSchedule() throws Exception {
+        String mockBearerToken = login();
+
+        List<ScheduleResponse> schedules = bulkRegister(mockBearerToken, List.of(
+            new RegisterScheduleRequest(trainId, routeId, day.atTime(8, 0), null)
+        ));
+
+        mockMvc.perform(
+                delete("/api/schedules/" + schedules.get(0).getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/schedules/" + schedules.get(0).getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isNotFound()
+        );
+
+        assertEquals(0, getDepartures(day, mockBearerToken).size());
+    }
+
+    @Test
+    void testPastDeparturesFromDatabase() throws Exception {
+        String mockBearerToken = login();
+
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        ScheduleEntity schedule = testFixtures.schedule(trainRepository.findById(trainId).orElseThrow(),
+                                                        routeRepository.findById(routeId).orElseThrow(),
+                                                        yesterday.atTime(7, 0),
+                                                        yesterday.atTime(10, 0),
+                                                        userRepository.findByEmail(email).orElseThrow());
+
+        List<ScheduleResponse> departures = getDepartures(yesterday, mockBearerToken);
+
+        assertEquals(1, departures.stream().filter(departure -> departure.getId().equals(schedule.getId())).count());
+    }
+
+    @Test
+    void testRegisterScheduleBadRole() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        RoleEntity role = roleRepository.findByName("ROLE_USER").orElse(null);
+
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+
+        String mockBearerToken = login();
+
+        RegisterScheduleRequest request = new RegisterScheduleRequest(trainId, routeId, day.atTime(9, 0), null);
+
+        mockMvc.perform(
+                post("/api/schedules")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isForbidden()
+        );
+    }
+
+    private List<ScheduleResponse> bulkRegister(String mockBearerToken, List<RegisterScheduleRequest> schedules) throws Exception {
+        String content = mockMvc.perform(
+                post("/api/schedules/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkRegisterScheduleRequest(schedules)))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<List<ScheduleResponse>> response = objectMapper.readValue(content, new TypeReference<>() {
+        });
+
+        assertEquals(schedules.size(), response.getData().size());
+
+        return response.getData();
+    }
+
+    private List<ScheduleResponse> getDepartures(LocalDate date, String mockBearerToken) throws Exception {
+        String content = mockMvc.perform(
+                get("/api/departures")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("stationCode", stationCode)
+                        .param("date", date.toString())
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<List<ScheduleResponse>> response = objectMapper.readValue(content, new TypeReference<>() {
+        });
+
+        return response.getData();
+    }
+
+    private List<ScheduleResponse> getNextDepartures(LocalDateTime after, int limit, String mockBearerToken) throws Exception {
+        String content = mockMvc.perform(
+                get("/api/departures/next")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("stationCode", stationCode)
+                        .param("after", after.toString())
+                        .param("limit", String.valueOf(limit))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<List<ScheduleResponse>> response = objectMapper.readValue(content, new TypeReference<>() {
+        });
+
+        return response.getData();
+    }
+
+    private String login() {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        return "Bearer " + mockToken;
+    }
+
+}
@@ -1,8 +1,11 @@
 package restful.api.eztrain.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static restful.api.eztrain.controller.QueryBudget.statementsAtMost;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -27,6 +30,7 @@ import restful.api.eztrain.entity.SeatEntity;
 import restful.api.eztrain.entity.UserEntity;
 import restful.api.eztrain.model.CoachResponse;
 import restful.api.eztrain.model.RegisterSeatRequest;
+import restful.api.eztrain.model.SeatLayoutRequest;
 import restful.api.eztrain.model.SeatResponse;
 import restful.api.eztrain.model.UpdateSeatRequest;
 import restful.api.eztrain.model.WebResponse;
@@ -120,7 +124,8 @@ public class SeatControllerTest {
                         .content(objectMapper.writeValueAsString(request))
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(8)
         ).andDo(result -> {
                 WebResponse<SeatResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -381,7 +386,8 @@ public class SeatControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(7)
         ).andDo(result -> {
                 WebResponse<SeatResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -647,7 +653,8 @@ public class SeatControllerTest {
                         .content(objectMapper.writeValueAsString(request))                      
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(8)
         ).andDo(result -> {
                 WebResponse<SeatResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -933,7 +940,8 @@ public class SeatControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1196,7 +1204,8 @@ public class SeatControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<List<SeatResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1367,13 +1376,102 @@ public class SeatControllerTest {
         });
     }
 
+    @Test
+    void testGetAllSeatCursor() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);    
+
+        for (int i = 0; i < 50; i++) {
+            SeatEntity seat = new SeatEntity();
+            seat.setSeatNumber(i + "A");
+            seat.setUserEntity(user);
+            seatRepository.save(seat);
+        }
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        List<Long> seatIds = new ArrayList<>();
+        String after = "";
+        int pages = 0;
+
+        while (after != null) {
+            String content = mockMvc.perform(
+                    get("/api/seats")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .param("after", after)
+                            .param("size", "20")
+                            .header("Authorization", mockBearerToken)                        
+            ).andExpectAll(
+                    status().isOk()
+            ).andReturn().getResponse().getContentAsString();
+
+            WebResponse<List<SeatResponse>> response = objectMapper.readValue(content, new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertNull(response.getPaging().getTotalPage());
+            response.getData().forEach(seat -> seatIds.add(seat.getId()));
+
+            after = response.getPaging().getNextCursor();
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(50, seatIds.size());
+        assertEquals(seatIds.stream().sorted().distinct().toList(), seatIds);
+    }
+
+    @Test
+    void testGetAllSeatBadCursor() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);    
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/seats")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("after", "not-a-cursor")
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isBadRequest()
+        ).andDo(result -> {
+                WebResponse<List<SeatResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
     @Test
     void testSearchSeatByName() throws Exception {
         UserEntity user = userRepository.findByEmail(email).orElse(null);        
 
         for (int i = 0; i < 50; i++) {
             SeatEntity seat = new SeatEntity();
-            seat.setSeatNumber(i + "A");
+            seat.setSeatNumber("A" + i);
             seat.setUserEntity(user);
             seatRepository.save(seat);
         }        
@@ -1411,6 +1509,52 @@ public class SeatControllerTest {
         });        
     }
 
+    @Test
+    void testSearchSeatShortTermMatchesPrefix() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);        
+
+        for (String seatNumber : List.of("A1", "1A", "B1", "10B")) {
+            SeatEntity seat = new SeatEntity();
+            seat.setSeatNumber(seatNumber);
+            seat.setUserEntity(user);
+            seatRepository.save(seat);
+        }
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        // one or two characters match the start of the seat number, three anywhere in it
+        for (String[] search : new String[][] { { "a", "A1" }, { "1a", "1A" }, { "0b", null }, { "10b", "10B" } }) {
+            mockMvc.perform(
+                    get("/api/seats/search")
+                            .queryParam("seatNumber", search[0])
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("Authorization", mockBearerToken)
+            ).andExpectAll(
+                    status().isOk()
+            ).andDo(result -> {
+                    WebResponse<List<SeatResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                });
+
+                assertEquals(search[1] == null ? 0 : 1, response.getData().size());
+
+                if (search[1] != null) {
+                    assertEquals(search[1], response.getData().get(0).getSeatNumber());
+                }
+            });
+        }
+    }
+
     @Test
     void testSearchSeatNotFound() throws Exception {
         UserEntity user = userRepository.findByEmail(email).orElse(null);        
@@ -1616,4 +1760,94 @@ public class SeatControllerTest {
             assertEquals(false, response.getStatus());
         });        
     }
+
+    @Test
+    void testRegisterSeatLayoutSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        SeatLayoutRequest request = SeatLayoutRequest.builder().rows(20).columns("ABCD").build();
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        List<Long> seatIds = new ArrayList<>();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(
+                    post("/api/seats/bulk")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+                            .header("Authorization", mockBearerToken)                        
+            ).andExpectAll(
+                    status().isOk(),
+                    statementsAtMost(10)
+            ).andDo(result -> {
+                    WebResponse<List<SeatResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                });
+
+                assertEquals(true, response.getStatus());
+                assertEquals(80, response.getData().size());
+                assertEquals("1A", response.getData().get(0).getSeatNumber());
+                assertEquals("20D", response.getData().get(79).getSeatNumber());
+
+                List<Long> ids = response.getData().stream().map(SeatResponse::getId).toList();
+
+                if (seatIds.isEmpty()) {
+                    seatIds.addAll(ids);
+                } else {
+                    assertEquals(seatIds, ids);
+                }
+            });
+        }
+
+        assertEquals(80, seatRepository.count());
+    }
+
+    @Test
+    void testRegisterSeatLayoutBadColumns() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        SeatLayoutRequest request = SeatLayoutRequest.builder().rows(20).columns("a-b").build();
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/seats/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isBadRequest()
+        ).andDo(result -> {
+                WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+
+        assertEquals(0, seatRepository.count());
+    }
 }
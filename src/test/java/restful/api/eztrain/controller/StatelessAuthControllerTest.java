@@ -0,0 +1,201 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.RoleEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.model.ResetPasswordRequest;
+import restful.api.eztrain.model.UserResponse;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.repository.RoleRepository;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+
+@EnableWebMvc
+@SpringBootTest(properties = "jwt.stateless=true")
+@AutoConfigureMockMvc
+public class StatelessAuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String email = "stateless@gmail.com";
+    private final String password = "rahasia";
+
+    @BeforeEach
+    void setUp() {
+        userRepository.findByEmail(email).ifPresent(userRepository::delete);
+
+        RoleEntity role = roleRepository.findByName("ROLE_USER").orElse(null);
+
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Collections.singletonList(role));
+        user.setIsVerified(true);
+        user.setIsActive(true);
+        userRepository.save(user);
+    }
+
+    @Test
+    void testTokenNotStoredAuthenticates() throws Exception {
+        // the token is never written to users.token, only its signature and claims are checked
+        String bearerToken = "Bearer " + issueToken();
+
+        mockMvc.perform(
+                get("/api/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<UserResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(email, response.getData().getEmail());
+        });
+    }
+
+    @Test
+    void testLogoutRevokesToken() throws Exception {
+        String bearerToken = "Bearer " + issueToken();
+        String otherBearerToken = "Bearer " + issueToken();
+
+        mockMvc.perform(
+                delete("/api/auth/logout")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isUnauthorized()
+        );
+
+        mockMvc.perform(
+                get("/api/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", otherBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+    }
+
+    @Test
+    void testResetPasswordRevokesOnlyEarlierTokens() throws Exception {
+        String bearerToken = "Bearer " + issueToken();
+        String resetToken = UUID.randomUUID().toString();
+
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        user.setToken(resetToken);
+        userRepository.save(user);
+
+        ResetPasswordRequest request = new ResetPasswordRequest();
+        request.setEmail(email);
+        request.setToken(resetToken);
+        request.setPassword(password);
+
+        mockMvc.perform(
+                post("/api/auth/reset-password")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        // issued within the same second as the reset, which whole-second iat could not tell apart
+        String freshBearerToken = "Bearer " + issueToken();
+
+        mockMvc.perform(
+                get("/api/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isUnauthorized()
+        );
+
+        mockMvc.perform(
+                get("/api/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", freshBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+    }
+
+    @Test
+    void testExpiredTokenRejected() throws Exception {
+        Integer expiration = securityConstants.getJwtExpiration();
+        String bearerToken;
+
+        ReflectionTestUtils.setField(securityConstants, "jwtExpiration", -1000);
+
+        try {
+            bearerToken = "Bearer " + issueToken();
+        } finally {
+            ReflectionTestUtils.setField(securityConstants, "jwtExpiration", expiration);
+        }
+
+        mockMvc.perform(
+                get("/api/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isUnauthorized()
+        );
+    }
+
+    private String issueToken() {
+        return jwtUtil.generateToken(authenticationManager.authenticate(
+                                        new UsernamePasswordAuthenticationToken(email, password)));
+    }
+
+}
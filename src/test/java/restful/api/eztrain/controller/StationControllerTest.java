@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static restful.api.eztrain.controller.QueryBudget.statementsAtMost;
 
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +37,7 @@ import restful.api.eztrain.repository.UserRepository;
 import restful.api.eztrain.security.JwtUtil;
 import restful.api.eztrain.security.SecurityConstants;
 import restful.api.eztrain.seeder.StationSeeder;
+import restful.api.eztrain.service.StationAutocompleteService;
 
 @EnableWebMvc
 @SpringBootTest
@@ -57,6 +59,9 @@ public class StationControllerTest {
     @Autowired
     private StationSeeder stationSeeder;    
 
+    @Autowired
+    private StationAutocompleteService stationAutocompleteService;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -134,7 +139,8 @@ public class StationControllerTest {
                         .content(objectMapper.writeValueAsString(request))
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<StationResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -408,7 +414,8 @@ public class StationControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(7)
         ).andDo(result -> {
                 WebResponse<StationResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -649,7 +656,8 @@ public class StationControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<List<StationResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -824,7 +832,8 @@ public class StationControllerTest {
                         .content(objectMapper.writeValueAsString(request))
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<StationResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1070,7 +1079,8 @@ public class StationControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(11)
         ).andDo(result -> {
                 WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1431,6 +1441,42 @@ public class StationControllerTest {
         });        
     }
 
+    @Test
+    void testSearchStationCaseInsensitiveRanked() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/stations/search")
+                        .queryParam("city", bdCity.toLowerCase())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)                        
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<StationResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());            
+            assertEquals(2, response.getData().size());
+            assertEquals(bdCode, response.getData().get(0).getCode());
+            assertEquals("PDL", response.getData().get(1).getCode());
+        });        
+    }
+
     @Test
     void testSearchStationSuccess() throws Exception {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
@@ -1455,7 +1501,8 @@ public class StationControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(8)
         ).andDo(result -> {
                 WebResponse<List<StationResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1474,7 +1521,8 @@ public class StationControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(6)
         ).andDo(result -> {
                 WebResponse<List<StationResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1493,7 +1541,8 @@ public class StationControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(6)
         ).andDo(result -> {
                 WebResponse<List<StationResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1512,7 +1561,8 @@ public class StationControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(6)
         ).andDo(result -> {
                 WebResponse<List<StationResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -1695,4 +1745,141 @@ public class StationControllerTest {
             assertEquals(false, response.getStatus());
         });        
     }
+
+    @Test
+    void testAutocompleteStation() throws Exception {
+        stationAutocompleteService.rebuild();
+
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/stations/autocomplete")
+                        .queryParam("q", "BAN")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<StationResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());            
+            assertEquals(2, response.getData().size());
+            assertEquals(bdCode, response.getData().get(0).getCode());
+            assertEquals("PDL", response.getData().get(1).getCode());
+        });        
+    }
+
+    @Test
+    void testAutocompleteStationLimit() throws Exception {
+        stationAutocompleteService.rebuild();
+
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/stations/autocomplete")
+                        .queryParam("q", "jawa")
+                        .queryParam("limit", "2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<StationResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());            
+            assertEquals(2, response.getData().size());
+        });        
+    }
+
+    @Test
+    void testAutocompleteStationAfterRegister() throws Exception {
+        stationAutocompleteService.rebuild();
+
+        RegisterStationRequest request = new RegisterStationRequest();
+        request.setCode(bwCode);
+        request.setName(bwName);
+        request.setCity(bwCity);
+        request.setProvince(bwProvince);
+
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/stations")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/stations/autocomplete")
+                        .queryParam("q", "banyu")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<StationResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());            
+            assertEquals(1, response.getData().size());
+            assertEquals(bwCode, response.getData().get(0).getCode());
+        });        
+    }
+
+    @Test
+    void testAutocompleteStationInvalidToken() throws Exception {
+        mockMvc.perform(
+                get("/api/stations/autocomplete")
+                        .queryParam("q", "ban")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer invalid")                        
+        ).andExpectAll(
+                status().isUnauthorized()
+        );
+    }
 }
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static restful.api.eztrain.controller.QueryBudget.statementsAtMost;
 
 import java.util.Collections;
 import java.util.List;
@@ -86,7 +87,8 @@ public class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))                        
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(6)
         ).andDo(result -> {
                 WebResponse<UserResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -204,7 +206,8 @@ public class UserControllerTest {
                         .accept(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                                             
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(6)
         ).andDo(result -> {
                 WebResponse<UserResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -405,7 +408,8 @@ public class UserControllerTest {
                         .content(objectMapper.writeValueAsString(request))                    
                         .header("Authorization", mockBearerToken)                                             
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<UserResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -414,6 +418,71 @@ public class UserControllerTest {
         });
     }
 
+    @Test
+    void testUpdateUserThenGetUser() throws Exception {
+        RoleEntity role = roleRepository.findByName("ROLE_USER").orElse(null);
+
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Collections.singletonList(role));
+        user.setIsVerified(false);
+        user.setIsActive(false);
+        userRepository.save(user);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setFullName("Bintang Ginanjar");
+        request.setPhoneNumber("11111111");
+
+        mockMvc.perform(
+                patch("/api/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<UserResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals("Bintang Ginanjar", response.getData().getFullName());
+            assertEquals("11111111", response.getData().getPhoneNumber());
+        });
+    }
+
     @Test
     void testUpdateUserInvalidToken() throws Exception {                    
         RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
@@ -627,7 +696,8 @@ public class UserControllerTest {
                         .accept(MediaType.APPLICATION_JSON)                        
                         .header("Authorization", mockBearerToken)                                             
         ).andExpectAll(
-                status().isOk()
+                status().isOk(),
+                statementsAtMost(9)
         ).andDo(result -> {
                 WebResponse<List<UserResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
@@ -0,0 +1,425 @@
+package restful.api.eztrain.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.fixture.TestFixtures.BookableSchedule;
+import restful.api.eztrain.fixture.TestFixtures;
+import restful.api.eztrain.model.PaymentResponse;
+import restful.api.eztrain.model.RegisterVoucherRequest;
+import restful.api.eztrain.model.SeatHoldRequest;
+import restful.api.eztrain.model.SeatHoldResponse;
+import restful.api.eztrain.model.TicketResponse;
+import restful.api.eztrain.model.VoucherResponse;
+import restful.api.eztrain.model.WebResponse;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+import restful.api.eztrain.service.VoucherService;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class VoucherControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private VoucherService voucherService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String email = "admin@gmail.com";
+    private final String password = "rahasia";
+
+    private final String trainName = "Voucher Express";
+    private final String eksCoachName = "Eksekutif 1";
+    private final String eksCoachType = "Eksekutif";
+    private final Integer seatCount = 8;
+
+    private Long scheduleId;
+
+    private Long coachId;
+
+    private List<Long> seatIds;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = testFixtures.admin(email);
+
+        BookableSchedule schedule = testFixtures.bookableSchedule(user, trainName, eksCoachName, seatCount);
+
+        scheduleId = schedule.scheduleId();
+        coachId = schedule.coachId();
+        seatIds = schedule.seatIds();
+    }
+
+    @Test
+    void testRegisterVoucherSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        RegisterVoucherRequest request = new RegisterVoucherRequest();
+        request.setCode(newCode());
+        request.setDiscountAmount(25000.0);
+        request.setMinimumAmount(100000.0);
+        request.setValidUntil(LocalDateTime.now().plusDays(7));
+        request.setMaxRedemptions(100);
+
+        mockMvc.perform(
+                post("/api/vouchers")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<VoucherResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(request.getCode(), response.getData().getCode());
+            assertEquals(100, response.getData().getMaxRedemptions());
+            assertEquals(true, response.getData().getIsActive());
+        });
+
+        mockMvc.perform(
+                post("/api/vouchers")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isBadRequest()
+        );
+    }
+
+    @Test
+    void testGetVoucherNotFound() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/vouchers/" + newCode())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isNotFound()
+        ).andDo(result -> {
+                WebResponse<VoucherResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testHoldWithInvalidVoucher() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        RegisterVoucherRequest voucher = new RegisterVoucherRequest();
+        voucher.setCode(newCode());
+        voucher.setDiscountAmount(10000.0);
+        voucher.setMinimumAmount(0.0);
+        voucher.setValidFrom(LocalDateTime.now().minusDays(2));
+        voucher.setValidUntil(LocalDateTime.now().minusDays(1));
+
+        mockMvc.perform(
+                post("/api/vouchers")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(voucher))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seatIds.subList(0, 1));
+        request.setVoucherCode(voucher.getCode());
+
+        mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isBadRequest()
+        );
+
+        request.setVoucherCode(newCode());
+
+        mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isNotFound()
+        );
+    }
+
+    @Test
+    void testConfirmWithVoucherDiscountsPayments() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        String code = register(mockBearerToken, 200000.0, 100000.0, null);
+
+        List<TicketResponse> tickets = confirm(mockBearerToken, seatIds.subList(0, 2), code);
+
+        assertEquals(2, tickets.size());
+
+        Double price = tickets.get(0).getPrice();
+        List<PaymentResponse> payments = new ArrayList<>();
+
+        for (TicketResponse ticket : tickets) {
+            String result = mockMvc.perform(
+                    get("/api/payments/" + ticket.getPaymentId())
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("Authorization", mockBearerToken)
+            ).andExpectAll(
+                    status().isOk()
+            ).andReturn().getResponse().getContentAsString();
+
+            WebResponse<PaymentResponse> response = objectMapper.readValue(result, new TypeReference<>() {
+            });
+
+            payments.add(response.getData());
+        }
+
+        double discount = Math.min(200000.0, 2 * price);
+
+        assertEquals(discount, payments.get(0).getDiscountAmount() + payments.get(1).getDiscountAmount(), 0.001);
+        assertEquals(2 * price - discount, payments.get(0).getFinalAmount() + payments.get(1).getFinalAmount(), 0.001);
+        assertEquals(price, payments.get(0).getOriginalAmount());
+    }
+
+    @Test
+    void testRedeemConcurrentNeverExceedsCap() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        String code = register(mockBearerToken, 10000.0, 0.0, 20);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            attempts.add(() -> {
+                try {
+                    voucherService.redeem(code, 150000.0);
+                    return true;
+                } catch (ResponseStatusException e) {
+                    return false;
+                }
+            });
+        }
+
+        int redeemed = 0;
+
+        for (Future<Boolean> attempt : executor.invokeAll(attempts)) {
+            if (attempt.get()) {
+                redeemed++;
+            }
+        }
+
+        executor.shutdown();
+
+        voucherService.flush();
+
+        assertEquals(20, redeemed);
+        assertEquals(20, jdbcTemplate.queryForObject("SELECT redeemed_count FROM vouchers WHERE code = ?", Integer.class, code));
+        assertEquals(20, jdbcTemplate.queryForObject("SELECT reserved_count FROM vouchers WHERE code = ?", Integer.class, code));
+    }
+
+    @Test
+    void testRegisterVoucherNoToken() throws Exception {
+        RegisterVoucherRequest request = new RegisterVoucherRequest();
+        request.setCode(newCode());
+        request.setDiscountAmount(25000.0);
+        request.setMinimumAmount(0.0);
+
+        mockMvc.perform(
+                post("/api/vouchers")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+        ).andExpectAll(
+                status().isUnauthorized()
+        );
+    }
+
+    private String newCode() {
+        return "PROMO-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    private String register(String bearerToken, Double discountAmount, Double minimumAmount, Integer maxRedemptions) throws Exception {
+        RegisterVoucherRequest request = new RegisterVoucherRequest();
+        request.setCode(newCode());
+        request.setDiscountAmount(discountAmount);
+        request.setMinimumAmount(minimumAmount);
+        request.setMaxRedemptions(maxRedemptions);
+
+        mockMvc.perform(
+                post("/api/vouchers")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        return request.getCode();
+    }
+
+    private List<TicketResponse> confirm(String bearerToken, List<Long> seats, String voucherCode) throws Exception {
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setScheduleId(scheduleId);
+        request.setCoachId(coachId);
+        request.setSeatIds(seats);
+        request.setVoucherCode(voucherCode);
+
+        String holdResult = mockMvc.perform(
+                post("/api/bookings/holds")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<SeatHoldResponse> hold = objectMapper.readValue(holdResult, new TypeReference<>() {
+        });
+
+        String confirmResult = mockMvc.perform(
+                post("/api/bookings/holds/" + hold.getData().getHoldId() + "/confirm")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", bearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+
+        WebResponse<List<TicketResponse>> tickets = objectMapper.readValue(confirmResult, new TypeReference<>() {
+        });
+
+        return tickets.getData();
+    }
+
+}
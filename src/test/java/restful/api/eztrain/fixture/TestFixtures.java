@@ -0,0 +1,207 @@
+package restful.api.eztrain.fixture;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import restful.api.eztrain.entity.CoachEntity;
+import restful.api.eztrain.entity.RoleEntity;
+import restful.api.eztrain.entity.RouteEntity;
+import restful.api.eztrain.entity.RoutePriceEntity;
+import restful.api.eztrain.entity.ScheduleEntity;
+import restful.api.eztrain.entity.SeatEntity;
+import restful.api.eztrain.entity.StationEntity;
+import restful.api.eztrain.entity.TrainEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.repository.CoachRepository;
+import restful.api.eztrain.repository.RoleRepository;
+import restful.api.eztrain.repository.RoutePriceRepository;
+import restful.api.eztrain.repository.RouteRepository;
+import restful.api.eztrain.repository.ScheduleRepository;
+import restful.api.eztrain.repository.SeatRepository;
+import restful.api.eztrain.repository.TrainRepository;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.seeder.CoachSeeder;
+import restful.api.eztrain.seeder.RouteSeeder;
+import restful.api.eztrain.seeder.SeatSeeder;
+import restful.api.eztrain.seeder.StationSeeder;
+import restful.api.eztrain.service.FareService;
+import restful.api.eztrain.service.JourneyPlannerService;
+
+// The trains, routes and schedules the controller and benchmark tests run against, built the
+// same way for all of them. Every call can run again before each test on the same database.
+@Component
+public class TestFixtures {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TrainRepository trainRepository;
+
+    @Autowired
+    private CoachRepository coachRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RoutePriceRepository routePriceRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private StationSeeder stationSeeder;
+
+    @Autowired
+    private RouteSeeder routeSeeder;
+
+    @Autowired
+    private SeatSeeder seatSeeder;
+
+    @Autowired
+    private CoachSeeder coachSeeder;
+
+    @Autowired
+    private FareService fareService;
+
+    @Autowired
+    private JourneyPlannerService journeyPlannerService;
+
+    public record BookableSchedule(Long scheduleId, Long coachId, List<Long> seatIds) {
+    }
+
+    public UserEntity admin(String email) {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+
+        return user;
+    }
+
+    public void seedStations() {
+        try {
+            stationSeeder.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void seedAll() {
+        try {
+            stationSeeder.run();
+            routeSeeder.run();
+            seatSeeder.run();
+            coachSeeder.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // replaces the train left behind by an earlier test
+    public TrainEntity train(String name, UserEntity user, List<CoachEntity> coaches) {
+        trainRepository.findByName(name).ifPresent(train -> {
+            trainRepository.delete(train);
+            journeyPlannerService.removeTrain(train.getId());
+        });
+
+        TrainEntity train = new TrainEntity();
+        train.setName(name);
+        train.setTrainType("Intercity");
+        train.setOperator("KAI");
+        train.setIsActive(true);
+        train.setUserEntity(user);
+        train.setCoaches(new ArrayList<>(coaches));
+        trainRepository.save(train);
+
+        return train;
+    }
+
+    public CoachEntity coachWithSeats(String coachName, int seatCount) {
+        List<SeatEntity> seats = seatRepository.findAll().subList(0, seatCount);
+
+        CoachEntity coach = coachRepository.findByCoachName(coachName).orElse(null);
+        coach.setSeats(new ArrayList<>(seats));
+        coachRepository.save(coach);
+
+        return coach;
+    }
+
+    public RouteEntity route(StationEntity origin, StationEntity destination, UserEntity user) {
+        return routeRepository.findByOriginAndDestination(origin, destination).orElseGet(() -> {
+            RouteEntity route = new RouteEntity();
+            route.setOrigin(origin);
+            route.setDestination(destination);
+            route.setTripDistance(150.0);
+            route.setTripDuration(3.0);
+            route.setUserEntity(user);
+
+            return routeRepository.save(route);
+        });
+    }
+
+    public RoutePriceEntity routePrice(RouteEntity route, CoachEntity coach, UserEntity user) {
+        return routePriceRepository.findByRouteEntityAndCoachTypeEntity(route, coach.getCoachTypeEntity())
+                .orElseGet(() -> {
+                    RoutePriceEntity routePrice = new RoutePriceEntity();
+                    routePrice.setPrice(150000.0);
+                    routePrice.setRouteEntity(route);
+                    routePrice.setCoachTypeEntity(coach.getCoachTypeEntity());
+                    routePrice.setUserEntity(user);
+                    routePriceRepository.save(routePrice);
+                    fareService.invalidate(routePrice.getId());
+
+                    return routePrice;
+                });
+    }
+
+    public ScheduleEntity schedule(TrainEntity train, RouteEntity route, LocalDateTime departure, LocalDateTime arrival, UserEntity user) {
+        ScheduleEntity schedule = new ScheduleEntity();
+        schedule.setTrainEntity(train);
+        schedule.setRouteEntity(route);
+        schedule.setDepartureDatetime(departure);
+        schedule.setArrivalDatetime(arrival);
+        schedule.setStatus("SCHEDULED");
+        schedule.setUserEntity(user);
+        scheduleRepository.save(schedule);
+
+        return schedule;
+    }
+
+    public ScheduleEntity scheduleTomorrow(TrainEntity train, RouteEntity route, UserEntity user) {
+        return schedule(train, route, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(3), user);
+    }
+
+    // a train with one coach of seatCount seats, priced on the first seeded route, departing tomorrow
+    public BookableSchedule bookableSchedule(UserEntity user, String trainName, String coachName, int seatCount) {
+        seedAll();
+
+        CoachEntity coach = coachWithSeats(coachName, seatCount);
+        TrainEntity train = train(trainName, user, List.of(coach));
+
+        RouteEntity route = routeRepository.findAll().get(0);
+
+        routePrice(route, coach, user);
+
+        ScheduleEntity schedule = scheduleTomorrow(train, route, user);
+
+        return new BookableSchedule(schedule.getId(),
+                                    coach.getId(),
+                                    coach.getSeats().stream().map(SeatEntity::getId).toList());
+    }
+
+}
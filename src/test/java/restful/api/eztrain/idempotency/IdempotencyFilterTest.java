@@ -0,0 +1,338 @@
+package restful.api.eztrain.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import restful.api.eztrain.entity.RoleEntity;
+import restful.api.eztrain.entity.UserEntity;
+import restful.api.eztrain.model.LoginUserRequest;
+import restful.api.eztrain.model.RegisterTrainRequest;
+import restful.api.eztrain.repository.CoachRepository;
+import restful.api.eztrain.repository.RoleRepository;
+import restful.api.eztrain.repository.TrainRepository;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.security.JwtUtil;
+import restful.api.eztrain.security.SecurityConstants;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TrainRepository trainRepository;
+
+    @Autowired
+    private CoachRepository coachRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityConstants securityConstants;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String email = "test@gmail.com";
+    private final String password = "rahasia";
+
+    @BeforeEach
+    void setUp() {
+        trainRepository.deleteAll();
+        coachRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Collections.singletonList(role));
+        user.setIsVerified(true);
+        user.setIsActive(true);
+        userRepository.save(user);
+    }
+
+    @Test
+    void testRetryReplaysStoredResponse() throws Exception {
+        String mockBearerToken = "Bearer " + token();
+        String key = "train-" + System.nanoTime();
+
+        RegisterTrainRequest request = new RegisterTrainRequest("Argo Bromo", "Argo", "KAI");
+
+        MvcResult first = mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+        ).andExpectAll(
+                status().isOk(),
+                header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER)
+        ).andReturn();
+
+        mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+        ).andExpectAll(
+                status().isOk(),
+                header().string(IdempotencyFilter.REPLAYED_HEADER, "true"),
+                content().string(first.getResponse().getContentAsString())
+        );
+
+        assertEquals(1, trainRepository.count());
+        assertEquals(200, jdbcTemplate.queryForObject("SELECT status FROM idempotency_keys WHERE store_key = ?", Integer.class, email + " " + key));
+    }
+
+    @Test
+    void testUnfinishedKeyClaimedAfterTimeout() throws Exception {
+        String mockBearerToken = "Bearer " + token();
+        String key = "train-" + System.nanoTime();
+
+        RegisterTrainRequest request = new RegisterTrainRequest("Argo Bromo", "Argo", "KAI");
+
+        mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        // as another node leaves the key while its request runs, and if it dies before finishing
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = NULL, body = NULL, updated_at = ? WHERE store_key = ?",
+                            System.currentTimeMillis(), email + " " + key);
+
+        mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+        ).andExpectAll(
+                status().isConflict()
+        );
+
+        jdbcTemplate.update("UPDATE idempotency_keys SET updated_at = ? WHERE store_key = ?",
+                            System.currentTimeMillis() - 120_000, email + " " + key);
+
+        mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+        ).andExpectAll(
+                status().isBadRequest(),
+                header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER)
+        );
+
+        assertEquals(1, trainRepository.count());
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequest() throws Exception {
+        String mockBearerToken = "Bearer " + token();
+        String key = "train-" + System.nanoTime();
+
+        mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RegisterTrainRequest("Argo Bromo", "Argo", "KAI")))
+                        .header("Authorization", mockBearerToken)
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RegisterTrainRequest("Argo Wilis", "Argo", "KAI")))
+                        .header("Authorization", mockBearerToken)
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+        ).andExpectAll(
+                status().isUnprocessableEntity(),
+                jsonPath("$.status").value(false)
+        );
+
+        assertEquals(1, trainRepository.count());
+    }
+
+    @Test
+    void testRequestsWithoutKeyRunEveryTime() throws Exception {
+        String mockBearerToken = "Bearer " + token();
+
+        RegisterTrainRequest request = new RegisterTrainRequest("Argo Bromo", "Argo", "KAI");
+
+        mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isBadRequest()
+        );
+    }
+
+    @Test
+    void testAnonymousRequestsRunEveryTime() throws Exception {
+        LoginUserRequest request = new LoginUserRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(
+                    post("/api/auth/login")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+                            .header(IdempotencyFilter.KEY_HEADER, "login")
+            ).andExpectAll(
+                    status().isOk(),
+                    header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER)
+            );
+        }
+    }
+
+    @Test
+    void testOversizedBodyRejected() throws Exception {
+        String mockBearerToken = "Bearer " + token();
+
+        RegisterTrainRequest request = new RegisterTrainRequest("A".repeat(70000), "Argo", "KAI");
+
+        mockMvc.perform(
+                post("/api/trains")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+                        .header(IdempotencyFilter.KEY_HEADER, "train-" + System.nanoTime())
+        ).andExpectAll(
+                status().isPayloadTooLarge(),
+                jsonPath("$.status").value(false)
+        );
+
+        assertEquals(0, trainRepository.count());
+    }
+
+    @Test
+    void testCachedBodyReadListener() throws Exception {
+        CachedBodyRequest request = new CachedBodyRequest(new MockHttpServletRequest(), "body".getBytes(StandardCharsets.UTF_8));
+        ServletInputStream in = request.getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("available");
+
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("all read");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("available", "all read"), events);
+        assertEquals("body", read.toString(StandardCharsets.UTF_8));
+    }
+
+    private String token() {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + securityConstants.getJwtExpiration());
+        userRepository.save(user);
+
+        return mockToken;
+    }
+
+}
@@ -0,0 +1,161 @@
+package restful.api.eztrain.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.eztrain.model.RegisterUserRequest;
+import restful.api.eztrain.repository.UserRepository;
+import restful.api.eztrain.service.OutboxService;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OutboxRelayTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testUserRegistrationPublishedOnce() throws Exception {
+        RegisterUserRequest request = new RegisterUserRequest();
+        request.setEmail("outbox-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com");
+        request.setPassword("rahasia");
+        request.setRole("ROLE_USER");
+
+        try {
+            mockMvc.perform(
+                    post("/api/users")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+            ).andExpect(status().isOk());
+
+            mockMvc.perform(
+                    post("/api/users")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+            ).andExpect(status().isBadRequest());
+
+            List<OutboxMessage> registered = awaitMessages(message -> message.getEventType().equals("UserRegistered")
+                                                                    && message.getPayload().contains(request.getEmail()), 1);
+
+            assertEquals(1, registered.size());
+            assertEquals("User", registered.get(0).getAggregateType());
+            assertEquals(userRepository.findByEmail(request.getEmail()).orElseThrow().getId().toString(), registered.get(0).getAggregateId());
+        } finally {
+            userRepository.findByEmail(request.getEmail()).ifPresent(userRepository::delete);
+        }
+    }
+
+    @Test
+    void testEventsPublishedInOrderPerAggregate() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        String aggregateId = UUID.randomUUID().toString();
+
+        for (int i = 0; i < 5; i++) {
+            int sequence = i;
+
+            transactionTemplate.executeWithoutResult(transaction ->
+                outboxService.record("Test", aggregateId, "Step", Map.of("sequence", sequence)));
+        }
+
+        List<String> payloads = awaitMessages(message -> message.getAggregateId().equals(aggregateId), 5).stream()
+                .map(OutboxMessage::getPayload)
+                .toList();
+
+        assertEquals(List.of("{\"sequence\":0}", "{\"sequence\":1}", "{\"sequence\":2}", "{\"sequence\":3}", "{\"sequence\":4}"), payloads);
+    }
+
+    @Test
+    void testRolledBackEventNotPublished() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        String aggregateId = UUID.randomUUID().toString();
+
+        transactionTemplate.executeWithoutResult(transaction -> {
+            outboxService.record("Test", aggregateId, "RolledBack", Map.of());
+            transaction.setRollbackOnly();
+        });
+
+        transactionTemplate.executeWithoutResult(transaction ->
+            outboxService.record("Test", aggregateId, "Committed", Map.of()));
+
+        List<String> eventTypes = awaitMessages(message -> message.getAggregateId().equals(aggregateId), 1).stream()
+                .map(OutboxMessage::getEventType)
+                .toList();
+
+        assertEquals(List.of("Committed"), eventTypes);
+    }
+
+    @Test
+    void testRecordNeedsTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outboxService.record("Test", UUID.randomUUID().toString(), "Orphan", Map.of()));
+
+        assertTrue(outboxSink.getMessages().stream().noneMatch(message -> message.getEventType().equals("Orphan")));
+    }
+
+    // the scheduled relay may hold the lock, so keep relaying until the messages are through
+    private List<OutboxMessage> awaitMessages(Predicate<OutboxMessage> filter, int count) {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (true) {
+            outboxRelay.relay();
+
+            List<OutboxMessage> messages = outboxSink.getMessages().stream().filter(filter).toList();
+
+            if (messages.size() >= count) {
+                return messages;
+            }
+
+            assertTrue(System.currentTimeMillis() < deadline, "outbox messages were not published");
+
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return messages;
+            }
+        }
+    }
+
+}